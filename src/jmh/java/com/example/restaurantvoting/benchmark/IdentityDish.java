@@ -0,0 +1,45 @@
+package com.example.restaurantvoting.benchmark;
+
+import com.example.restaurantvoting.model.Dish;
+import com.example.restaurantvoting.model.Restaurant;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import javax.persistence.*;
+import java.time.LocalDate;
+
+/**
+ * {@link Dish} mapped the way every entity was before the move to pooled sequences: with an IDENTITY id.
+ * Hibernate has to execute each insert on its own to read the generated key back, so JDBC batching never applies.
+ * Only on the classpath of the benchmarks, where it serves as the baseline of {@link InsertBenchmark}.
+ */
+@Entity
+@Table(name = "identity_dish")
+@NoArgsConstructor
+@Getter
+public class IdentityDish {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "name", nullable = false)
+    private String name;
+
+    @Column(name = "price", nullable = false)
+    private Integer price;
+
+    @ManyToOne
+    @JoinColumn(name = "restaurant_id", nullable = false)
+    private Restaurant restaurant;
+
+    @Column(name = "date_entry", nullable = false)
+    private LocalDate date;
+
+    public IdentityDish(String name, Integer price, Restaurant restaurant, LocalDate date) {
+        this.name = name;
+        this.price = price;
+        this.restaurant = restaurant;
+        this.date = date;
+    }
+}
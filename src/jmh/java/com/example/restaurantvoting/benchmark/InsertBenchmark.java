@@ -0,0 +1,102 @@
+package com.example.restaurantvoting.benchmark;
+
+import com.example.restaurantvoting.RestaurantVotingApplication;
+import com.example.restaurantvoting.model.Dish;
+import com.example.restaurantvoting.model.Restaurant;
+import com.example.restaurantvoting.repository.RestaurantRepository;
+import com.example.restaurantvoting.repository.VoteRepository;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManager;
+import javax.persistence.GenerationType;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bulk inserts through Hibernate with the current pooled-sequence ids against the IDENTITY ids used before.
+ * {@code idGeneration} picks the entity: {@link Dish} (SEQUENCE) or its IDENTITY-mapped copy {@link IdentityDish},
+ * the baseline. {@code batchSize} is passed to {@code hibernate.jdbc.batch_size}; Hibernate ignores it for
+ * IDENTITY ids, so both baseline runs should match.
+ * Each operation persists {@code rows} dishes in one transaction; {@code nextIds} measures the id allocation
+ * used by plain JDBC inserts on its own.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(value = 1, jvmArgsAppend = {"-Xms1g", "-Xmx1g"})
+@State(Scope.Benchmark)
+public class InsertBenchmark {
+
+    @Param({"SEQUENCE", "IDENTITY"})
+    public GenerationType idGeneration;
+
+    @Param({"1", "50"})
+    public int batchSize;
+
+    @Param("20000")
+    public int rows;
+
+    private ConfigurableApplicationContext context;
+    private EntityManager entityManager;
+    private VoteRepository voteRepository;
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate transactionTemplate;
+    private Restaurant restaurant;
+    private LocalDate date;
+
+    @Setup(Level.Trial)
+    public void start() {
+        context = new SpringApplicationBuilder(RestaurantVotingApplication.class)
+                .properties(
+                        "spring.datasource.url=jdbc:h2:mem:insert-benchmark;DB_CLOSE_DELAY=-1",
+                        "spring.sql.init.mode=never",
+                        "spring.jpa.properties.hibernate.jdbc.batch_size=" + batchSize,
+                        "server.port=0",
+                        "logging.level.root=WARN")
+                .run();
+
+        entityManager = context.getBean(EntityManager.class);
+        voteRepository = context.getBean(VoteRepository.class);
+        jdbcTemplate = context.getBean(JdbcTemplate.class);
+        transactionTemplate = context.getBean(TransactionTemplate.class);
+        restaurant = context.getBean(RestaurantRepository.class).save(new Restaurant("Restaurant", "Address"));
+        date = LocalDate.now().plusDays(1);
+    }
+
+    @TearDown(Level.Iteration)
+    public void clearDishes() {
+        jdbcTemplate.update("DELETE FROM dish");
+        jdbcTemplate.update("DELETE FROM identity_dish");
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        context.close();
+    }
+
+    @Benchmark
+    public Integer saveAllDishes() {
+        return transactionTemplate.execute(status -> {
+            for (int i = 0; i < rows; i++) {
+                entityManager.persist(idGeneration == GenerationType.IDENTITY
+                        ? new IdentityDish("Dish " + i, 100, restaurant, date)
+                        : new Dish("Dish " + i, 100, restaurant, date));
+            }
+            entityManager.flush();
+            entityManager.clear();
+
+            return rows;
+        });
+    }
+
+    @Benchmark
+    public List<Long> nextIds() {
+        return voteRepository.nextIds(rows);
+    }
+}
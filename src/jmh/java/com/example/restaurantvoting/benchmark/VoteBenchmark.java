@@ -0,0 +1,116 @@
+package com.example.restaurantvoting.benchmark;
+
+import com.example.restaurantvoting.exception.VoteSubmissionException;
+import com.example.restaurantvoting.model.user.User;
+import com.example.restaurantvoting.security.SecurityUser;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+
+/**
+ * Vote submission and tally hot paths.
+ * Controller benchmarks go through the full MockMvc filter chain with a pre-authenticated user,
+ * so password hashing is not part of the measurement.
+ * {@code update} measures the rejection path (same row lock, no write) when run after 11:00 MSK.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms1g", "-Xmx1g"})
+@State(Scope.Benchmark)
+public class VoteBenchmark {
+
+    private final AtomicLong counter = new AtomicLong();
+
+    @State(Scope.Benchmark)
+    public static class CreateState {
+
+        private final AtomicLong cursor = new AtomicLong();
+
+        @Setup(Level.Iteration)
+        public void reset(VotingState state) {
+            state.clearTodayVotes();
+            cursor.set(0);
+        }
+
+        User nextUser(VotingState state) {
+            return state.seededUsers.get((int) (cursor.getAndIncrement() % state.users));
+        }
+    }
+
+    // One batch per iteration with today's votes cleared in between: every create in the batch inserts a new vote
+    // as long as users >= batchSize.
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Warmup(iterations = 3, batchSize = 5000)
+    @Measurement(iterations = 10, batchSize = 5000)
+    public Object create(VotingState state, CreateState createState) {
+        User user = createState.nextUser(state);
+
+        return state.voteService.create(user, state.restaurantFor(user.getId(), counter.getAndIncrement()));
+    }
+
+    @Benchmark
+    public void update(VotingState state, Blackhole blackhole) {
+        long n = counter.getAndIncrement();
+        User user = state.seededUsers.get((int) (n % state.users));
+
+        try {
+            blackhole.consume(state.voteService.update(user, state.restaurantFor(user.getId(), n)));
+        } catch (VoteSubmissionException e) {
+            blackhole.consume(e);
+        }
+    }
+
+    @Benchmark
+    public Long totalToday(VotingState state) {
+        return state.voteService.getTotalByDate(state.restaurantFor(counter.getAndIncrement(), 0), state.today);
+    }
+
+    @Benchmark
+    public Long totalPastDay(VotingState state) {
+        long n = counter.getAndIncrement();
+        LocalDate date = state.today.minusDays(1 + n % state.days);
+
+        return state.voteService.getTotalByDate(state.restaurantFor(n, 0), date);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Warmup(iterations = 3)
+    @Measurement(iterations = 10)
+    public Object history(VotingState state) {
+        return state.voteHistoryService.getHistory(state.today.minusDays(state.days), state.today);
+    }
+
+    @Benchmark
+    public MvcResult controllerTotal(VotingState state) throws Exception {
+        long restaurantId = state.restaurantFor(counter.getAndIncrement(), 0);
+
+        return state.mockMvc.perform(get("/api/vote/total/" + restaurantId)
+                        .with(user(new SecurityUser(state.seededUsers.get(0)))))
+                .andReturn();
+    }
+
+    @Benchmark
+    public MvcResult controllerUpdate(VotingState state) throws Exception {
+        long n = counter.getAndIncrement();
+        User user = state.seededUsers.get((int) (n % state.users));
+
+        return state.mockMvc.perform(put("/api/vote")
+                        .param("restaurantId", String.valueOf(state.restaurantFor(user.getId(), n)))
+                        .with(user(new SecurityUser(user))))
+                .andReturn();
+    }
+}
@@ -0,0 +1,128 @@
+package com.example.restaurantvoting.benchmark;
+
+import com.example.restaurantvoting.RestaurantVotingApplication;
+import com.example.restaurantvoting.model.user.Role;
+import com.example.restaurantvoting.model.user.Status;
+import com.example.restaurantvoting.model.user.User;
+import com.example.restaurantvoting.service.VoteHistoryService;
+import com.example.restaurantvoting.service.VoteRollupService;
+import com.example.restaurantvoting.service.VoteService;
+import com.example.restaurantvoting.service.VoteTally;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.springframework.security.test.web.servlet.setup.SecurityMockMvcConfigurers.springSecurity;
+
+/**
+ * Application context backed by its own in-memory H2 database, seeded with {@code users} users,
+ * {@code restaurants} restaurants and one vote per user for each of the last {@code days} days.
+ * Past days are rolled up unless {@code rolledUp} is false.
+ */
+@State(Scope.Benchmark)
+public class VotingState {
+
+    @Param("10000")
+    public int users;
+
+    @Param("100")
+    public int restaurants;
+
+    @Param("30")
+    public int days;
+
+    @Param("true")
+    public boolean rolledUp;
+
+    public ConfigurableApplicationContext context;
+    public VoteService voteService;
+    public VoteHistoryService voteHistoryService;
+    public MockMvc mockMvc;
+    public JdbcTemplate jdbcTemplate;
+    public VoteTally voteTally;
+    public List<User> seededUsers;
+    public LocalDate today;
+
+    @Setup(Level.Trial)
+    public void start() {
+        context = new SpringApplicationBuilder(RestaurantVotingApplication.class)
+                .properties(
+                        "spring.datasource.url=jdbc:h2:mem:voting-benchmark;DB_CLOSE_DELAY=-1",
+                        "spring.sql.init.mode=never",
+                        "server.port=0",
+                        "logging.level.root=WARN")
+                .run();
+
+        voteService = context.getBean(VoteService.class);
+        voteHistoryService = context.getBean(VoteHistoryService.class);
+        voteTally = context.getBean(VoteTally.class);
+        jdbcTemplate = context.getBean(JdbcTemplate.class);
+        mockMvc = MockMvcBuilders.webAppContextSetup((WebApplicationContext) context)
+                .apply(springSecurity())
+                .build();
+        today = LocalDate.now(ZoneId.of("Europe/Moscow"));
+
+        seed();
+
+        if (rolledUp) {
+            context.getBean(VoteRollupService.class).rollUpBefore(today);
+        }
+        voteTally.rebuild();
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        context.close();
+    }
+
+    public void clearTodayVotes() {
+        jdbcTemplate.update("DELETE FROM vote WHERE date_entry=?", Date.valueOf(today));
+        voteTally.rebuild();
+    }
+
+    private void seed() {
+        seededUsers = new ArrayList<>(users);
+        List<Object[]> userRows = new ArrayList<>(users);
+        for (long id = 1; id <= users; id++) {
+            User user = new User("user" + id + "@mail.com", "password", Role.USER, Status.ACTIVE);
+            user.setId(id);
+            seededUsers.add(user);
+            userRows.add(new Object[]{id, user.getEmail(), user.getPassword(), Role.USER.name(), Status.ACTIVE.name()});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO users (id, email, password, role, status) VALUES (?, ?, ?, ?, ?)", userRows);
+
+        List<Object[]> restaurantRows = new ArrayList<>(restaurants);
+        for (long id = 1; id <= restaurants; id++) {
+            restaurantRows.add(new Object[]{id, "Restaurant " + id, "Address " + id});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO restaurant (id, name, address) VALUES (?, ?, ?)", restaurantRows);
+
+        long voteId = 0;
+        for (int day = 1; day <= days; day++) {
+            Date date = Date.valueOf(today.minusDays(day));
+            List<Object[]> voteRows = new ArrayList<>(users);
+            for (long userId = 1; userId <= users; userId++) {
+                voteRows.add(new Object[]{++voteId, restaurantFor(userId, day), userId, date});
+            }
+            jdbcTemplate.batchUpdate("INSERT INTO vote (id, restaurant_id, user_id, date_entry) VALUES (?, ?, ?, ?)", voteRows);
+        }
+
+        jdbcTemplate.execute("ALTER SEQUENCE user_seq RESTART WITH " + (users + 1));
+        jdbcTemplate.execute("ALTER SEQUENCE restaurant_seq RESTART WITH " + (restaurants + 1));
+        jdbcTemplate.execute("ALTER SEQUENCE vote_seq RESTART WITH " + (voteId + 1));
+    }
+
+    public long restaurantFor(long userId, long salt) {
+        return (userId * 31 + salt) % restaurants + 1;
+    }
+}
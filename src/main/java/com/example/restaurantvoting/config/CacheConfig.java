@@ -0,0 +1,33 @@
+package com.example.restaurantvoting.config;
+
+import com.example.restaurantvoting.web.EncodedResponseCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Bounded Caffeine caches behind {@code @Cacheable}. Each cache is built from a Caffeine spec string
+ * (maximumSize, expireAfterWrite, expireAfterAccess, ...) and always records statistics.
+ * Caches not listed here are created on demand from the default spec.
+ */
+@Configuration
+public class CacheConfig {
+
+    @Bean
+    public CacheManager cacheManager(
+            @Value("${voting.cache.default-spec:maximumSize=1000,expireAfterWrite=10m}") String defaultSpec,
+            @Value("${voting.cache.menu-spec:maximumSize=2000,expireAfterWrite=10m}") String menuSpec,
+            @Value("${voting.cache.restaurants-spec:maximumSize=500,expireAfterWrite=30m}") String restaurantsSpec,
+            @Value("${voting.cache.responses-spec:maximumSize=500,expireAfterWrite=10m}") String responsesSpec) {
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager();
+        cacheManager.setCaffeine(Caffeine.from(defaultSpec).recordStats());
+        cacheManager.registerCustomCache("menu", Caffeine.from(menuSpec).recordStats().build());
+        cacheManager.registerCustomCache("restaurants", Caffeine.from(restaurantsSpec).recordStats().build());
+        cacheManager.registerCustomCache(EncodedResponseCache.CACHE_NAME, Caffeine.from(responsesSpec).recordStats().build());
+
+        return cacheManager;
+    }
+}
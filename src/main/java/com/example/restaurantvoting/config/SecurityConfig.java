@@ -1,25 +1,42 @@
 package com.example.restaurantvoting.config;
 
 import com.example.restaurantvoting.model.user.Role;
-import lombok.AllArgsConstructor;
+import com.example.restaurantvoting.security.CachingAuthenticationProvider;
+import com.example.restaurantvoting.security.CredentialCache;
+import com.example.restaurantvoting.security.MigratingBCryptPasswordEncoder;
+import com.example.restaurantvoting.security.TokenAuthenticationFilter;
+import com.example.restaurantvoting.security.TokenService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpMethod;
 import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
+import org.springframework.security.config.annotation.ObjectPostProcessor;
 import org.springframework.security.config.annotation.authentication.builders.AuthenticationManagerBuilder;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.annotation.web.configuration.WebSecurityConfigurerAdapter;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.web.authentication.www.BasicAuthenticationFilter;
+import org.springframework.security.web.header.HeaderWriterFilter;
 
 @Configuration
 @EnableWebSecurity
-@AllArgsConstructor
+@RequiredArgsConstructor
 public class SecurityConfig extends WebSecurityConfigurerAdapter {
 
+    private static final String PASSWORD_AUTHENTICATED =
+            "authentication instanceof T(org.springframework.security.authentication.UsernamePasswordAuthenticationToken)";
+
     private final UserDetailsService userDetailsService;
+    private final CredentialCache credentialCache;
+    private final TokenService tokenService;
+
+    @Value("${security.password.bcrypt-strength:12}")
+    private int bcryptStrength;
 
     @Override
     protected void configure(HttpSecurity http) throws Exception {
@@ -29,21 +46,35 @@ public class SecurityConfig extends WebSecurityConfigurerAdapter {
                 .antMatchers(new String[]{"/swagger-ui.html", "/swagger-ui/**", "/v3/api-docs/**", "/openapi.json"}).permitAll()
                 .antMatchers("/api/admin/**").hasRole(Role.ADMIN.name())
                 .antMatchers(HttpMethod.POST, "/api/profile").anonymous()
+                // A token is only issued for a password login, so a bearer token cannot be used to renew itself
+                .antMatchers(HttpMethod.POST, "/api/auth/token").access(PASSWORD_AUTHENTICATED)
                 .antMatchers("/api/**").hasRole(Role.USER.name())
                 .anyRequest()
                 .authenticated()
                 .and()
-                .httpBasic();
+                .httpBasic()
+                .and()
+                .addFilterBefore(new TokenAuthenticationFilter(tokenService), BasicAuthenticationFilter.class);
+
+        // Streamed bodies (history, export) are written on another thread once the dispatch returns,
+        // so security headers must be set before the chain rather than on the way out
+        http.headers().addObjectPostProcessor(new ObjectPostProcessor<HeaderWriterFilter>() {
+            @Override
+            public <O extends HeaderWriterFilter> O postProcess(O filter) {
+                filter.setShouldWriteHeadersEagerly(true);
+                return filter;
+            }
+        });
     }
 
     @Override
     protected void configure(AuthenticationManagerBuilder auth) {
-        auth.authenticationProvider(daoAuthenticationProvider());
+        auth.authenticationProvider(new CachingAuthenticationProvider(daoAuthenticationProvider(), credentialCache));
     }
 
     @Bean
     protected PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder(12);
+        return new MigratingBCryptPasswordEncoder(bcryptStrength);
     }
 
     @Bean
@@ -51,6 +82,7 @@ public class SecurityConfig extends WebSecurityConfigurerAdapter {
         DaoAuthenticationProvider daoAuthenticationProvider = new DaoAuthenticationProvider();
         daoAuthenticationProvider.setPasswordEncoder(passwordEncoder());
         daoAuthenticationProvider.setUserDetailsService(userDetailsService);
+        daoAuthenticationProvider.setUserDetailsPasswordService((UserDetailsPasswordService) userDetailsService);
         return daoAuthenticationProvider;
     }
 }
\ No newline at end of file
@@ -0,0 +1,25 @@
+package com.example.restaurantvoting.controller.admission;
+
+import com.example.restaurantvoting.to.BulkheadStatsTO;
+import com.example.restaurantvoting.web.AdmissionControlFilter;
+import lombok.AllArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/admin/admission")
+@AllArgsConstructor
+public class AdminAdmissionController {
+
+    private final AdmissionControlFilter admissionControlFilter;
+
+    @GetMapping
+    public ResponseEntity<List<BulkheadStatsTO>> getAdmissionStats() {
+        return new ResponseEntity<>(admissionControlFilter.getStats(), HttpStatus.OK);
+    }
+}
@@ -0,0 +1,30 @@
+package com.example.restaurantvoting.controller.auth;
+
+import com.example.restaurantvoting.security.SecurityUser;
+import com.example.restaurantvoting.security.TokenService;
+import com.example.restaurantvoting.to.TokenTO;
+import lombok.AllArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/auth")
+@AllArgsConstructor
+public class AuthController {
+
+    private final TokenService tokenService;
+
+    @PostMapping("/token")
+    public ResponseEntity<TokenTO> issueToken(@AuthenticationPrincipal SecurityUser securityUser) {
+        TokenTO tokenTO = new TokenTO(
+                tokenService.issue(securityUser.getUser()),
+                "Bearer",
+                tokenService.getTtl().toSeconds());
+
+        return new ResponseEntity<>(tokenTO, HttpStatus.OK);
+    }
+}
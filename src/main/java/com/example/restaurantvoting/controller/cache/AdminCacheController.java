@@ -0,0 +1,64 @@
+package com.example.restaurantvoting.controller.cache;
+
+import com.example.restaurantvoting.security.CredentialCache;
+import com.example.restaurantvoting.security.UserDetailsServiceImpl;
+import com.example.restaurantvoting.service.DayRolloverService;
+import com.example.restaurantvoting.to.CacheStatsTO;
+import com.example.restaurantvoting.to.DayRolloverStatsTO;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import lombok.AllArgsConstructor;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/admin/caches")
+@AllArgsConstructor
+public class AdminCacheController {
+
+    private final UserDetailsServiceImpl userDetailsService;
+    private final CredentialCache credentialCache;
+    private final CacheManager cacheManager;
+    private final DayRolloverService dayRolloverService;
+
+    @GetMapping
+    public ResponseEntity<List<CacheStatsTO>> getCacheStats() {
+        List<CacheStatsTO> stats = new ArrayList<>();
+        stats.add(toCacheStatsTO("users", userDetailsService.getSize(), userDetailsService.getStats()));
+        stats.add(toCacheStatsTO("credentials", credentialCache.getSize(), credentialCache.getStats()));
+
+        for (String name : cacheManager.getCacheNames()) {
+            if (cacheManager.getCache(name) instanceof CaffeineCache cache) {
+                Cache<Object, Object> nativeCache = cache.getNativeCache();
+                stats.add(toCacheStatsTO(name, nativeCache.estimatedSize(), nativeCache.stats()));
+            }
+        }
+
+        return new ResponseEntity<>(stats, HttpStatus.OK);
+    }
+
+    @GetMapping("/warm-up")
+    public ResponseEntity<DayRolloverStatsTO> getWarmUpStats() {
+        DayRolloverStatsTO stats = dayRolloverService.getStats();
+
+        return new ResponseEntity<>(stats, HttpStatus.OK);
+    }
+
+    private CacheStatsTO toCacheStatsTO(String name, long size, CacheStats stats) {
+        return new CacheStatsTO(
+                name,
+                size,
+                stats.hitCount(),
+                stats.missCount(),
+                stats.hitRate(),
+                stats.evictionCount());
+    }
+}
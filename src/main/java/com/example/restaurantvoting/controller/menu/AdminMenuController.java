@@ -3,36 +3,60 @@ package com.example.restaurantvoting.controller.menu;
 import com.example.restaurantvoting.service.DishService;
 import com.example.restaurantvoting.to.DishInputTO;
 import com.example.restaurantvoting.to.DishOutputTO;
+import com.example.restaurantvoting.to.MenuCloneResultTO;
+import com.example.restaurantvoting.web.ResourceVersions;
 import lombok.AllArgsConstructor;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
 import javax.validation.Valid;
 import java.net.URI;
 import java.time.LocalDate;
+import java.time.ZoneId;
 import java.util.List;
 
+import static com.example.restaurantvoting.web.ResourceVersions.menu;
+
 @RestController
 @RequestMapping("/api/admin/restaurants/{restaurantId}/menu")
 @AllArgsConstructor
 public class AdminMenuController {
 
     private final DishService dishService;
+    private final ResourceVersions resourceVersions;
 
     @GetMapping
     public ResponseEntity<List<DishOutputTO>> getAllDishesByDate(
             @PathVariable Long restaurantId,
-            @RequestParam(required = false) @DateTimeFormat(pattern = "dd.MM.yyyy") LocalDate date) {
+            @RequestParam(required = false) @DateTimeFormat(pattern = "dd.MM.yyyy") LocalDate date,
+            WebRequest request) {
+        LocalDate menuDate = date == null ? getCurrentDate() : date;
+
+        if (request.checkNotModified(
+                resourceVersions.eTag(menu(restaurantId), menuDate),
+                resourceVersions.lastModified(menu(restaurantId), menuDate))) {
+            return null;
+        }
+
         List<DishOutputTO> dishes = dishService.getAllByDate(restaurantId, date);
 
         return new ResponseEntity<>(dishes, HttpStatus.OK);
     }
 
     @GetMapping("/{dishId}")
-    public ResponseEntity<DishOutputTO> getDishById(@PathVariable Long restaurantId, @PathVariable Long dishId) {
+    public ResponseEntity<DishOutputTO> getDishById(@PathVariable Long restaurantId,
+                                                    @PathVariable Long dishId,
+                                                    WebRequest request) {
+        if (request.checkNotModified(
+                resourceVersions.eTag(menu(restaurantId), "dish-" + dishId),
+                resourceVersions.lastModified(menu(restaurantId)))) {
+            return null;
+        }
+
         DishOutputTO dishOutputTO = dishService.getById(restaurantId, dishId);
 
         return new ResponseEntity<>(dishOutputTO, HttpStatus.OK);
@@ -50,6 +74,27 @@ public class AdminMenuController {
         return ResponseEntity.created(uriOfNewResource).body(dishOutputTO);
     }
 
+    @PostMapping("/bulk")
+    public ResponseEntity<List<DishOutputTO>> publishMenu(
+            @PathVariable Long restaurantId,
+            @RequestBody List<DishInputTO> dishInputTOs,
+            @RequestParam(required = false) @DateTimeFormat(pattern = "dd.MM.yyyy") LocalDate date,
+            @RequestParam(defaultValue = "false") boolean replace) {
+        List<DishOutputTO> dishes = dishService.publish(restaurantId, dishInputTOs, date, replace);
+
+        return new ResponseEntity<>(dishes, HttpStatus.CREATED);
+    }
+
+    @PostMapping("/clone")
+    public ResponseEntity<MenuCloneResultTO> cloneMenu(
+            @PathVariable Long restaurantId,
+            @RequestParam @DateTimeFormat(pattern = "dd.MM.yyyy") LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(pattern = "dd.MM.yyyy") LocalDate to) {
+        MenuCloneResultTO result = dishService.cloneMenu(restaurantId, from, to);
+
+        return new ResponseEntity<>(result, HttpStatus.OK);
+    }
+
     @PutMapping("/{dishId}")
     public ResponseEntity<DishOutputTO> updateDish(
             @PathVariable Long restaurantId,
@@ -65,4 +110,8 @@ public class AdminMenuController {
     public void deleteDishById(@PathVariable Long restaurantId, @PathVariable Long dishId) {
         dishService.deleteById(restaurantId, dishId);
     }
-}
\ No newline at end of file
+
+    private LocalDate getCurrentDate() {
+        return LocalDate.now(ZoneId.of("Europe/Moscow"));
+    }
+}
@@ -1,12 +1,21 @@
 package com.example.restaurantvoting.controller.menu;
 
 import com.example.restaurantvoting.service.DishService;
+import com.example.restaurantvoting.service.MenuSnapshot;
 import com.example.restaurantvoting.to.DishOutputTO;
+import com.example.restaurantvoting.web.EncodedResponseCache;
+import com.example.restaurantvoting.web.ResourceVersions;
 import lombok.AllArgsConstructor;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
-import java.util.List;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.context.request.WebRequest;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+
+import static com.example.restaurantvoting.web.ResourceVersions.menu;
 
 @RestController
 @RequestMapping("/api/restaurants/{restaurantId}/menu")
@@ -14,18 +23,38 @@ import java.util.List;
 public class MenuController {
 
     private final DishService dishService;
+    private final MenuSnapshot menuSnapshot;
+    private final ResourceVersions resourceVersions;
+    private final EncodedResponseCache encodedResponseCache;
 
     @GetMapping
-    public ResponseEntity<List<DishOutputTO>> getAllDishes(@PathVariable Long restaurantId) {
-        List<DishOutputTO> dishes = dishService.getAllByDate(restaurantId, null);
+    public ResponseEntity<byte[]> getAllDishes(@PathVariable Long restaurantId, ServletWebRequest request) {
+        LocalDate date = getCurrentDate();
 
-        return new ResponseEntity<>(dishes, HttpStatus.OK);
+        return encodedResponseCache.respond(
+                request,
+                menu(restaurantId),
+                date,
+                resourceVersions.lastModified(menu(restaurantId), date),
+                () -> menuSnapshot.getMenu(restaurantId));
     }
 
     @GetMapping("/{dishId}")
-    public ResponseEntity<DishOutputTO> getDishById(@PathVariable Long restaurantId, @PathVariable Long dishId) {
+    public ResponseEntity<DishOutputTO> getDishById(@PathVariable Long restaurantId,
+                                                    @PathVariable Long dishId,
+                                                    WebRequest request) {
+        if (request.checkNotModified(
+                resourceVersions.eTag(menu(restaurantId), "dish-" + dishId),
+                resourceVersions.lastModified(menu(restaurantId)))) {
+            return null;
+        }
+
         DishOutputTO dishOutputTO = dishService.getById(restaurantId, dishId);
 
         return new ResponseEntity<>(dishOutputTO, HttpStatus.OK);
     }
-}
\ No newline at end of file
+
+    private LocalDate getCurrentDate() {
+        return LocalDate.now(ZoneId.of("Europe/Moscow"));
+    }
+}
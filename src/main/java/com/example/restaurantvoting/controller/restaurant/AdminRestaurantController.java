@@ -1,9 +1,12 @@
 package com.example.restaurantvoting.controller.restaurant;
 
 import com.example.restaurantvoting.model.Restaurant;
+import com.example.restaurantvoting.service.DishService;
 import com.example.restaurantvoting.service.RestaurantService;
+import com.example.restaurantvoting.to.MenuCloneResultTO;
 import com.example.restaurantvoting.to.RestaurantInputTO;
 import lombok.AllArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -11,6 +14,7 @@ import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
 import javax.validation.Valid;
 import java.net.URI;
+import java.time.LocalDate;
 import java.util.List;
 
 @RestController
@@ -19,6 +23,7 @@ import java.util.List;
 public class AdminRestaurantController {
 
     private final RestaurantService restaurantService;
+    private final DishService dishService;
 
     @GetMapping
     public ResponseEntity<List<Restaurant>> getAllRestaurants() {
@@ -27,6 +32,15 @@ public class AdminRestaurantController {
         return new ResponseEntity<>(restaurants, HttpStatus.OK);
     }
 
+    @PostMapping("/menus/clone")
+    public ResponseEntity<MenuCloneResultTO> cloneAllMenus(
+            @RequestParam @DateTimeFormat(pattern = "dd.MM.yyyy") LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(pattern = "dd.MM.yyyy") LocalDate to) {
+        MenuCloneResultTO result = dishService.cloneMenu(null, from, to);
+
+        return new ResponseEntity<>(result, HttpStatus.OK);
+    }
+
     @GetMapping("/{restaurantId}")
     public ResponseEntity<Restaurant> getRestaurantById(@PathVariable Long restaurantId) {
         Restaurant restaurant = restaurantService.getById(restaurantId);
@@ -1,7 +1,10 @@
 package com.example.restaurantvoting.controller.restaurant;
 
 import com.example.restaurantvoting.model.Restaurant;
+import com.example.restaurantvoting.service.MenuSnapshot;
 import com.example.restaurantvoting.service.RestaurantService;
+import com.example.restaurantvoting.web.EncodedResponseCache;
+import com.example.restaurantvoting.web.ResourceVersions;
 import lombok.AllArgsConstructor;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -9,8 +12,13 @@ import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.context.request.WebRequest;
 
-import java.util.List;
+import java.time.LocalDate;
+import java.time.ZoneId;
+
+import static com.example.restaurantvoting.web.ResourceVersions.*;
 
 @RestController
 @RequestMapping("/api/restaurants")
@@ -18,18 +26,46 @@ import java.util.List;
 public class RestaurantController {
 
     private final RestaurantService restaurantService;
+    private final MenuSnapshot menuSnapshot;
+    private final ResourceVersions resourceVersions;
+    private final EncodedResponseCache encodedResponseCache;
 
     @GetMapping
-    public ResponseEntity<List<Restaurant>> getAllRestaurants() {
-        List<Restaurant> restaurants = restaurantService.getAll();
+    public ResponseEntity<byte[]> getAllRestaurants(ServletWebRequest request) {
+        return encodedResponseCache.respond(
+                request,
+                RESTAURANTS,
+                null,
+                resourceVersions.lastModified(RESTAURANTS),
+                menuSnapshot::getRestaurants);
+    }
+
+    @GetMapping("/menus")
+    public ResponseEntity<byte[]> getAllRestaurantsWithMenus(ServletWebRequest request) {
+        LocalDate date = getCurrentDate();
 
-        return new ResponseEntity<>(restaurants, HttpStatus.OK);
+        return encodedResponseCache.respond(
+                request,
+                MENUS,
+                date,
+                resourceVersions.lastModified(MENUS, date),
+                menuSnapshot::getMenus);
     }
 
     @GetMapping("/{restaurantId}")
-    public ResponseEntity<Restaurant> getRestaurantById(@PathVariable Long restaurantId) {
+    public ResponseEntity<Restaurant> getRestaurantById(@PathVariable Long restaurantId, WebRequest request) {
+        if (request.checkNotModified(
+                resourceVersions.eTag(restaurant(restaurantId)),
+                resourceVersions.lastModified(restaurant(restaurantId)))) {
+            return null;
+        }
+
         Restaurant restaurant = restaurantService.getById(restaurantId);
 
         return new ResponseEntity<>(restaurant, HttpStatus.OK);
     }
-}
\ No newline at end of file
+
+    private LocalDate getCurrentDate() {
+        return LocalDate.now(ZoneId.of("Europe/Moscow"));
+    }
+}
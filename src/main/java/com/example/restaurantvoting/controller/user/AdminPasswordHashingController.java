@@ -0,0 +1,23 @@
+package com.example.restaurantvoting.controller.user;
+
+import com.example.restaurantvoting.service.PasswordHasher;
+import com.example.restaurantvoting.to.PasswordHashingStatsTO;
+import lombok.AllArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/admin/password-hashing")
+@AllArgsConstructor
+public class AdminPasswordHashingController {
+
+    private final PasswordHasher passwordHasher;
+
+    @GetMapping
+    public ResponseEntity<PasswordHashingStatsTO> getPasswordHashingStats() {
+        return new ResponseEntity<>(passwordHasher.getStats(), HttpStatus.OK);
+    }
+}
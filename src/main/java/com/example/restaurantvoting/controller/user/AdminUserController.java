@@ -1,12 +1,27 @@
 package com.example.restaurantvoting.controller.user;
 
+import com.example.restaurantvoting.model.user.Role;
+import com.example.restaurantvoting.model.user.Status;
 import com.example.restaurantvoting.model.user.User;
+import com.example.restaurantvoting.service.UserImportService;
 import com.example.restaurantvoting.service.UserService;
+import com.example.restaurantvoting.to.UserImportReportTO;
+import com.example.restaurantvoting.to.UserStatusResultTO;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.AllArgsConstructor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
 import java.util.List;
 
 @RestController
@@ -14,13 +29,43 @@ import java.util.List;
 @AllArgsConstructor
 public class AdminUserController {
 
+    private static final int DEFAULT_PAGE_SIZE = 100;
+
     private final UserService userService;
+    private final UserImportService userImportService;
+    private final ObjectMapper objectMapper;
 
     @GetMapping
-    public ResponseEntity<List<User>> getAllUsers() {
-        List<User> users = userService.getAll();
+    public ResponseEntity<List<User>> getAllUsers(@RequestParam(required = false) Long afterId,
+                                                  @RequestParam(required = false) Integer limit,
+                                                  @RequestParam(required = false) Role role,
+                                                  @RequestParam(required = false) Status status) {
+        if (afterId == null && limit == null) {
+            List<User> users = role == null && status == null
+                    ? userService.getAll()
+                    : userService.getAll(role, status);
+
+            return new ResponseEntity<>(users, HttpStatus.OK);
+        }
+
+        int pageSize = limit == null ? DEFAULT_PAGE_SIZE : limit;
+        List<User> users = userService.getPage(afterId, pageSize, role, status);
+
+        HttpHeaders headers = new HttpHeaders();
+        if (users.size() == pageSize) {
+            String next = ServletUriComponentsBuilder.fromCurrentRequest()
+                    .replaceQueryParam("afterId", users.get(users.size() - 1).getId())
+                    .toUriString();
+            headers.add(HttpHeaders.LINK, "<" + next + ">; rel=\"next\"");
+        }
+
+        return new ResponseEntity<>(users, headers, HttpStatus.OK);
+    }
 
-        return new ResponseEntity<>(users, HttpStatus.OK);
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportUsers(@RequestParam(required = false) Role role,
+                                                             @RequestParam(required = false) Status status) {
+        return new ResponseEntity<>(out -> writeUsers(role, status, out), HttpStatus.OK);
     }
 
     @GetMapping("/{userId}")
@@ -36,4 +81,46 @@ public class AdminUserController {
 
         return new ResponseEntity<>(HttpStatus.NO_CONTENT);
     }
-}
\ No newline at end of file
+
+    @PatchMapping
+    public ResponseEntity<List<UserStatusResultTO>> updateUsersStatus(@RequestBody List<Long> userIds,
+                                                                      @RequestParam Boolean enabled) {
+        List<UserStatusResultTO> results = userService.setStatusAll(userIds, enabled);
+
+        return new ResponseEntity<>(results, HttpStatus.OK);
+    }
+
+    @PostMapping(value = "/import", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<UserImportReportTO> importUsersFromJson(InputStream body) {
+        UserImportReportTO report = userImportService.importJson(body);
+
+        return new ResponseEntity<>(report, HttpStatus.OK);
+    }
+
+    @PostMapping(value = "/import", consumes = "text/csv")
+    public ResponseEntity<UserImportReportTO> importUsersFromCsv(InputStream body) {
+        UserImportReportTO report = userImportService.importCsv(body);
+
+        return new ResponseEntity<>(report, HttpStatus.OK);
+    }
+
+    private void writeUsers(Role role, Status status, OutputStream out) throws IOException {
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+            generator.writeStartArray();
+
+            try {
+                userService.forEachUser(role, status, user -> {
+                    try {
+                        generator.writeObject(user);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+
+            generator.writeEndArray();
+        }
+    }
+}
@@ -13,6 +13,7 @@ import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
 import javax.validation.Valid;
 import java.net.URI;
+import java.util.concurrent.CompletableFuture;
 
 @RestController
 @RequestMapping("/api/profile")
@@ -27,12 +28,11 @@ public class ProfileController {
     }
 
     @PostMapping
-    public ResponseEntity<User> register(@RequestBody @Valid UserInputTO userInputTO) {
-        User registeredUser = userService.create(userInputTO);
-
+    public CompletableFuture<ResponseEntity<User>> register(@RequestBody @Valid UserInputTO userInputTO) {
         URI uriOfNewResource = ServletUriComponentsBuilder.fromCurrentContextPath()
                 .path("/api/profile").build().toUri();
 
-        return ResponseEntity.created(uriOfNewResource).body(registeredUser);
+        return userService.create(userInputTO)
+                .thenApply(registeredUser -> ResponseEntity.created(uriOfNewResource).body(registeredUser));
     }
 }
\ No newline at end of file
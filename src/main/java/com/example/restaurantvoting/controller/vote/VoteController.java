@@ -1,16 +1,34 @@
 package com.example.restaurantvoting.controller.vote;
 
 import com.example.restaurantvoting.security.SecurityUser;
+import com.example.restaurantvoting.service.VoteHistoryService;
 import com.example.restaurantvoting.service.VoteService;
+import com.example.restaurantvoting.service.VoteStream;
+import com.example.restaurantvoting.to.VoteHistoryTO;
 import com.example.restaurantvoting.to.VoteOutputTO;
+import com.example.restaurantvoting.to.VoteTotalTO;
+import com.example.restaurantvoting.web.ResourceVersions;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.AllArgsConstructor;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/vote")
@@ -18,6 +36,10 @@ import java.time.LocalDate;
 public class VoteController {
 
     private final VoteService voteService;
+    private final VoteStream voteStream;
+    private final VoteHistoryService voteHistoryService;
+    private final ObjectMapper objectMapper;
+    private final ResourceVersions resourceVersions;
 
     @GetMapping
     public ResponseEntity<VoteOutputTO> getVoteByDate(
@@ -44,12 +66,82 @@ public class VoteController {
         return new ResponseEntity<>(voteOutputTO, HttpStatus.OK);
     }
 
+    @GetMapping("/total")
+    public ResponseEntity<List<VoteTotalTO>> getTotalVotesByDate(
+            @RequestParam(required = false) @DateTimeFormat(pattern = "dd.MM.yyyy") LocalDate date,
+            ServletWebRequest request) {
+        List<VoteTotalTO> leaderboard = voteService.getLeaderboardByDate(date);
+
+        if (isClosedAndNotModified(date, "total", resourceVersions.getRevalidatedCacheControl(), request)) {
+            return null;
+        }
+
+        return new ResponseEntity<>(leaderboard, HttpStatus.OK);
+    }
+
     @GetMapping("/total/{restaurantId}")
     public ResponseEntity<Long> getTotalVotesForRestaurantByDate(
             @PathVariable Long restaurantId,
-            @RequestParam(required = false) @DateTimeFormat(pattern = "dd.MM.yyyy") LocalDate date) {
+            @RequestParam(required = false) @DateTimeFormat(pattern = "dd.MM.yyyy") LocalDate date,
+            ServletWebRequest request) {
         Long voteCount = voteService.getTotalByDate(restaurantId, date);
 
+        if (isClosedAndNotModified(date, "total-" + restaurantId, resourceVersions.getImmutableCacheControl(), request)) {
+            return null;
+        }
+
         return new ResponseEntity<>(voteCount, HttpStatus.OK);
     }
+
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> streamTotalVotes() {
+        SseEmitter emitter = voteStream.subscribe();
+
+        return new ResponseEntity<>(emitter, HttpStatus.OK);
+    }
+
+    @GetMapping(value = "/history", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> getVoteHistory(
+            @RequestParam(required = false) @DateTimeFormat(pattern = "dd.MM.yyyy") LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(pattern = "dd.MM.yyyy") LocalDate to) {
+        VoteHistoryTO history = voteHistoryService.getHistory(from, to);
+
+        return new ResponseEntity<>(out -> writeHistory(history, out), HttpStatus.OK);
+    }
+
+    // Votes are only accepted for the current date, so a restaurant's total of an earlier date never changes.
+    // A leaderboard of an earlier date still does, as restaurants are added or removed, so it is only
+    // cached briefly and revalidated against an ETag that follows the restaurant list.
+    // Only called once the service has returned the data, so a 404 for an unknown restaurant is never cacheable
+    private boolean isClosedAndNotModified(LocalDate date, String variant, String cacheControl, ServletWebRequest request) {
+        if (date == null || !date.isBefore(LocalDate.now(ZoneId.of("Europe/Moscow")))) {
+            return false;
+        }
+
+        request.getResponse().setHeader(HttpHeaders.CACHE_CONTROL, cacheControl);
+
+        return request.checkNotModified(resourceVersions.eTag(ResourceVersions.RESTAURANTS, variant + "-" + date));
+    }
+
+    private void writeHistory(VoteHistoryTO history, OutputStream out) throws IOException {
+        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("dd.MM.yyyy");
+
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+            generator.writeStartObject();
+            generator.writeStringField("from", history.getFrom().format(formatter));
+            generator.writeStringField("to", history.getTo().format(formatter));
+            generator.writeArrayFieldStart("restaurants");
+
+            for (Map.Entry<Long, long[]> row : history.getTotals().entrySet()) {
+                generator.writeStartObject();
+                generator.writeNumberField("restaurantId", row.getKey());
+                generator.writeFieldName("totals");
+                generator.writeArray(row.getValue(), 0, row.getValue().length);
+                generator.writeEndObject();
+            }
+
+            generator.writeEndArray();
+            generator.writeEndObject();
+        }
+    }
 }
\ No newline at end of file
@@ -1,6 +1,9 @@
 package com.example.restaurantvoting.model;
 
 import lombok.*;
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Parameter;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
 
 import javax.persistence.GeneratedValue;
 import javax.persistence.GenerationType;
@@ -14,12 +17,20 @@ import javax.persistence.MappedSuperclass;
 @Setter
 public abstract class BaseEntity {
 
+    // Ids reserved by one sequence call; rows inserted with plain JDBC take their ids in blocks of the same size
+    public static final int ID_BLOCK_SIZE = 50;
+
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "entity_seq")
+    @GenericGenerator(name = "entity_seq", strategy = "org.hibernate.id.enhanced.SequenceStyleGenerator", parameters = {
+            @Parameter(name = SequenceStyleGenerator.CONFIG_PREFER_SEQUENCE_PER_ENTITY, value = "true"),
+            @Parameter(name = SequenceStyleGenerator.INCREMENT_PARAM, value = "" + ID_BLOCK_SIZE),
+            @Parameter(name = SequenceStyleGenerator.OPT_PARAM, value = "pooled-lo")
+    })
     protected Long id;
 
     @Override
     public String toString() {
         return getClass().getSimpleName() + ":" + id;
     }
-}
\ No newline at end of file
+}
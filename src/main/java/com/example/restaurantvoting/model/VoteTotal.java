@@ -0,0 +1,36 @@
+package com.example.restaurantvoting.model;
+
+import lombok.*;
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
+
+import javax.persistence.*;
+import javax.validation.constraints.Min;
+import javax.validation.constraints.NotNull;
+import java.time.LocalDate;
+
+@Entity
+@Table(name = "vote_total", uniqueConstraints = {
+        @UniqueConstraint(columnNames = {"date_entry", "restaurant_id"}, name = "vote_total_unique_date_restaurant_idx")
+})
+@NoArgsConstructor
+@AllArgsConstructor
+@Getter
+@Setter
+@ToString(callSuper = true, exclude = {"restaurant"})
+public class VoteTotal extends BaseEntity {
+
+    @ManyToOne()
+    @OnDelete(action = OnDeleteAction.CASCADE)
+    @JoinColumn(name = "restaurant_id", nullable = false)
+    private Restaurant restaurant;
+
+    @Column(name = "date_entry", nullable = false)
+    @NotNull
+    private LocalDate date;
+
+    @Column(name = "total", nullable = false)
+    @NotNull
+    @Min(0)
+    private Long total;
+}
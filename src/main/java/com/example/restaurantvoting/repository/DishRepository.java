@@ -14,6 +14,9 @@ import java.util.List;
 @Transactional(readOnly = true)
 public interface DishRepository extends JpaRepository<Dish, Long> {
 
+    @Query("SELECT d FROM Dish d WHERE d.date=:date ORDER BY d.restaurant.id, d.id")
+    List<Dish> getAllByDate(LocalDate date);
+
     @Query("SELECT d FROM Dish d WHERE d.restaurant.id=:restaurantId AND d.date=:date")
     List<Dish> getAllByRestaurantAndDate(Long restaurantId, LocalDate date);
 
@@ -23,4 +26,32 @@ public interface DishRepository extends JpaRepository<Dish, Long> {
     @Modifying
     @Query("DELETE FROM Dish d WHERE d.restaurant.id=:restaurantId AND d.id=:dishId")
     Integer removeByRestaurantAndId(Long restaurantId, Long dishId);
-}
\ No newline at end of file
+
+    @Modifying
+    @Query("DELETE FROM Dish d WHERE d.restaurant.id=:restaurantId AND d.date=:date")
+    Integer removeAllByRestaurantAndDate(Long restaurantId, LocalDate date);
+
+    @Query("SELECT COUNT(d) FROM Dish d WHERE d.restaurant.id=:restaurantId AND d.date=:date")
+    long countByRestaurantAndDate(Long restaurantId, LocalDate date);
+
+    @Query("SELECT COUNT(d) FROM Dish d WHERE d.date=:date")
+    long countByDate(LocalDate date);
+
+    // Every copied row takes its own dish_seq value. Under the pooled-lo optimizer a sequence value reserves
+    // the block of ids starting with it for whoever fetched it, so Hibernate never hands out the ids used here
+    @Modifying
+    @Query(value = "INSERT INTO dish (id, name, price, restaurant_id, date_entry) " +
+            "SELECT NEXT VALUE FOR dish_seq, s.name, s.price, s.restaurant_id, :to FROM dish s " +
+            "WHERE s.restaurant_id=:restaurantId AND s.date_entry=:from AND NOT EXISTS (" +
+            "SELECT 1 FROM dish t WHERE t.restaurant_id=s.restaurant_id AND t.date_entry=:to AND t.name=s.name)",
+            nativeQuery = true)
+    int copyMenu(Long restaurantId, LocalDate from, LocalDate to);
+
+    @Modifying
+    @Query(value = "INSERT INTO dish (id, name, price, restaurant_id, date_entry) " +
+            "SELECT NEXT VALUE FOR dish_seq, s.name, s.price, s.restaurant_id, :to FROM dish s " +
+            "WHERE s.date_entry=:from AND NOT EXISTS (" +
+            "SELECT 1 FROM dish t WHERE t.restaurant_id=s.restaurant_id AND t.date_entry=:to AND t.name=s.name)",
+            nativeQuery = true)
+    int copyAllMenus(LocalDate from, LocalDate to);
+}
@@ -7,6 +7,8 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.List;
+
 @Repository
 @Transactional(readOnly = true)
 public interface RestaurantRepository extends JpaRepository<Restaurant, Long> {
@@ -14,4 +16,7 @@ public interface RestaurantRepository extends JpaRepository<Restaurant, Long> {
     @Modifying
     @Query("DELETE FROM Restaurant r WHERE r.id=:restaurantId")
     Integer removeById(Long restaurantId);
+
+    @Query("SELECT r.id FROM Restaurant r ORDER BY r.id")
+    List<Long> findAllIds();
 }
\ No newline at end of file
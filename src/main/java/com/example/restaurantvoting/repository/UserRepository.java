@@ -1,15 +1,57 @@
 package com.example.restaurantvoting.repository;
 
+import com.example.restaurantvoting.model.user.Role;
+import com.example.restaurantvoting.model.user.Status;
 import com.example.restaurantvoting.model.user.User;
+import com.example.restaurantvoting.to.UserOutputTO;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
 
+import javax.persistence.LockModeType;
+import javax.persistence.QueryHint;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
 
 @Repository
 @Transactional(readOnly = true)
-public interface UserRepository extends JpaRepository<User, Long> {
+public interface UserRepository extends JpaRepository<User, Long>, UserRepositoryCustom {
 
     Optional<User> findByEmail(String email);
+
+    @Query("SELECT u FROM User u WHERE u.id>:afterId AND (:role IS NULL OR u.role=:role) " +
+            "AND (:status IS NULL OR u.status=:status) ORDER BY u.id")
+    List<User> getPageAfter(Long afterId, Role role, Status status, Pageable pageable);
+
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT new com.example.restaurantvoting.to.UserOutputTO(u.id, u.email, u.role, u.status) FROM User u " +
+            "WHERE (:role IS NULL OR u.role=:role) AND (:status IS NULL OR u.status=:status) ORDER BY u.id")
+    Stream<UserOutputTO> streamAll(Role role, Status status);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT new com.example.restaurantvoting.to.UserOutputTO(u.id, u.email, u.role, u.status) FROM User u " +
+            "WHERE u.id IN :ids")
+    List<UserOutputTO> getAllByIdsForUpdate(Collection<Long> ids);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE User u SET u.status=:status WHERE u.id IN :ids AND u.role=:role AND u.status<>:status")
+    Integer updateStatusByIdsAndRole(Collection<Long> ids, Role role, Status status);
+
+    @Query("SELECT u.email FROM User u WHERE u.email IN :emails")
+    List<String> findExistingEmails(Collection<String> emails);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE User u SET u.password=:password WHERE u.email=:email")
+    Integer updatePassword(String email, String password);
 }
\ No newline at end of file
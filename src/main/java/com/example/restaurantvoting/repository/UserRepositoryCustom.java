@@ -0,0 +1,12 @@
+package com.example.restaurantvoting.repository;
+
+import com.example.restaurantvoting.model.user.User;
+
+import java.util.List;
+
+public interface UserRepositoryCustom {
+
+    List<Long> nextIds(int count);
+
+    void insertAll(List<User> users);
+}
@@ -0,0 +1,55 @@
+package com.example.restaurantvoting.repository;
+
+import com.example.restaurantvoting.model.user.User;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.List;
+
+public class UserRepositoryCustomImpl implements UserRepositoryCustom {
+
+    private static final String INSERT_USER = "INSERT INTO users (id, email, password, role, status) VALUES (?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final EntityIds entityIds;
+
+    public UserRepositoryCustomImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.entityIds = new EntityIds(jdbcTemplate, "user_seq");
+    }
+
+    @Override
+    public List<Long> nextIds(int count) {
+        return entityIds.next(count);
+    }
+
+    @Override
+    @Transactional
+    public void insertAll(List<User> users) {
+        List<Long> ids = nextIds(users.size());
+
+        jdbcTemplate.batchUpdate(INSERT_USER, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                User user = users.get(i);
+                ps.setLong(1, ids.get(i));
+                ps.setString(2, user.getEmail());
+                ps.setString(3, user.getPassword());
+                ps.setString(4, user.getRole().name());
+                ps.setString(5, user.getStatus().name());
+            }
+
+            @Override
+            public int getBatchSize() {
+                return users.size();
+            }
+        });
+
+        for (int i = 0; i < users.size(); i++) {
+            users.get(i).setId(ids.get(i));
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package com.example.restaurantvoting.repository;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@AllArgsConstructor
+@Getter
+public class VoteChangeResult {
+
+    private final Long id;
+    private final Long restaurantId;
+    private final Long previousRestaurantId;
+
+    public boolean isChanged() {
+        return !restaurantId.equals(previousRestaurantId);
+    }
+}
@@ -1,20 +1,52 @@
 package com.example.restaurantvoting.repository;
 
 import com.example.restaurantvoting.model.Vote;
+import com.example.restaurantvoting.to.VoteCountTO;
+import com.example.restaurantvoting.to.VoteTotalTO;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
 
 @Repository
 @Transactional(readOnly = true)
-public interface VoteRepository extends JpaRepository<Vote, Long> {
+public interface VoteRepository extends JpaRepository<Vote, Long>, VoteRepositoryCustom {
 
     @Query("SELECT COUNT(v) FROM Vote v WHERE v.restaurant.id=:restaurantId AND v.date=:date")
     Long findAllByRestaurantAndDate(Long restaurantId, LocalDate date);
 
+    @Query("SELECT new com.example.restaurantvoting.to.VoteTotalTO(v.restaurant.id, COUNT(v)) FROM Vote v " +
+            "WHERE v.date=:date GROUP BY v.restaurant.id")
+    List<VoteTotalTO> countAllByDateGroupByRestaurant(LocalDate date);
+
+    @Query("SELECT new com.example.restaurantvoting.to.VoteTotalTO(r.id, COUNT(v)) FROM Restaurant r " +
+            "LEFT JOIN Vote v ON v.restaurant=r AND v.date=:date GROUP BY r.id ORDER BY COUNT(v) DESC, r.id")
+    List<VoteTotalTO> getLeaderboardByDate(LocalDate date);
+
     @Query("SELECT v FROM Vote v WHERE v.user.email=:email AND v.date=:date")
     Vote getByUserAndDate(String email, LocalDate date);
+
+    @Query("SELECT new com.example.restaurantvoting.to.VoteCountTO(v.restaurant.id, v.date, COUNT(v)) FROM Vote v " +
+            "WHERE v.date BETWEEN :from AND :to AND NOT EXISTS (SELECT t FROM VoteTotal t WHERE t.date=v.date) " +
+            "GROUP BY v.restaurant.id, v.date")
+    List<VoteCountTO> countAllNotRolledUpBetweenGroupByRestaurantAndDate(LocalDate from, LocalDate to);
+
+    @Query("SELECT DISTINCT v.date FROM Vote v WHERE v.date<:date " +
+            "AND NOT EXISTS (SELECT t FROM VoteTotal t WHERE t.date=v.date) ORDER BY v.date")
+    List<LocalDate> findDatesWithoutRollupBefore(LocalDate date);
+
+    @Query("SELECT v.id FROM Vote v WHERE v.date<:date " +
+            "AND EXISTS (SELECT t FROM VoteTotal t WHERE t.date=v.date) ORDER BY v.id")
+    List<Long> findRolledUpIdsBefore(LocalDate date, Pageable pageable);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM Vote v WHERE v.id IN :ids")
+    int deleteAllByIdIn(Collection<Long> ids);
 }
\ No newline at end of file
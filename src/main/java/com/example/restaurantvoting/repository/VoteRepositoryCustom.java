@@ -0,0 +1,13 @@
+package com.example.restaurantvoting.repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public interface VoteRepositoryCustom {
+
+    List<Long> nextIds(int count);
+
+    Long insert(Long userId, Long restaurantId, LocalDate date);
+
+    VoteChangeResult change(Long userId, Long restaurantId, LocalDate date);
+}
@@ -0,0 +1,71 @@
+package com.example.restaurantvoting.repository;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.List;
+
+public class VoteRepositoryCustomImpl implements VoteRepositoryCustom {
+
+    private static final String INSERT_VOTE = "INSERT INTO vote (id, restaurant_id, user_id, date_entry) VALUES (?, ?, ?, ?)";
+
+    private static final String CHANGE_VOTE = "UPDATE vote SET restaurant_id=? WHERE id=?";
+
+    private static final String SELECT_VOTE_FOR_UPDATE = "SELECT id, restaurant_id FROM vote " +
+            "WHERE user_id=? AND date_entry=? FOR UPDATE";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final EntityIds entityIds;
+
+    public VoteRepositoryCustomImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.entityIds = new EntityIds(jdbcTemplate, "vote_seq");
+    }
+
+    @Override
+    public List<Long> nextIds(int count) {
+        return entityIds.next(count);
+    }
+
+    /**
+     * Inserts a vote with one statement. A second vote of the user for the date fails with
+     * {@link org.springframework.dao.DuplicateKeyException} and rolls back only this statement's transaction.
+     */
+    @Override
+    @Transactional
+    public Long insert(Long userId, Long restaurantId, LocalDate date) {
+        Long id = nextIds(1).get(0);
+        jdbcTemplate.update(INSERT_VOTE, id, restaurantId, userId, Date.valueOf(date));
+
+        return id;
+    }
+
+    /**
+     * Moves the user's vote for the date to another restaurant, or returns null if there is no such vote.
+     * The row is locked before the update, so concurrent changes of the same vote are applied one after another
+     * and each one reports the restaurant it actually replaced.
+     */
+    @Override
+    @Transactional
+    public VoteChangeResult change(Long userId, Long restaurantId, LocalDate date) {
+        // H2 cannot return the pre-image of an UPDATE reliably (OLD TABLE may leave the row unchanged) and has no
+        // RETURNING, so the previous restaurant is read under the row lock in the same transaction
+        List<VoteChangeResult> existing = jdbcTemplate.query(SELECT_VOTE_FOR_UPDATE,
+                (rs, rowNum) -> new VoteChangeResult(rs.getLong("id"), restaurantId, rs.getLong("restaurant_id")),
+                userId, Date.valueOf(date));
+
+        if (existing.isEmpty()) {
+            return null;
+        }
+
+        VoteChangeResult result = existing.get(0);
+
+        if (result.isChanged()) {
+            jdbcTemplate.update(CHANGE_VOTE, restaurantId, result.getId());
+        }
+
+        return result;
+    }
+}
@@ -0,0 +1,31 @@
+package com.example.restaurantvoting.repository;
+
+import com.example.restaurantvoting.model.VoteTotal;
+import com.example.restaurantvoting.to.VoteCountTO;
+import com.example.restaurantvoting.to.VoteTotalTO;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+@Transactional(readOnly = true)
+public interface VoteTotalRepository extends JpaRepository<VoteTotal, Long> {
+
+    @Query("SELECT CASE WHEN COUNT(t) > 0 THEN true ELSE false END FROM VoteTotal t WHERE t.date=:date")
+    boolean existsByDate(LocalDate date);
+
+    @Query("SELECT t.total FROM VoteTotal t WHERE t.restaurant.id=:restaurantId AND t.date=:date")
+    Long findTotalByRestaurantAndDate(Long restaurantId, LocalDate date);
+
+    @Query("SELECT new com.example.restaurantvoting.to.VoteTotalTO(r.id, COALESCE(t.total, 0)) FROM Restaurant r " +
+            "LEFT JOIN VoteTotal t ON t.restaurant=r AND t.date=:date ORDER BY COALESCE(t.total, 0) DESC, r.id")
+    List<VoteTotalTO> getLeaderboardByDate(LocalDate date);
+
+    @Query("SELECT new com.example.restaurantvoting.to.VoteCountTO(t.restaurant.id, t.date, t.total) FROM VoteTotal t " +
+            "WHERE t.date BETWEEN :from AND :to")
+    List<VoteCountTO> getAllBetween(LocalDate from, LocalDate to);
+}
\ No newline at end of file
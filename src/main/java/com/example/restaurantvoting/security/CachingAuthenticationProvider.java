@@ -0,0 +1,54 @@
+package com.example.restaurantvoting.security;
+
+import org.springframework.security.authentication.AuthenticationProvider;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.AuthenticationException;
+
+/**
+ * Answers username/password authentication from {@link CredentialCache} and falls back to the delegate
+ * (BCrypt + user lookup) on a miss, caching the result of a successful verification.
+ */
+public class CachingAuthenticationProvider implements AuthenticationProvider {
+
+    private final AuthenticationProvider delegate;
+    private final CredentialCache credentialCache;
+
+    public CachingAuthenticationProvider(AuthenticationProvider delegate, CredentialCache credentialCache) {
+        this.delegate = delegate;
+        this.credentialCache = credentialCache;
+    }
+
+    @Override
+    public Authentication authenticate(Authentication authentication) throws AuthenticationException {
+        String email = authentication.getName();
+        Object credentials = authentication.getCredentials();
+
+        if (email == null || !(credentials instanceof String password)) {
+            return delegate.authenticate(authentication);
+        }
+
+        SecurityUser cached = credentialCache.get(email, password);
+
+        if (cached != null) {
+            UsernamePasswordAuthenticationToken result =
+                    new UsernamePasswordAuthenticationToken(cached, null, cached.getAuthorities());
+            result.setDetails(authentication.getDetails());
+            return result;
+        }
+
+        long epoch = credentialCache.getEpoch();
+        Authentication result = delegate.authenticate(authentication);
+
+        if (result != null && result.getPrincipal() instanceof SecurityUser user) {
+            credentialCache.put(email, password, user, epoch);
+        }
+
+        return result;
+    }
+
+    @Override
+    public boolean supports(Class<?> authentication) {
+        return delegate.supports(authentication);
+    }
+}
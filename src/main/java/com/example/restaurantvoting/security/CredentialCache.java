@@ -0,0 +1,124 @@
+package com.example.restaurantvoting.security;
+
+import com.example.restaurantvoting.service.UserChangedEvent;
+import com.example.restaurantvoting.service.UsersChangedEvent;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import javax.crypto.KeyGenerator;
+import javax.crypto.Mac;
+import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * Remembers successful HTTP Basic verifications for a limited time.
+ * Only an HMAC-SHA256 of the verified (email, password) pair under a per-process random key is kept,
+ * so a repeated request is checked with one fast keyed hash instead of BCrypt and a user lookup.
+ * Entries are keyed by the normalized (trimmed, lower-case) email, as users are looked up, so logins
+ * differing only in case share one entry and are evicted together.
+ * Entries of a user are dropped once a {@link UserChangedEvent} for it is committed; the invalidation epoch keeps
+ * a verification that started before the change from being cached after it.
+ */
+@Component
+public class CredentialCache {
+
+    private static final String ALGORITHM = "HmacSHA256";
+
+    private final Cache<String, Entry> entries;
+    private final SecretKey key;
+    private final AtomicLong epoch = new AtomicLong();
+
+    public CredentialCache(@Value("${security.credential-cache.ttl:5m}") Duration ttl,
+                           @Value("${security.credential-cache.max-size:10000}") long maxSize) throws GeneralSecurityException {
+        this.entries = Caffeine.newBuilder()
+                .expireAfterWrite(ttl)
+                .maximumSize(maxSize)
+                .recordStats()
+                .build();
+        this.key = KeyGenerator.getInstance(ALGORITHM).generateKey();
+    }
+
+    public long getEpoch() {
+        return epoch.get();
+    }
+
+    public SecurityUser get(String email, String password) {
+        String key = normalize(email);
+        Entry entry = entries.getIfPresent(key);
+
+        if (entry == null || !MessageDigest.isEqual(entry.mac(), mac(key, password))) {
+            return null;
+        }
+
+        return entry.user();
+    }
+
+    public void put(String email, String password, SecurityUser user, long verifiedAtEpoch) {
+        String key = normalize(email);
+        entries.put(key, new Entry(mac(key, password), user));
+
+        if (epoch.get() != verifiedAtEpoch) {
+            entries.invalidate(key);
+        }
+    }
+
+    public void invalidate(String email) {
+        epoch.incrementAndGet();
+        entries.invalidate(normalize(email));
+    }
+
+    public void invalidateAll(Collection<String> emails) {
+        epoch.incrementAndGet();
+        entries.invalidateAll(emails.stream()
+                .map(CredentialCache::normalize)
+                .collect(Collectors.toList()));
+    }
+
+    public long getSize() {
+        return entries.estimatedSize();
+    }
+
+    public CacheStats getStats() {
+        return entries.stats();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserChanged(UserChangedEvent event) {
+        invalidate(event.email());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUsersChanged(UsersChangedEvent event) {
+        invalidateAll(event.emailsById().values());
+    }
+
+    private byte[] mac(String email, String password) {
+        try {
+            Mac mac = Mac.getInstance(ALGORITHM);
+            mac.init(key);
+            mac.update(email.getBytes(StandardCharsets.UTF_8));
+            mac.update((byte) 0);
+            return mac.doFinal(password.getBytes(StandardCharsets.UTF_8));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static String normalize(String email) {
+        return email == null ? "" : email.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private record Entry(byte[] mac, SecurityUser user) {
+    }
+}
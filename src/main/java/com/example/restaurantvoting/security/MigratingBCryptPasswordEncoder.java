@@ -0,0 +1,33 @@
+package com.example.restaurantvoting.security;
+
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * BCrypt encoder that asks for a rehash whenever a stored hash was made with a cost other than the configured one,
+ * so the cost can be tuned in both directions and existing hashes migrate on the next successful login.
+ */
+public class MigratingBCryptPasswordEncoder extends BCryptPasswordEncoder {
+
+    private static final Pattern BCRYPT_COST = Pattern.compile("^\\$2[aby]?\\$(\\d\\d)\\$");
+
+    private final int strength;
+
+    public MigratingBCryptPasswordEncoder(int strength) {
+        super(strength);
+        this.strength = strength;
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        if (encodedPassword == null) {
+            return false;
+        }
+
+        Matcher matcher = BCRYPT_COST.matcher(encodedPassword);
+
+        return matcher.find() && Integer.parseInt(matcher.group(1)) != strength;
+    }
+}
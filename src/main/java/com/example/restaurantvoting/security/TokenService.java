@@ -0,0 +1,150 @@
+package com.example.restaurantvoting.security;
+
+import com.example.restaurantvoting.model.user.User;
+import com.example.restaurantvoting.service.UserChangedEvent;
+import com.example.restaurantvoting.service.UsersChangedEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import javax.crypto.KeyGenerator;
+import javax.crypto.Mac;
+import javax.crypto.SecretKey;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Issues and verifies stateless access tokens.
+ * A token is {@code base64url(userId|role|issuedAt|expiresAt|email).base64url(HMAC-SHA256)}, timestamps in epoch millis.
+ * Tokens of a user issued before its latest {@link UserChangedEvent} are rejected; revocations are kept in memory
+ * for one token lifetime only, so the user's current status is also checked through the cached
+ * {@link UserDetailsService} and a banned user is refused after a restart or once its revocation is purged.
+ * Without {@code security.token.secret} (base64) a random key is generated and tokens do not survive a restart either.
+ */
+@Slf4j
+@Component
+public class TokenService {
+
+    private static final String ALGORITHM = "HmacSHA256";
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    private final SecretKey key;
+    private final Duration ttl;
+    private final Clock clock;
+    private final UserDetailsService userDetailsService;
+
+    private final Map<Long, Long> revokedBefore = new ConcurrentHashMap<>();
+
+    @Autowired
+    public TokenService(@Value("${security.token.secret:}") String secret,
+                        @Value("${security.token.ttl:15m}") Duration ttl,
+                        UserDetailsService userDetailsService) throws GeneralSecurityException {
+        this(secret, ttl, Clock.systemUTC(), userDetailsService);
+    }
+
+    TokenService(String secret, Duration ttl, Clock clock, UserDetailsService userDetailsService) throws GeneralSecurityException {
+        if (secret.isBlank()) {
+            log.warn("security.token.secret is not set, access tokens will not survive a restart");
+            this.key = KeyGenerator.getInstance(ALGORITHM).generateKey();
+        }
+        else {
+            this.key = new SecretKeySpec(Base64.getDecoder().decode(secret), ALGORITHM);
+        }
+        this.ttl = ttl;
+        this.clock = clock;
+        this.userDetailsService = userDetailsService;
+    }
+
+    public Duration getTtl() {
+        return ttl;
+    }
+
+    public String issue(User user) {
+        long issuedAt = clock.millis();
+        String payload = user.getId() + "|" + user.getRole().name() + "|" +
+                issuedAt + "|" + (issuedAt + ttl.toMillis()) + "|" + user.getEmail();
+        byte[] payloadBytes = payload.getBytes(StandardCharsets.UTF_8);
+
+        return ENCODER.encodeToString(payloadBytes) + "." + ENCODER.encodeToString(sign(payloadBytes));
+    }
+
+    public SecurityUser verify(String token) {
+        int separator = token.indexOf('.');
+
+        if (separator < 0) {
+            return null;
+        }
+
+        try {
+            byte[] payloadBytes = DECODER.decode(token.substring(0, separator));
+            byte[] signature = DECODER.decode(token.substring(separator + 1));
+
+            if (!MessageDigest.isEqual(signature, sign(payloadBytes))) {
+                return null;
+            }
+
+            String[] claims = new String(payloadBytes, StandardCharsets.UTF_8).split("\\|", 5);
+            Long userId = Long.valueOf(claims[0]);
+            long issuedAt = Long.parseLong(claims[2]);
+            long expiresAt = Long.parseLong(claims[3]);
+
+            if (expiresAt <= clock.millis() || issuedAt <= revokedBefore.getOrDefault(userId, Long.MIN_VALUE)) {
+                return null;
+            }
+
+            SecurityUser securityUser = (SecurityUser) userDetailsService.loadUserByUsername(claims[4]);
+
+            if (!userId.equals(securityUser.getUser().getId()) || !securityUser.isEnabled()) {
+                return null;
+            }
+
+            return securityUser;
+        } catch (IllegalArgumentException | ArrayIndexOutOfBoundsException | UsernameNotFoundException e) {
+            return null;
+        }
+    }
+
+    public void revoke(Long userId) {
+        revokedBefore.put(userId, clock.millis());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserChanged(UserChangedEvent event) {
+        revoke(event.userId());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUsersChanged(UsersChangedEvent event) {
+        long now = clock.millis();
+        event.emailsById().keySet().forEach(userId -> revokedBefore.put(userId, now));
+    }
+
+    @Scheduled(fixedDelayString = "${security.token.revocation-purge-interval:PT1M}")
+    public void purgeRevocations() {
+        long threshold = clock.millis() - ttl.toMillis();
+        revokedBefore.values().removeIf(revokedAt -> revokedAt < threshold);
+    }
+
+    private byte[] sign(byte[] payload) {
+        try {
+            Mac mac = Mac.getInstance(ALGORITHM);
+            mac.init(key);
+            return mac.doFinal(payload);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -2,23 +2,111 @@ package com.example.restaurantvoting.security;
 
 import com.example.restaurantvoting.model.user.User;
 import com.example.restaurantvoting.repository.UserRepository;
-import lombok.AllArgsConstructor;
+import com.example.restaurantvoting.service.UserChangedEvent;
+import com.example.restaurantvoting.service.UsersChangedEvent;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
 
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * Loads users by email through a bounded in-memory cache keyed by the normalized (trimmed, lower-case) email.
+ * Entries are evicted when a {@link UserChangedEvent} for the user is committed; the invalidation epoch keeps
+ * a load that read the user before the change from caching it after the eviction.
+ * Hashes flagged for upgrade by the password encoder are re-encoded on login and stored without revoking
+ * the user's tokens or cached credentials.
+ */
 @Service
-@AllArgsConstructor
-public class UserDetailsServiceImpl implements UserDetailsService {
+public class UserDetailsServiceImpl implements UserDetailsService, UserDetailsPasswordService {
 
     private final UserRepository userRepository;
+    private final Cache<String, User> users;
+    private final AtomicLong epoch = new AtomicLong();
+
+    public UserDetailsServiceImpl(UserRepository userRepository,
+                                  @Value("${security.user-cache.ttl:10m}") Duration ttl,
+                                  @Value("${security.user-cache.max-size:10000}") long maxSize) {
+        this.userRepository = userRepository;
+        this.users = Caffeine.newBuilder()
+                .expireAfterWrite(ttl)
+                .maximumSize(maxSize)
+                .recordStats()
+                .build();
+    }
 
     @Override
     public UserDetails loadUserByUsername(String email) throws UsernameNotFoundException {
-        User user = userRepository.findByEmail(email).orElseThrow(() ->
-                new UsernameNotFoundException(String.format("User with email: %s not found", email)));
+        String key = normalize(email);
+        User user = users.getIfPresent(key);
+
+        if (user == null) {
+            long loadedAtEpoch = epoch.get();
+            user = userRepository.findByEmail(key).orElseThrow(() ->
+                    new UsernameNotFoundException(String.format("User with email: %s not found", email)));
+            users.put(key, user);
+
+            if (epoch.get() != loadedAtEpoch) {
+                users.invalidate(key);
+            }
+        }
 
         return new SecurityUser(user);
     }
-}
\ No newline at end of file
+
+    @Override
+    public UserDetails updatePassword(UserDetails userDetails, String newPassword) {
+        String key = normalize(userDetails.getUsername());
+
+        userRepository.updatePassword(key, newPassword);
+        invalidate(List.of(key));
+
+        // Other requests may still hold the loaded instance, so it is copied rather than changed in place
+        User user = ((SecurityUser) userDetails).getUser();
+        User updated = new User(user.getEmail(), newPassword, user.getRole(), user.getStatus());
+        updated.setId(user.getId());
+
+        return new SecurityUser(updated);
+    }
+
+    public CacheStats getStats() {
+        return users.stats();
+    }
+
+    public long getSize() {
+        return users.estimatedSize();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserChanged(UserChangedEvent event) {
+        invalidate(List.of(normalize(event.email())));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUsersChanged(UsersChangedEvent event) {
+        invalidate(event.emailsById().values().stream()
+                .map(UserDetailsServiceImpl::normalize)
+                .collect(Collectors.toList()));
+    }
+
+    private void invalidate(Collection<String> keys) {
+        epoch.incrementAndGet();
+        users.invalidateAll(keys);
+    }
+
+    private static String normalize(String email) {
+        return email == null ? "" : email.trim().toLowerCase(Locale.ROOT);
+    }
+}
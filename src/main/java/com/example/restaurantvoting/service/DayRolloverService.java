@@ -0,0 +1,132 @@
+package com.example.restaurantvoting.service;
+
+import com.example.restaurantvoting.exception.EntityNotFoundException;
+import com.example.restaurantvoting.model.Restaurant;
+import com.example.restaurantvoting.to.DayRolloverStatsTO;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Moves date-dependent read structures to the next day in the voting time zone.
+ * Shortly before midnight the restaurant and menu caches, the menu snapshot and the vote counters of the next date
+ * are built in advance; at midnight the prepared structures are swapped in, so the first requests of a day stay warm.
+ */
+@Slf4j
+@Service
+public class DayRolloverService {
+
+    private final RestaurantService restaurantService;
+    private final DishService dishService;
+    private final MenuSnapshot menuSnapshot;
+    private final VoteTally voteTally;
+
+    private volatile DayRolloverStatsTO stats = new DayRolloverStatsTO();
+
+    public DayRolloverService(RestaurantService restaurantService,
+                              DishService dishService,
+                              MenuSnapshot menuSnapshot,
+                              VoteTally voteTally) {
+        this.restaurantService = restaurantService;
+        this.dishService = dishService;
+        this.menuSnapshot = menuSnapshot;
+        this.voteTally = voteTally;
+    }
+
+    @Scheduled(cron = "${voting.rollover.prepare-cron:0 55 23 * * *}", zone = "Europe/Moscow")
+    public void prepareNextDay() {
+        prepare(getCurrentDate().plusDays(1));
+    }
+
+    @Scheduled(cron = "${voting.rollover.switch-cron:0 0 0 * * *}", zone = "Europe/Moscow")
+    public void switchToCurrentDay() {
+        switchTo(getCurrentDate());
+    }
+
+    public synchronized void prepare(LocalDate date) {
+        Map<String, Long> warmUpMillis = new LinkedHashMap<>();
+
+        long start = System.nanoTime();
+        List<Long> restaurantIds = warmUpRestaurants();
+        warmUpMillis.put("restaurants", millisSince(start));
+
+        start = System.nanoTime();
+        warmUpMenus(restaurantIds, date);
+        warmUpMillis.put("menus", millisSince(start));
+
+        start = System.nanoTime();
+        menuSnapshot.prepare(date);
+        warmUpMillis.put("snapshot", millisSince(start));
+
+        start = System.nanoTime();
+        voteTally.prepare(date, restaurantIds);
+        warmUpMillis.put("tally", millisSince(start));
+
+        stats = new DayRolloverStatsTO(
+                date,
+                Instant.now(),
+                warmUpMillis,
+                stats.getSwitchedDate(),
+                stats.getSwitchedAt(),
+                stats.getSwitchMillis());
+
+        log.info("Prepared {} in {} ms", date, warmUpMillis);
+    }
+
+    public synchronized void switchTo(LocalDate date) {
+        long start = System.nanoTime();
+
+        menuSnapshot.switchTo(date);
+        voteTally.rollover(date);
+
+        stats = new DayRolloverStatsTO(
+                stats.getPreparedDate(),
+                stats.getPreparedAt(),
+                stats.getWarmUpMillis(),
+                date,
+                Instant.now(),
+                millisSince(start));
+    }
+
+    public DayRolloverStatsTO getStats() {
+        return stats;
+    }
+
+    // Goes through the service, so that the result lands in the "restaurants" cache
+    private List<Long> warmUpRestaurants() {
+        try {
+            return restaurantService.getAll().stream()
+                    .map(Restaurant::getId)
+                    .toList();
+        } catch (EntityNotFoundException e) {
+            return List.of();
+        }
+    }
+
+    // Fills the "menu" cache under the keys that become the current date's keys at midnight
+    private void warmUpMenus(List<Long> restaurantIds, LocalDate date) {
+        for (Long restaurantId : restaurantIds) {
+            try {
+                dishService.getAllByDate(restaurantId, date);
+            } catch (EntityNotFoundException e) {
+                // No menu published yet, nothing to cache
+            }
+        }
+    }
+
+    private static long millisSince(long start) {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+    }
+
+    private LocalDate getCurrentDate() {
+        return LocalDate.now(ZoneId.of("Europe/Moscow"));
+    }
+}
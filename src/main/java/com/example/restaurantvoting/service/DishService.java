@@ -8,26 +8,48 @@ import com.example.restaurantvoting.repository.DishRepository;
 import com.example.restaurantvoting.repository.RestaurantRepository;
 import com.example.restaurantvoting.to.DishInputTO;
 import com.example.restaurantvoting.to.DishOutputTO;
+import com.example.restaurantvoting.to.MenuCloneResultTO;
 import lombok.AllArgsConstructor;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import javax.validation.ConstraintViolation;
+import javax.validation.Validator;
 import java.time.LocalDate;
 import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Service
 @AllArgsConstructor
 public class DishService {
 
+    private static final String MENU_KEY = "T(com.example.restaurantvoting.service.DishService).menuKey(#restaurantId, #date)";
+    private static final String RESULT_MENU_KEY = "T(com.example.restaurantvoting.service.DishService).menuKey(#restaurantId, #result.date)";
+    private static final String CLONED_MENU_KEY = "T(com.example.restaurantvoting.service.DishService).menuKey(#restaurantId, #to)";
+
+    private static final String DISH_KEY = "T(com.example.restaurantvoting.service.DishService).dishKey(#restaurantId, #dishId)";
+
+    private static final int MAX_MENU_SIZE = 100;
+
     private final DishRepository dishRepository;
     private final RestaurantRepository restaurantRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final Validator validator;
+    private final CacheManager cacheManager;
 
-    @Cacheable(value = "menu")
+    @Cacheable(value = "menu", key = MENU_KEY)
     public List<DishOutputTO> getAllByDate(Long restaurantId, LocalDate date) {
         checkIfRestaurantPresent(restaurantId);
 
@@ -53,7 +75,7 @@ public class DishService {
                 .collect(Collectors.toList());
     }
 
-    @Cacheable(value = "menu")
+    @Cacheable(value = "menu", key = DISH_KEY)
     public DishOutputTO getById(Long restaurantId, Long dishId) {
         checkIfRestaurantPresent(restaurantId);
 
@@ -73,7 +95,7 @@ public class DishService {
                 dish.getDate());
     }
 
-    @CacheEvict(value = "menu", allEntries = true)
+    @CacheEvict(value = "menu", key = RESULT_MENU_KEY)
     public DishOutputTO create(Long restaurantId, DishInputTO dishInputTO) {
         Restaurant restaurant = checkIfRestaurantPresentAndGet(restaurantId);
 
@@ -82,6 +104,7 @@ public class DishService {
                 dishInputTO.getPrice(),
                 restaurant,
                 getCurrentDate()));
+        eventPublisher.publishEvent(new MenuChangedEvent(restaurantId, dish.getDate()));
 
         return new DishOutputTO(
                 dish.getId(),
@@ -92,7 +115,9 @@ public class DishService {
     }
 
     @Transactional
-    @CacheEvict(value = "menu", allEntries = true)
+    @Caching(evict = {
+            @CacheEvict(value = "menu", key = RESULT_MENU_KEY),
+            @CacheEvict(value = "menu", key = DISH_KEY)})
     public DishOutputTO update(Long restaurantId, DishInputTO dishInputTO, Long dishId) {
         checkIfRestaurantPresent(restaurantId);
 
@@ -113,6 +138,7 @@ public class DishService {
 
         dish.setName(dishInputTO.getName());
         dish.setPrice(dishInputTO.getPrice());
+        eventPublisher.publishEvent(new MenuChangedEvent(restaurantId, dish.getDate()));
 
         return new DishOutputTO(
                 dish.getId(),
@@ -123,17 +149,201 @@ public class DishService {
         );
     }
 
-    @CacheEvict(value = "menu", allEntries = true)
-    public void deleteById(Long restaurantId, Long dishId) {
+    @Transactional
+    @Caching(evict = {
+            @CacheEvict(value = "menu", key = RESULT_MENU_KEY),
+            @CacheEvict(value = "menu", key = DISH_KEY)})
+    public DishOutputTO deleteById(Long restaurantId, Long dishId) {
         checkIfRestaurantPresent(restaurantId);
 
-        Integer modificationCount = dishRepository.removeByRestaurantAndId(restaurantId, dishId);
+        Dish dish = dishRepository.getByRestaurantAndId(restaurantId, dishId);
+        Integer modificationCount = dish == null ? 0 : dishRepository.removeByRestaurantAndId(restaurantId, dishId);
 
         if (modificationCount == 0) {
             throw new EntityNotFoundException(
                     HttpStatus.NOT_FOUND,
                     "Deletion error. Dish with id=" + dishId + " not found");
         }
+
+        eventPublisher.publishEvent(new MenuChangedEvent(restaurantId, dish.getDate()));
+
+        return new DishOutputTO(
+                dish.getId(),
+                dish.getName(),
+                dish.getPrice(),
+                restaurantId,
+                dish.getDate());
+    }
+
+    // Dish keys of a replaced menu are only known once it is loaded, so they are evicted here rather than by annotation
+    @Transactional
+    @CacheEvict(value = "menu", key = MENU_KEY)
+    public List<DishOutputTO> publish(Long restaurantId, List<DishInputTO> dishInputTOs, LocalDate date, boolean replace) {
+        if (date == null) {
+            date = getCurrentDate();
+        }
+
+        if (date.isBefore(getCurrentDate())) {
+            throw new EntityValidationException(
+                    HttpStatus.UNPROCESSABLE_ENTITY,
+                    "Menu cannot be published for past date " + date);
+        }
+
+        checkMenu(dishInputTOs);
+
+        Restaurant restaurant = checkIfRestaurantPresentAndGet(restaurantId);
+
+        List<Dish> existing = dishRepository.getAllByRestaurantAndDate(restaurantId, date);
+
+        if (replace) {
+            dishRepository.removeAllByRestaurantAndDate(restaurantId, date);
+        }
+        else {
+            checkNamesNotTaken(date, existing, dishInputTOs);
+        }
+
+        List<Dish> dishes = new ArrayList<>(dishInputTOs.size());
+        for (DishInputTO dishInputTO : dishInputTOs) {
+            dishes.add(new Dish(dishInputTO.getName(), dishInputTO.getPrice(), restaurant, date));
+        }
+
+        try {
+            dishes = dishRepository.saveAllAndFlush(dishes);
+        } catch (DataIntegrityViolationException e) {
+            throw new EntityValidationException(
+                    HttpStatus.UNPROCESSABLE_ENTITY,
+                    "Menu for " + date + " was changed concurrently. Please retry");
+        }
+
+        if (replace) {
+            evictDishes(restaurantId, existing);
+        }
+        eventPublisher.publishEvent(new MenuChangedEvent(restaurantId, date));
+
+        return dishes.stream()
+                .map(dish -> new DishOutputTO(
+                        dish.getId(),
+                        dish.getName(),
+                        dish.getPrice(),
+                        restaurantId,
+                        dish.getDate()))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Copies dishes of one restaurant, or of all restaurants when {@code restaurantId} is null, from one date to another
+     * with a single INSERT ... SELECT. Dishes already present in the target menu are skipped.
+     */
+    @Transactional
+    @Caching(evict = {
+            @CacheEvict(value = "menu", key = CLONED_MENU_KEY, condition = "#restaurantId != null"),
+            @CacheEvict(value = "menu", allEntries = true, condition = "#restaurantId == null")})
+    public MenuCloneResultTO cloneMenu(Long restaurantId, LocalDate from, LocalDate to) {
+        if (to == null) {
+            to = getCurrentDate();
+        }
+
+        if (to.isBefore(getCurrentDate()) || to.equals(from)) {
+            throw new EntityValidationException(
+                    HttpStatus.UNPROCESSABLE_ENTITY,
+                    "Menu can be cloned only to current or future date other than " + from);
+        }
+
+        long total;
+        int copied;
+
+        try {
+            if (restaurantId == null) {
+                total = dishRepository.countByDate(from);
+                copied = dishRepository.copyAllMenus(from, to);
+            }
+            else {
+                checkIfRestaurantPresent(restaurantId);
+                total = dishRepository.countByRestaurantAndDate(restaurantId, from);
+                copied = dishRepository.copyMenu(restaurantId, from, to);
+            }
+        } catch (DataIntegrityViolationException e) {
+            throw new EntityValidationException(
+                    HttpStatus.UNPROCESSABLE_ENTITY,
+                    "Menu for " + to + " was changed concurrently. Please retry");
+        }
+
+        if (copied > 0) {
+            eventPublisher.publishEvent(new MenuChangedEvent(restaurantId, to));
+        }
+
+        return new MenuCloneResultTO(restaurantId, from, to, total, (long) copied, total - copied);
+    }
+
+    public static String menuKey(Long restaurantId, LocalDate date) {
+        return restaurantId + ":" + (date == null ? getCurrentDate() : date);
+    }
+
+    public static String dishKey(Long restaurantId, Long dishId) {
+        return restaurantId + ":dish:" + dishId;
+    }
+
+    private void checkMenu(List<DishInputTO> dishInputTOs) {
+        if (dishInputTOs.isEmpty() || dishInputTOs.size() > MAX_MENU_SIZE) {
+            throw new EntityValidationException(
+                    HttpStatus.UNPROCESSABLE_ENTITY,
+                    "Between 1 and " + MAX_MENU_SIZE + " dishes expected");
+        }
+
+        Set<String> names = new HashSet<>();
+
+        for (int i = 0; i < dishInputTOs.size(); i++) {
+            DishInputTO dishInputTO = dishInputTOs.get(i);
+
+            if (dishInputTO == null) {
+                throw new EntityValidationException(
+                        HttpStatus.UNPROCESSABLE_ENTITY,
+                        "Dish #" + (i + 1) + ": must not be null");
+            }
+
+            Set<ConstraintViolation<DishInputTO>> violations = validator.validate(dishInputTO);
+
+            if (!violations.isEmpty()) {
+                throw new EntityValidationException(
+                        HttpStatus.UNPROCESSABLE_ENTITY,
+                        "Dish #" + (i + 1) + ": " + violations.stream()
+                                .map(violation -> violation.getPropertyPath() + " " + violation.getMessage())
+                                .sorted()
+                                .collect(Collectors.joining(", ")));
+            }
+
+            if (!names.add(dishInputTO.getName())) {
+                throw new EntityValidationException(
+                        HttpStatus.UNPROCESSABLE_ENTITY,
+                        "Dish #" + (i + 1) + ": name '" + dishInputTO.getName() + "' is repeated in menu");
+            }
+        }
+    }
+
+    // Mirrors dish_unique_date_restaurant_description_idx, so that a clash is reported before anything is written
+    private void checkNamesNotTaken(LocalDate date, List<Dish> existing, List<DishInputTO> dishInputTOs) {
+        Set<String> taken = existing.stream()
+                .map(Dish::getName)
+                .collect(Collectors.toSet());
+
+        List<String> clashes = dishInputTOs.stream()
+                .map(DishInputTO::getName)
+                .filter(taken::contains)
+                .toList();
+
+        if (!clashes.isEmpty()) {
+            throw new EntityValidationException(
+                    HttpStatus.UNPROCESSABLE_ENTITY,
+                    "Dishes already present in menu for " + date + ": " + String.join(", ", clashes));
+        }
+    }
+
+    private void evictDishes(Long restaurantId, List<Dish> dishes) {
+        Cache menu = cacheManager.getCache("menu");
+
+        if (menu != null) {
+            dishes.forEach(dish -> menu.evict(dishKey(restaurantId, dish.getId())));
+        }
     }
 
     private void checkIfRestaurantPresent(Long restaurantId) {
@@ -156,7 +366,7 @@ public class DishService {
         return restaurant;
     }
 
-    private LocalDate getCurrentDate() {
+    private static LocalDate getCurrentDate() {
         return LocalDate.now(ZoneId.of("Europe/Moscow"));
     }
 }
\ No newline at end of file
@@ -0,0 +1,10 @@
+package com.example.restaurantvoting.service;
+
+import java.time.LocalDate;
+
+/**
+ * Published by {@link DishService} when dishes of a restaurant's menu for a date are added, changed or removed.
+ * A {@code null} restaurant id means that menus of any number of restaurants for the date changed at once.
+ */
+public record MenuChangedEvent(Long restaurantId, LocalDate date) {
+}
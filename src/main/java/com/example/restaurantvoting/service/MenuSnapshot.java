@@ -0,0 +1,197 @@
+package com.example.restaurantvoting.service;
+
+import com.example.restaurantvoting.exception.EntityNotFoundException;
+import com.example.restaurantvoting.model.Dish;
+import com.example.restaurantvoting.model.Restaurant;
+import com.example.restaurantvoting.repository.DishRepository;
+import com.example.restaurantvoting.repository.RestaurantRepository;
+import com.example.restaurantvoting.to.DishOutputTO;
+import com.example.restaurantvoting.to.RestaurantMenuTO;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
+
+/**
+ * Immutable view of all restaurants with their menus for the current date.
+ * It is rebuilt with two queries after every committed restaurant change or change of the current date's menu,
+ * and swapped in atomically, so readers never block and never touch the database.
+ * Being rebuilt before resource versions are bumped, it is also what encoded responses are filled from:
+ * unlike the {@code @Cacheable} caches, it never holds data older than the version a body is cached under.
+ * The snapshot of the next date can be prepared in advance and is swapped in when that date begins.
+ */
+@Component
+public class MenuSnapshot {
+
+    private final RestaurantRepository restaurantRepository;
+    private final DishRepository dishRepository;
+
+    private final AtomicReference<Snapshot> current = new AtomicReference<>();
+    private final AtomicReference<Snapshot> next = new AtomicReference<>();
+
+    public MenuSnapshot(RestaurantRepository restaurantRepository, DishRepository dishRepository) {
+        this.restaurantRepository = restaurantRepository;
+        this.dishRepository = dishRepository;
+    }
+
+    public List<RestaurantMenuTO> getMenus() {
+        return getCurrent().menus();
+    }
+
+    public List<Restaurant> getRestaurants() {
+        List<Restaurant> restaurants = getCurrent().restaurants();
+
+        if (restaurants.isEmpty()) {
+            throw new EntityNotFoundException(
+                    HttpStatus.NOT_FOUND,
+                    "No Restaurants found");
+        }
+
+        return restaurants;
+    }
+
+    public List<DishOutputTO> getMenu(Long restaurantId) {
+        Snapshot snapshot = getCurrent();
+        List<DishOutputTO> dishes = snapshot.menusByRestaurant().get(restaurantId);
+
+        if (dishes == null) {
+            throw new EntityNotFoundException(
+                    HttpStatus.NOT_FOUND,
+                    "Restaurant with id=" + restaurantId + " not found");
+        }
+        if (dishes.isEmpty()) {
+            throw new EntityNotFoundException(
+                    HttpStatus.NOT_FOUND,
+                    String.format("No Dishes present for Restaurant with id:%d for %s", restaurantId, snapshot.date()));
+        }
+
+        return dishes;
+    }
+
+    /**
+     * Builds the snapshot of a coming date ahead of time; it is kept up to date until that date begins.
+     */
+    public synchronized void prepare(LocalDate date) {
+        next.set(build(date));
+    }
+
+    /**
+     * Makes the snapshot of the given date current, using the prepared one if there is one.
+     */
+    public synchronized List<RestaurantMenuTO> switchTo(LocalDate date) {
+        Snapshot snapshot = current.get();
+
+        if (snapshot != null && snapshot.date().equals(date)) {
+            return snapshot.menus();
+        }
+
+        Snapshot prepared = next.get();
+
+        if (prepared != null && prepared.date().equals(date)) {
+            next.set(null);
+            current.set(prepared);
+            return prepared.menus();
+        }
+
+        return rebuild().menus();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        rebuild();
+    }
+
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onMenuChanged(MenuChangedEvent event) {
+        Snapshot snapshot = current.get();
+        Snapshot prepared = next.get();
+
+        if (snapshot == null || event.date().equals(snapshot.date())) {
+            rebuild();
+        }
+        if (prepared != null && event.date().equals(prepared.date())) {
+            prepare(prepared.date());
+        }
+    }
+
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onRestaurantChanged(RestaurantChangedEvent event) {
+        Snapshot prepared = next.get();
+
+        rebuild();
+
+        if (prepared != null) {
+            prepare(prepared.date());
+        }
+    }
+
+    private Snapshot getCurrent() {
+        Snapshot snapshot = current.get();
+
+        if (snapshot == null || !snapshot.date().equals(getCurrentDate())) {
+            switchTo(getCurrentDate());
+            snapshot = current.get();
+        }
+
+        return snapshot;
+    }
+
+    // Synchronized so that a snapshot read from the database earlier can never replace one read later
+    synchronized Snapshot rebuild() {
+        Snapshot snapshot = build(getCurrentDate());
+        current.set(snapshot);
+
+        return snapshot;
+    }
+
+    private Snapshot build(LocalDate date) {
+        Map<Long, List<DishOutputTO>> dishes = dishRepository.getAllByDate(date).stream()
+                .collect(Collectors.groupingBy(
+                        dish -> dish.getRestaurant().getId(),
+                        Collectors.mapping(MenuSnapshot::toDishOutputTO, Collectors.toUnmodifiableList())));
+
+        List<Restaurant> restaurants = restaurantRepository.findAll();
+        List<RestaurantMenuTO> menus = new ArrayList<>();
+        Map<Long, List<DishOutputTO>> menusByRestaurant = new HashMap<>();
+        for (Restaurant restaurant : restaurants) {
+            List<DishOutputTO> menu = dishes.getOrDefault(restaurant.getId(), List.of());
+            menus.add(new RestaurantMenuTO(restaurant.getId(), restaurant.getName(), restaurant.getAddress(), menu));
+            menusByRestaurant.put(restaurant.getId(), menu);
+        }
+
+        return new Snapshot(date, List.copyOf(menus), List.copyOf(restaurants), Map.copyOf(menusByRestaurant));
+    }
+
+    private static DishOutputTO toDishOutputTO(Dish dish) {
+        return new DishOutputTO(
+                dish.getId(),
+                dish.getName(),
+                dish.getPrice(),
+                dish.getRestaurant().getId(),
+                dish.getDate());
+    }
+
+    private LocalDate getCurrentDate() {
+        return LocalDate.now(ZoneId.of("Europe/Moscow"));
+    }
+
+    record Snapshot(LocalDate date,
+                    List<RestaurantMenuTO> menus,
+                    List<Restaurant> restaurants,
+                    Map<Long, List<DishOutputTO>> menusByRestaurant) {
+    }
+}
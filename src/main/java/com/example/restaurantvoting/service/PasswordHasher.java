@@ -0,0 +1,106 @@
+package com.example.restaurantvoting.service;
+
+import com.example.restaurantvoting.exception.ServiceOverloadedException;
+import com.example.restaurantvoting.to.PasswordHashingStatsTO;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.time.Duration;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Runs password hashing on a dedicated bounded pool, so bursts of registrations cannot take more than
+ * {@code threads} cores away from request handling. The hash is returned as a future, so the calling request
+ * thread is released while BCrypt runs. When the queue is full, requests are rejected with 503
+ * instead of piling up, and a hash not ready within {@code timeout} fails with 503 as well.
+ */
+@Component
+public class PasswordHasher {
+
+    private final PasswordEncoder passwordEncoder;
+    private final ThreadPoolExecutor executor;
+    private final Duration timeout;
+
+    private final LongAdder completed = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder timedOut = new LongAdder();
+
+    public PasswordHasher(PasswordEncoder passwordEncoder,
+                          @Value("${security.password-hashing.threads:2}") int threads,
+                          @Value("${security.password-hashing.queue-capacity:100}") int queueCapacity,
+                          @Value("${security.password-hashing.timeout:10s}") Duration timeout) {
+        this.passwordEncoder = passwordEncoder;
+        this.timeout = timeout;
+
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "password-hasher-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    @PreDestroy
+    public void stop() {
+        executor.shutdownNow();
+    }
+
+    public CompletableFuture<String> hash(String rawPassword) {
+        CompletableFuture<String> result = new CompletableFuture<>();
+        Future<?> task;
+
+        try {
+            task = executor.submit(() -> {
+                try {
+                    String hash = passwordEncoder.encode(rawPassword);
+                    completed.increment();
+                    result.complete(hash);
+                } catch (RuntimeException e) {
+                    result.completeExceptionally(e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            throw new ServiceOverloadedException(
+                    HttpStatus.SERVICE_UNAVAILABLE,
+                    "Too many registrations are being processed right now. Please retry later");
+        }
+
+        return result
+                .orTimeout(timeout.toNanos(), TimeUnit.NANOSECONDS)
+                .exceptionally(e -> {
+                    Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+
+                    if (cause instanceof TimeoutException) {
+                        task.cancel(true);
+                        timedOut.increment();
+                        throw new ServiceOverloadedException(
+                                HttpStatus.SERVICE_UNAVAILABLE,
+                                "Registration took too long to process. Please retry later");
+                    }
+                    if (cause instanceof RuntimeException runtimeException) {
+                        throw runtimeException;
+                    }
+                    throw new IllegalStateException(cause);
+                });
+    }
+
+    public PasswordHashingStatsTO getStats() {
+        return new PasswordHashingStatsTO(
+                executor.getMaximumPoolSize(),
+                executor.getActiveCount(),
+                executor.getQueue().size(),
+                executor.getQueue().size() + executor.getQueue().remainingCapacity(),
+                completed.sum(),
+                rejected.sum(),
+                timedOut.sum());
+    }
+}
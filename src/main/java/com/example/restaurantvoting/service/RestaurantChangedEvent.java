@@ -0,0 +1,8 @@
+package com.example.restaurantvoting.service;
+
+/**
+ * Published by {@link RestaurantService} when a restaurant is created, updated or deleted.
+ * Deletion also removes all of the restaurant's dishes.
+ */
+public record RestaurantChangedEvent(Long restaurantId) {
+}
@@ -7,6 +7,8 @@ import com.example.restaurantvoting.to.RestaurantInputTO;
 import lombok.AllArgsConstructor;
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -18,8 +20,10 @@ import java.util.List;
 public class RestaurantService {
 
     private final RestaurantRepository restaurantRepository;
+    private final VoteTally voteTally;
+    private final ApplicationEventPublisher eventPublisher;
 
-    @Cacheable(value = "restaurants")
+    @Cacheable(value = "restaurants", key = "'all'")
     public List<Restaurant> getAll() {
         List<Restaurant> restaurants = restaurantRepository.findAll();
 
@@ -32,30 +36,40 @@ public class RestaurantService {
         return restaurants;
     }
 
-    @Cacheable(value = "restaurants")
+    @Cacheable(value = "restaurants", key = "#restaurantId")
     public Restaurant getById(Long restaurantId) {
         return checkIfRestaurantPresentAndGet(restaurantId);
     }
 
-    @CacheEvict(value = "restaurants", allEntries = true)
+    @CacheEvict(value = "restaurants", key = "'all'")
     public Restaurant create(RestaurantInputTO restaurantInputTO) {
-        return restaurantRepository.save(new Restaurant(
+        Restaurant restaurant = restaurantRepository.save(new Restaurant(
                 restaurantInputTO.getName(),
                 restaurantInputTO.getAddress()));
+        eventPublisher.publishEvent(new RestaurantChangedEvent(restaurant.getId()));
+
+        return restaurant;
     }
 
     @Transactional
-    @CacheEvict(value = "restaurants", allEntries = true)
+    @Caching(evict = {
+            @CacheEvict(value = "restaurants", key = "'all'"),
+            @CacheEvict(value = "restaurants", key = "#restaurantId")})
     public Restaurant update(Long restaurantId, RestaurantInputTO restaurantInputTO) {
         Restaurant restaurant = checkIfRestaurantPresentAndGet(restaurantId);
 
         restaurant.setName(restaurantInputTO.getName());
         restaurant.setAddress(restaurantInputTO.getAddress());
+        eventPublisher.publishEvent(new RestaurantChangedEvent(restaurantId));
 
         return restaurant;
     }
 
-    @CacheEvict(value = "restaurants", allEntries = true)
+    // Deletion cascades to the restaurant's dishes; their menu keys are spread over arbitrary dates
+    @Caching(evict = {
+            @CacheEvict(value = "restaurants", key = "'all'"),
+            @CacheEvict(value = "restaurants", key = "#restaurantId"),
+            @CacheEvict(value = "menu", allEntries = true)})
     public void deleteById(Long restaurantId) {
         Integer modificationCount = restaurantRepository.removeById(restaurantId);
 
@@ -64,6 +78,9 @@ public class RestaurantService {
                     HttpStatus.NOT_FOUND,
                     "Deletion error. Restaurant with id=" + restaurantId + " not found");
         }
+
+        voteTally.evictRestaurant(restaurantId);
+        eventPublisher.publishEvent(new RestaurantChangedEvent(restaurantId));
     }
 
     private Restaurant checkIfRestaurantPresentAndGet(Long restaurantId) {
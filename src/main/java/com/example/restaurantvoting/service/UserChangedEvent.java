@@ -0,0 +1,8 @@
+package com.example.restaurantvoting.service;
+
+/**
+ * Published by {@link UserService} when a user's status or credentials change.
+ * Anything caching authentication results for the user must drop them.
+ */
+public record UserChangedEvent(Long userId, String email) {
+}
@@ -0,0 +1,288 @@
+package com.example.restaurantvoting.service;
+
+import com.example.restaurantvoting.exception.EntityValidationException;
+import com.example.restaurantvoting.model.user.Role;
+import com.example.restaurantvoting.model.user.Status;
+import com.example.restaurantvoting.model.user.User;
+import com.example.restaurantvoting.repository.UserRepository;
+import com.example.restaurantvoting.to.UserImportReportTO;
+import com.example.restaurantvoting.to.UserImportResultTO;
+import com.example.restaurantvoting.to.UserInputTO;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PreDestroy;
+import javax.validation.ConstraintViolation;
+import javax.validation.Validator;
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
+
+import static com.example.restaurantvoting.to.UserImportResultTO.Status.*;
+
+/**
+ * Imports users from a streamed JSON array or CSV list in chunks of {@code batch-size} rows.
+ * Each chunk is checked against existing emails with one query, hashed and inserted as one JDBC batch.
+ * Hashing runs in parallel on its own pool of {@code hashing-threads} threads; by default (0) that is half of
+ * the available cores, so an import is not serial BCrypt but still leaves cores for logins, registrations and votes.
+ */
+@Service
+public class UserImportService {
+
+    private static final String CSV_HEADER = "email,password";
+
+    private final UserRepository userRepository;
+    private final PasswordEncoder passwordEncoder;
+    private final Validator validator;
+    private final ObjectMapper objectMapper;
+    private final ApplicationEventPublisher eventPublisher;
+
+    private final int batchSize;
+    private final int maxRows;
+    private final ForkJoinPool pool;
+
+    public UserImportService(UserRepository userRepository,
+                             PasswordEncoder passwordEncoder,
+                             Validator validator,
+                             ObjectMapper objectMapper,
+                             ApplicationEventPublisher eventPublisher,
+                             @Value("${users.import.batch-size:500}") int batchSize,
+                             @Value("${users.import.max-rows:10000}") int maxRows,
+                             @Value("${users.import.hashing-threads:0}") int hashingThreads) {
+        this.userRepository = userRepository;
+        this.passwordEncoder = passwordEncoder;
+        this.validator = validator;
+        this.objectMapper = objectMapper;
+        this.eventPublisher = eventPublisher;
+        this.batchSize = batchSize;
+        this.maxRows = maxRows;
+        this.pool = new ForkJoinPool(hashingThreads > 0
+                ? hashingThreads
+                : Math.max(1, Runtime.getRuntime().availableProcessors() / 2));
+    }
+
+    @PreDestroy
+    public void stop() {
+        pool.shutdownNow();
+    }
+
+    public int getHashingThreads() {
+        return pool.getParallelism();
+    }
+
+    public UserImportReportTO importJson(InputStream inputStream) {
+        try (JsonParser parser = objectMapper.getFactory().createParser(inputStream)) {
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                throw malformed("JSON array of users expected");
+            }
+
+            return importUsers(new Iterator<>() {
+                private JsonToken next = nextToken();
+
+                @Override
+                public boolean hasNext() {
+                    return next != null && next != JsonToken.END_ARRAY;
+                }
+
+                // An element other than an object is skipped and returned as null, to be reported as an invalid row
+                @Override
+                public UserInputTO next() {
+                    try {
+                        UserInputTO userInputTO = null;
+
+                        if (next == JsonToken.START_OBJECT) {
+                            userInputTO = parser.readValueAs(UserInputTO.class);
+                        } else {
+                            parser.skipChildren();
+                        }
+
+                        next = nextToken();
+                        return userInputTO;
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                }
+
+                private JsonToken nextToken() {
+                    try {
+                        return parser.nextToken();
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                }
+            });
+        } catch (IOException | UncheckedIOException e) {
+            throw malformed("Malformed JSON. Rows before the malformed one may have been imported");
+        }
+    }
+
+    public UserImportReportTO importCsv(InputStream inputStream) {
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(inputStream, StandardCharsets.UTF_8))) {
+            Iterator<UserInputTO> rows = reader.lines()
+                    .map(String::trim)
+                    .filter(line -> !line.isEmpty() && !line.equalsIgnoreCase(CSV_HEADER))
+                    .map(line -> {
+                        String[] values = line.split(",", 2);
+                        return new UserInputTO(values[0].trim(), values.length > 1 ? values[1] : null);
+                    })
+                    .iterator();
+
+            return importUsers(rows);
+        } catch (IOException | UncheckedIOException e) {
+            throw malformed("Unreadable CSV. Rows before the unreadable one may have been imported");
+        }
+    }
+
+    UserImportReportTO importUsers(Iterator<UserInputTO> rows) {
+        List<UserImportResultTO> results = new ArrayList<>();
+        Set<String> seenEmails = new HashSet<>();
+        List<PendingUser> chunk = new ArrayList<>(batchSize);
+        int row = 0;
+
+        while (rows.hasNext() && row < maxRows) {
+            UserInputTO userInputTO = rows.next();
+            row++;
+
+            if (userInputTO == null) {
+                results.add(new UserImportResultTO(row, null, INVALID, null, "JSON object expected"));
+                continue;
+            }
+
+            String violation = validate(userInputTO);
+            if (violation != null) {
+                results.add(new UserImportResultTO(row, userInputTO.getEmail(), INVALID, null, violation));
+                continue;
+            }
+
+            String email = userInputTO.getEmail().toLowerCase();
+            if (!seenEmails.add(email)) {
+                results.add(new UserImportResultTO(row, email, DUPLICATE, null, "Email occurs earlier in import"));
+                continue;
+            }
+
+            chunk.add(new PendingUser(row, email, userInputTO.getPassword()));
+            if (chunk.size() == batchSize) {
+                results.addAll(importChunk(chunk));
+                chunk.clear();
+            }
+        }
+
+        if (!chunk.isEmpty()) {
+            results.addAll(importChunk(chunk));
+        }
+
+        results.sort(Comparator.comparing(UserImportResultTO::getRow));
+        int created = (int) results.stream().filter(result -> result.getStatus() == CREATED).count();
+
+        return new UserImportReportTO(row, created, row - created, rows.hasNext(), results);
+    }
+
+    private List<UserImportResultTO> importChunk(List<PendingUser> chunk) {
+        List<UserImportResultTO> results = new ArrayList<>(chunk.size());
+
+        Set<String> existing = new HashSet<>(userRepository.findExistingEmails(
+                chunk.stream().map(PendingUser::email).collect(Collectors.toList())));
+
+        List<PendingUser> fresh = new ArrayList<>(chunk.size());
+        for (PendingUser pendingUser : chunk) {
+            if (existing.contains(pendingUser.email())) {
+                results.add(new UserImportResultTO(
+                        pendingUser.row(), pendingUser.email(), EXISTS, null, "User with this email already exist"));
+            } else {
+                fresh.add(pendingUser);
+            }
+        }
+
+        if (fresh.isEmpty()) {
+            return results;
+        }
+
+        List<User> users = hash(fresh);
+
+        try {
+            userRepository.insertAll(users);
+            for (int i = 0; i < users.size(); i++) {
+                results.add(created(fresh.get(i), users.get(i)));
+            }
+        } catch (DataIntegrityViolationException e) {
+            results.addAll(insertOneByOne(fresh, users));
+        }
+
+        return results;
+    }
+
+    private List<UserImportResultTO> insertOneByOne(List<PendingUser> fresh, List<User> users) {
+        List<UserImportResultTO> results = new ArrayList<>(fresh.size());
+
+        for (int i = 0; i < users.size(); i++) {
+            PendingUser pendingUser = fresh.get(i);
+
+            try {
+                userRepository.insertAll(List.of(users.get(i)));
+                results.add(created(pendingUser, users.get(i)));
+            } catch (DataIntegrityViolationException e) {
+                results.add(new UserImportResultTO(
+                        pendingUser.row(), pendingUser.email(), EXISTS, null, "User with this email already exist"));
+            }
+        }
+
+        return results;
+    }
+
+    private UserImportResultTO created(PendingUser pendingUser, User user) {
+        eventPublisher.publishEvent(new UserChangedEvent(user.getId(), user.getEmail()));
+
+        return new UserImportResultTO(pendingUser.row(), user.getEmail(), CREATED, user.getId(), null);
+    }
+
+    private List<User> hash(List<PendingUser> pendingUsers) {
+        try {
+            return pool.submit(() -> pendingUsers.parallelStream()
+                    .map(pendingUser -> new User(
+                            pendingUser.email(),
+                            passwordEncoder.encode(pendingUser.password()),
+                            Role.USER,
+                            Status.ACTIVE))
+                    .collect(Collectors.toList()))
+                    .get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("User import was interrupted", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    private String validate(UserInputTO userInputTO) {
+        Set<ConstraintViolation<UserInputTO>> violations = validator.validate(userInputTO);
+
+        if (violations.isEmpty()) {
+            return null;
+        }
+
+        return violations.stream()
+                .map(violation -> violation.getPropertyPath() + " " + violation.getMessage())
+                .sorted()
+                .collect(Collectors.joining(", "));
+    }
+
+    private static EntityValidationException malformed(String message) {
+        return new EntityValidationException(HttpStatus.UNPROCESSABLE_ENTITY, message);
+    }
+
+    private record PendingUser(int row, String email, String password) {
+    }
+}
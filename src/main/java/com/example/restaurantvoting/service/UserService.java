@@ -8,20 +8,35 @@ import com.example.restaurantvoting.model.user.Status;
 import com.example.restaurantvoting.model.user.User;
 import com.example.restaurantvoting.repository.UserRepository;
 import com.example.restaurantvoting.to.UserInputTO;
+import com.example.restaurantvoting.to.UserOutputTO;
+import com.example.restaurantvoting.to.UserStatusResultTO;
 import lombok.AllArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.http.HttpStatus;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.util.List;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static com.example.restaurantvoting.to.UserStatusResultTO.Outcome.*;
 
 @Service
 @AllArgsConstructor
 public class UserService {
 
+    private static final int MAX_PAGE_SIZE = 1000;
+    private static final int MAX_BATCH_SIZE = 1000;
+
     private final UserRepository userRepository;
-    private final PasswordEncoder passwordEncoder;
+    private final PasswordHasher passwordHasher;
+    private final ApplicationEventPublisher eventPublisher;
 
     public List<User> getAll() {
         List<User> users = userRepository.findAll();
@@ -35,11 +50,53 @@ public class UserService {
         return users;
     }
 
+    public List<User> getAll(Role role, Status status) {
+        List<User> users = userRepository.getPageAfter(0L, role, status, Pageable.unpaged());
+
+        if (users.isEmpty()) {
+            throw new EntityNotFoundException(
+                    HttpStatus.NOT_FOUND,
+                    "No Users found");
+        }
+
+        return users;
+    }
+
+    public List<User> getPage(Long afterId, Integer limit, Role role, Status status) {
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new EntityValidationException(
+                    HttpStatus.UNPROCESSABLE_ENTITY,
+                    "Limit must be between 1 and " + MAX_PAGE_SIZE);
+        }
+
+        List<User> users = userRepository.getPageAfter(
+                afterId == null ? 0L : afterId, role, status, PageRequest.of(0, limit));
+
+        if (users.isEmpty()) {
+            throw new EntityNotFoundException(
+                    HttpStatus.NOT_FOUND,
+                    "No Users found");
+        }
+
+        return users;
+    }
+
+    @Transactional(readOnly = true)
+    public void forEachUser(Role role, Status status, Consumer<UserOutputTO> consumer) {
+        try (Stream<UserOutputTO> users = userRepository.streamAll(role, status)) {
+            users.forEach(consumer);
+        }
+    }
+
     public User getById(Long userId) {
         return checkIfUserPresentAndGet(userId);
     }
 
-    public User create(UserInputTO userInputTO) {
+    /**
+     * Hashes the password on {@link PasswordHasher}'s pool and saves the user on the hashing thread once the hash
+     * is ready, so the caller does not wait for BCrypt.
+     */
+    public CompletableFuture<User> create(UserInputTO userInputTO) {
         String email = userInputTO.getEmail().toLowerCase();
 
         if (userRepository.findByEmail(email).isPresent()) {
@@ -48,11 +105,12 @@ public class UserService {
                     "User with email: " + email + " already exist");
         }
 
-        return userRepository.save(new User(
-                email,
-                passwordEncoder.encode(userInputTO.getPassword()),
-                Role.USER,
-                Status.ACTIVE));
+        return passwordHasher.hash(userInputTO.getPassword()).thenApply(hash -> {
+            User user = userRepository.save(new User(email, hash, Role.USER, Status.ACTIVE));
+            eventPublisher.publishEvent(new UserChangedEvent(user.getId(), user.getEmail()));
+
+            return user;
+        });
     }
 
     @Transactional
@@ -61,6 +119,7 @@ public class UserService {
 
         if (user.getRole().equals(Role.USER)) {
             user.setStatus(enabled ? Status.ACTIVE : Status.BANNED);
+            eventPublisher.publishEvent(new UserChangedEvent(user.getId(), user.getEmail()));
         }
         else {
             throw new EntityValidationException(
@@ -69,6 +128,48 @@ public class UserService {
         }
     }
 
+    @Transactional
+    public List<UserStatusResultTO> setStatusAll(List<Long> userIds, Boolean enabled) {
+        if (userIds.isEmpty() || userIds.size() > MAX_BATCH_SIZE) {
+            throw new EntityValidationException(
+                    HttpStatus.UNPROCESSABLE_ENTITY,
+                    "Between 1 and " + MAX_BATCH_SIZE + " user ids expected");
+        }
+
+        Status status = enabled ? Status.ACTIVE : Status.BANNED;
+        Set<Long> ids = new LinkedHashSet<>(userIds);
+        // The rows stay locked until the UPDATE commits, so the statuses read here are the ones it changes
+        // and no concurrent change can slip in without a UsersChangedEvent
+        Map<Long, UserOutputTO> users = userRepository.getAllByIdsForUpdate(ids).stream()
+                .collect(Collectors.toMap(UserOutputTO::getId, Function.identity()));
+
+        userRepository.updateStatusByIdsAndRole(ids, Role.USER, status);
+
+        List<UserStatusResultTO> results = new ArrayList<>(ids.size());
+        Map<Long, String> changed = new HashMap<>();
+
+        for (Long id : ids) {
+            UserOutputTO user = users.get(id);
+
+            if (user == null) {
+                results.add(new UserStatusResultTO(id, NOT_FOUND, "User with id=" + id + " not found"));
+            } else if (!user.getRole().equals(Role.USER)) {
+                results.add(new UserStatusResultTO(id, FORBIDDEN, "Status cannot be changed for user with Admin role"));
+            } else if (user.getStatus().equals(status)) {
+                results.add(new UserStatusResultTO(id, UNCHANGED, null));
+            } else {
+                results.add(new UserStatusResultTO(id, UPDATED, null));
+                changed.put(id, user.getEmail());
+            }
+        }
+
+        if (!changed.isEmpty()) {
+            eventPublisher.publishEvent(new UsersChangedEvent(changed));
+        }
+
+        return results;
+    }
+
     private User checkIfUserPresentAndGet(Long userId) {
         return userRepository.findById(userId).orElseThrow(() -> {
             throw new EntityNotFoundException(
@@ -0,0 +1,9 @@
+package com.example.restaurantvoting.service;
+
+import java.util.Map;
+
+/**
+ * Bulk counterpart of {@link UserChangedEvent}, published once for all users changed by one operation.
+ */
+public record UsersChangedEvent(Map<Long, String> emailsById) {
+}
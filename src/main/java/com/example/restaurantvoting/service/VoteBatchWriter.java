@@ -0,0 +1,254 @@
+package com.example.restaurantvoting.service;
+
+import com.example.restaurantvoting.exception.EntityNotFoundException;
+import com.example.restaurantvoting.exception.VoteSubmissionException;
+import com.example.restaurantvoting.repository.VoteRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+
+/**
+ * Optional write-behind path for new votes.
+ * Accepted votes are queued and flushed by a single writer thread as JDBC batch inserts, one transaction per batch.
+ * Callers are acknowledged only after the batch holding their vote has been committed.
+ */
+@Slf4j
+@Component
+public class VoteBatchWriter {
+
+    private static final String INSERT_VOTE = "INSERT INTO vote (id, restaurant_id, user_id, date_entry) VALUES (?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final VoteRepository voteRepository;
+    private final VoteTally voteTally;
+
+    private final boolean enabled;
+    private final int batchSize;
+    private final Duration flushInterval;
+    private final Duration offerTimeout;
+    private final Duration ackTimeout;
+    private final BlockingQueue<PendingVote> queue;
+
+    private volatile boolean running;
+    private Thread writerThread;
+
+    public VoteBatchWriter(JdbcTemplate jdbcTemplate,
+                           TransactionTemplate transactionTemplate,
+                           VoteRepository voteRepository,
+                           VoteTally voteTally,
+                           @Value("${voting.ingestion.write-behind.enabled:false}") boolean enabled,
+                           @Value("${voting.ingestion.write-behind.queue-capacity:10000}") int queueCapacity,
+                           @Value("${voting.ingestion.write-behind.batch-size:500}") int batchSize,
+                           @Value("${voting.ingestion.write-behind.flush-interval:50ms}") Duration flushInterval,
+                           @Value("${voting.ingestion.write-behind.offer-timeout:100ms}") Duration offerTimeout,
+                           @Value("${voting.ingestion.write-behind.ack-timeout:5s}") Duration ackTimeout) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.voteRepository = voteRepository;
+        this.voteTally = voteTally;
+        this.enabled = enabled;
+        this.batchSize = batchSize;
+        this.flushInterval = flushInterval;
+        this.offerTimeout = offerTimeout;
+        this.ackTimeout = ackTimeout;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+
+        running = true;
+        writerThread = new Thread(this::run, "vote-batch-writer");
+        writerThread.setDaemon(true);
+        writerThread.start();
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+
+        if (writerThread != null) {
+            writerThread.join(ackTimeout.toMillis());
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public int getQueueSize() {
+        return queue.size();
+    }
+
+    public Long write(Long userId, Long restaurantId, LocalDate date) {
+        PendingVote pendingVote = new PendingVote(userId, restaurantId, date, new CompletableFuture<>());
+
+        try {
+            if (!queue.offer(pendingVote, offerTimeout.toNanos(), TimeUnit.NANOSECONDS)) {
+                throw new VoteSubmissionException(
+                        HttpStatus.SERVICE_UNAVAILABLE,
+                        "Too many votes are being submitted right now. Please retry later");
+            }
+
+            return pendingVote.ack().get(ackTimeout.toNanos(), TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new VoteSubmissionException(
+                    HttpStatus.SERVICE_UNAVAILABLE,
+                    "Vote submission was interrupted. Please retry later");
+        } catch (TimeoutException e) {
+            throw new VoteSubmissionException(
+                    HttpStatus.SERVICE_UNAVAILABLE,
+                    "Vote was accepted but not confirmed in time. Check submitted vote via GET request");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    private void run() {
+        while (running || !queue.isEmpty()) {
+            try {
+                List<PendingVote> batch = nextBatch();
+
+                if (!batch.isEmpty()) {
+                    flush(batch);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                log.error("Vote batch writer failure", e);
+            }
+        }
+    }
+
+    private List<PendingVote> nextBatch() throws InterruptedException {
+        List<PendingVote> batch = new ArrayList<>(batchSize);
+
+        PendingVote first = queue.poll(flushInterval.toNanos(), TimeUnit.NANOSECONDS);
+        if (first == null) {
+            return batch;
+        }
+        batch.add(first);
+
+        long deadline = System.nanoTime() + flushInterval.toNanos();
+        while (batch.size() < batchSize) {
+            queue.drainTo(batch, batchSize - batch.size());
+
+            long remaining = deadline - System.nanoTime();
+            if (batch.size() >= batchSize || remaining <= 0) {
+                break;
+            }
+
+            PendingVote next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+            if (next == null) {
+                break;
+            }
+            batch.add(next);
+        }
+
+        return batch;
+    }
+
+    private void flush(List<PendingVote> batch) {
+        try {
+            write(batch);
+        } catch (RuntimeException | Error e) {
+            // The batch may or may not have been committed; callers must not wait for an ack that never comes
+            VoteSubmissionException failure = new VoteSubmissionException(
+                    HttpStatus.SERVICE_UNAVAILABLE,
+                    "Vote could not be confirmed. Check submitted vote via GET request");
+            batch.forEach(pendingVote -> pendingVote.ack().completeExceptionally(failure));
+            throw e;
+        }
+    }
+
+    private void write(List<PendingVote> batch) {
+        List<Long> ids;
+
+        try {
+            ids = transactionTemplate.execute(status -> insert(batch));
+        } catch (DataAccessException e) {
+            flushOneByOne(batch);
+            return;
+        }
+
+        for (int i = 0; i < batch.size(); i++) {
+            acknowledge(batch.get(i), ids.get(i));
+        }
+    }
+
+    private void flushOneByOne(List<PendingVote> batch) {
+        for (PendingVote pendingVote : batch) {
+            try {
+                List<Long> ids = transactionTemplate.execute(status -> insert(List.of(pendingVote)));
+                acknowledge(pendingVote, ids.get(0));
+            } catch (DuplicateKeyException e) {
+                pendingVote.ack().completeExceptionally(new VoteSubmissionException(
+                        HttpStatus.UNPROCESSABLE_ENTITY,
+                        "Vote already been submitted today. Vote can be changed via PUT request prior 11AM MSK"));
+            } catch (DataIntegrityViolationException e) {
+                pendingVote.ack().completeExceptionally(new EntityNotFoundException(
+                        HttpStatus.NOT_FOUND,
+                        "Restaurant with id=" + pendingVote.restaurantId() + " not found"));
+            } catch (RuntimeException e) {
+                pendingVote.ack().completeExceptionally(e);
+            }
+        }
+    }
+
+    private void acknowledge(PendingVote pendingVote, Long id) {
+        voteTally.increment(pendingVote.restaurantId(), pendingVote.date());
+        pendingVote.ack().complete(id);
+    }
+
+    private List<Long> insert(List<PendingVote> batch) {
+        List<Long> ids = voteRepository.nextIds(batch.size());
+
+        jdbcTemplate.batchUpdate(INSERT_VOTE, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                PendingVote pendingVote = batch.get(i);
+                ps.setLong(1, ids.get(i));
+                ps.setLong(2, pendingVote.restaurantId());
+                ps.setLong(3, pendingVote.userId());
+                ps.setDate(4, Date.valueOf(pendingVote.date()));
+            }
+
+            @Override
+            public int getBatchSize() {
+                return batch.size();
+            }
+        });
+
+        return ids;
+    }
+
+    private record PendingVote(Long userId, Long restaurantId, LocalDate date, CompletableFuture<Long> ack) {
+    }
+}
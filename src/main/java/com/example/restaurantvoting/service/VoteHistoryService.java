@@ -0,0 +1,134 @@
+package com.example.restaurantvoting.service;
+
+import com.example.restaurantvoting.exception.EntityValidationException;
+import com.example.restaurantvoting.repository.RestaurantRepository;
+import com.example.restaurantvoting.repository.VoteRepository;
+import com.example.restaurantvoting.repository.VoteTotalRepository;
+import com.example.restaurantvoting.to.VoteCountTO;
+import com.example.restaurantvoting.to.VoteHistoryTO;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PreDestroy;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Stream;
+
+/**
+ * Builds restaurant x date vote matrices for date ranges.
+ * The range is split into chunks that are aggregated in parallel, each chunk with one grouped query
+ * over rolled-up days and one over days not rolled up yet.
+ */
+@Service
+public class VoteHistoryService {
+
+    private final VoteRepository voteRepository;
+    private final VoteTotalRepository voteTotalRepository;
+    private final RestaurantRepository restaurantRepository;
+
+    private final int chunkDays;
+    private final int maxDays;
+    private final ForkJoinPool pool;
+
+    public VoteHistoryService(VoteRepository voteRepository,
+                              VoteTotalRepository voteTotalRepository,
+                              RestaurantRepository restaurantRepository,
+                              @Value("${voting.history.chunk-days:31}") int chunkDays,
+                              @Value("${voting.history.max-days:366}") int maxDays,
+                              @Value("${voting.history.parallelism:4}") int parallelism) {
+        this.voteRepository = voteRepository;
+        this.voteTotalRepository = voteTotalRepository;
+        this.restaurantRepository = restaurantRepository;
+        this.chunkDays = chunkDays;
+        this.maxDays = maxDays;
+        this.pool = new ForkJoinPool(parallelism);
+    }
+
+    @PreDestroy
+    public void stop() {
+        pool.shutdownNow();
+    }
+
+    public VoteHistoryTO getHistory(LocalDate from, LocalDate to) {
+        if (to == null) {
+            to = LocalDate.now(ZoneId.of("Europe/Moscow"));
+        }
+
+        if (from == null) {
+            from = to.minusDays(29);
+        }
+
+        int days = (int) ChronoUnit.DAYS.between(from, to) + 1;
+
+        if (days < 1) {
+            throw new EntityValidationException(
+                    HttpStatus.UNPROCESSABLE_ENTITY,
+                    "Date 'from' must not be after date 'to'");
+        }
+
+        if (days > maxDays) {
+            throw new EntityValidationException(
+                    HttpStatus.UNPROCESSABLE_ENTITY,
+                    "Date range must not exceed " + maxDays + " days");
+        }
+
+        Map<Long, long[]> totals = new LinkedHashMap<>();
+        for (Long restaurantId : restaurantRepository.findAllIds()) {
+            totals.put(restaurantId, new long[days]);
+        }
+
+        for (VoteCountTO count : countAll(from, to)) {
+            long[] row = totals.get(count.getRestaurantId());
+
+            if (row != null) {
+                int day = (int) ChronoUnit.DAYS.between(from, count.getDate());
+                row[day] = Math.max(row[day], count.getTotal());
+            }
+        }
+
+        return new VoteHistoryTO(from, to, totals);
+    }
+
+    private List<VoteCountTO> countAll(LocalDate from, LocalDate to) {
+        List<LocalDate[]> chunks = new ArrayList<>();
+        for (LocalDate start = from; !start.isAfter(to); start = start.plusDays(chunkDays)) {
+            LocalDate end = start.plusDays(chunkDays - 1);
+            chunks.add(new LocalDate[]{start, end.isAfter(to) ? to : end});
+        }
+
+        if (chunks.size() == 1) {
+            return countChunk(from, to).toList();
+        }
+
+        try {
+            return pool.submit(() -> chunks.parallelStream()
+                    .flatMap(chunk -> countChunk(chunk[0], chunk[1]))
+                    .toList()).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Vote history aggregation was interrupted", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    // Raw votes are read before the rollup: a day rolled up in between is then seen twice with the same total,
+    // which the merge tolerates, rather than not at all.
+    private Stream<VoteCountTO> countChunk(LocalDate from, LocalDate to) {
+        List<VoteCountTO> raw = voteRepository.countAllNotRolledUpBetweenGroupByRestaurantAndDate(from, to);
+        List<VoteCountTO> rolledUp = voteTotalRepository.getAllBetween(from, to);
+
+        return Stream.concat(raw.stream(), rolledUp.stream());
+    }
+}
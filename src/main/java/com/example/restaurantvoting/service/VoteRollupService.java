@@ -0,0 +1,106 @@
+package com.example.restaurantvoting.service;
+
+import com.example.restaurantvoting.model.Restaurant;
+import com.example.restaurantvoting.model.VoteTotal;
+import com.example.restaurantvoting.repository.RestaurantRepository;
+import com.example.restaurantvoting.repository.VoteRepository;
+import com.example.restaurantvoting.repository.VoteTotalRepository;
+import com.example.restaurantvoting.to.VoteTotalTO;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.List;
+
+/**
+ * Moves closed voting days out of the {@code vote} table.
+ * Once a day has passed, its per-restaurant totals are written to {@code vote_total};
+ * raw votes older than the retention period are then deleted in chunks, one transaction per chunk.
+ * Only days that already have totals are purged, so a day whose rollup failed keeps its raw votes.
+ */
+@Slf4j
+@Service
+public class VoteRollupService {
+
+    private final VoteRepository voteRepository;
+    private final VoteTotalRepository voteTotalRepository;
+    private final RestaurantRepository restaurantRepository;
+
+    private final Duration rawRetention;
+    private final int deleteChunkSize;
+
+    public VoteRollupService(VoteRepository voteRepository,
+                             VoteTotalRepository voteTotalRepository,
+                             RestaurantRepository restaurantRepository,
+                             @Value("${voting.rollup.raw-retention:90d}") Duration rawRetention,
+                             @Value("${voting.rollup.delete-chunk-size:1000}") int deleteChunkSize) {
+        this.voteRepository = voteRepository;
+        this.voteTotalRepository = voteTotalRepository;
+        this.restaurantRepository = restaurantRepository;
+        this.rawRetention = rawRetention;
+        this.deleteChunkSize = deleteChunkSize;
+    }
+
+    @Scheduled(cron = "${voting.rollup.cron:0 5 0 * * *}", zone = "Europe/Moscow")
+    public void rollUpAndPurge() {
+        LocalDate today = LocalDate.now(ZoneId.of("Europe/Moscow"));
+
+        rollUpBefore(today);
+        purgeBefore(today.minusDays(Math.max(1, rawRetention.toDays())));
+    }
+
+    public void rollUpBefore(LocalDate date) {
+        for (LocalDate day : voteRepository.findDatesWithoutRollupBefore(date)) {
+            rollUp(day);
+        }
+    }
+
+    public int purgeBefore(LocalDate date) {
+        Pageable chunk = PageRequest.of(0, deleteChunkSize);
+        int deleted = 0;
+        List<Long> ids;
+
+        do {
+            ids = voteRepository.findRolledUpIdsBefore(date, chunk);
+            if (!ids.isEmpty()) {
+                deleted += voteRepository.deleteAllByIdIn(ids);
+            }
+        } while (ids.size() == deleteChunkSize);
+
+        if (deleted > 0) {
+            log.info("Deleted {} raw votes before {}", deleted, date);
+        }
+
+        return deleted;
+    }
+
+    private void rollUp(LocalDate date) {
+        List<VoteTotal> totals = voteRepository.countAllByDateGroupByRestaurant(date).stream()
+                .map(total -> toVoteTotal(total, date))
+                .toList();
+
+        try {
+            voteTotalRepository.saveAll(totals);
+            log.info("Rolled up {} restaurant totals for {}", totals.size(), date);
+        } catch (DataIntegrityViolationException e) {
+            // The only violation expected here is vote_total_unique_date_restaurant_idx from a concurrent rollup
+            if (!voteTotalRepository.existsByDate(date)) {
+                throw e;
+            }
+            log.warn("Totals for {} have already been rolled up", date);
+        }
+    }
+
+    private VoteTotal toVoteTotal(VoteTotalTO total, LocalDate date) {
+        Restaurant restaurant = restaurantRepository.getById(total.getRestaurantId());
+
+        return new VoteTotal(restaurant, date, total.getTotal());
+    }
+}
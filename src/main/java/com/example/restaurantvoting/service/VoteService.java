@@ -2,20 +2,24 @@ package com.example.restaurantvoting.service;
 
 import com.example.restaurantvoting.exception.EntityNotFoundException;
 import com.example.restaurantvoting.exception.VoteSubmissionException;
-import com.example.restaurantvoting.model.Restaurant;
 import com.example.restaurantvoting.model.user.User;
 import com.example.restaurantvoting.model.Vote;
 import com.example.restaurantvoting.repository.RestaurantRepository;
 import com.example.restaurantvoting.repository.VoteRepository;
+import com.example.restaurantvoting.repository.VoteTotalRepository;
+import com.example.restaurantvoting.repository.VoteChangeResult;
 import com.example.restaurantvoting.to.VoteOutputTO;
+import com.example.restaurantvoting.to.VoteTotalTO;
 import lombok.AllArgsConstructor;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.DuplicateKeyException;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
 import java.time.LocalTime;
 import java.time.ZoneId;
+import java.util.List;
 
 @Service
 @AllArgsConstructor
@@ -23,6 +27,9 @@ public class VoteService {
 
     private final VoteRepository voteRepository;
     private final RestaurantRepository restaurantRepository;
+    private final VoteTotalRepository voteTotalRepository;
+    private final VoteTally voteTally;
+    private final VoteBatchWriter voteBatchWriter;
 
     private final LocalTime votingDeadline = LocalTime.of(11, 0);
 
@@ -48,72 +55,137 @@ public class VoteService {
     }
 
     public VoteOutputTO create(User user, Long restaurantId) {
-        Restaurant restaurant = checkIfRestaurantPresentAndGet(restaurantId);
-
         String email = user.getEmail();
-        Vote voteFromDB = voteRepository.getByUserAndDate(email, getCurrentDate());
+        LocalDate date = getCurrentDate();
 
-        if (voteFromDB == null) {
-            Vote vote = voteRepository.save(new Vote(
-                    restaurant,
-                    user,
-                    getCurrentDate()));
+        if (voteBatchWriter.isEnabled()) {
+            Long voteId = voteBatchWriter.write(user.getId(), restaurantId, date);
 
             return new VoteOutputTO(
-                    vote.getId(),
+                    voteId,
                     restaurantId,
                     email,
-                    vote.getDate()
+                    date
             );
         }
-        else {
+
+        Long voteId;
+
+        try {
+            voteId = voteRepository.insert(user.getId(), restaurantId, date);
+        } catch (DuplicateKeyException e) {
+            Vote vote = voteRepository.getByUserAndDate(email, date);
+
             throw new VoteSubmissionException(
                     HttpStatus.UNPROCESSABLE_ENTITY,
-                    "Vote for restaurant with id=" + voteFromDB.getRestaurant().getId() +
+                    "Vote for restaurant with id=" + (vote == null ? restaurantId : vote.getRestaurant().getId()) +
                             " already been submitted today. Vote can be changed via PUT request prior 11AM MSK");
+        } catch (DataIntegrityViolationException e) {
+            throw restaurantNotFoundOr(e, restaurantId);
         }
+
+        voteTally.increment(restaurantId, date);
+
+        return new VoteOutputTO(
+                voteId,
+                restaurantId,
+                email,
+                date
+        );
     }
 
-    @Transactional
     public VoteOutputTO update(User user, Long restaurantId) {
-        Restaurant restaurant = checkIfRestaurantPresentAndGet(restaurantId);
-
         String email = user.getEmail();
-        Vote vote = voteRepository.getByUserAndDate(email, getCurrentDate());
+        LocalDate date = getCurrentDate();
+
+        if (!LocalTime.now(ZoneId.of("Europe/Moscow")).isBefore(votingDeadline)) {
+            checkIfRestaurantPresent(restaurantId);
+            Vote vote = voteRepository.getByUserAndDate(email, date);
+
+            if (vote == null) {
+                throw notVotedToday(user);
+            }
 
-        if (vote == null) {
             throw new VoteSubmissionException(
                     HttpStatus.UNPROCESSABLE_ENTITY,
-                    "User with email: " + user.getEmail() + " not voted today." +
-                            " Vote can be submitted vit POST request");
+                    "Vote for restaurant with id=" + vote.getRestaurant().getId() + " already been submitted today." +
+                            " Votes cannot be changed past 11AM MSK");
         }
-        else {
-            if (LocalTime.now(ZoneId.of("Europe/Moscow")).isBefore(votingDeadline)) {
-                vote.setRestaurant(restaurant);
-            } else {
-                throw new VoteSubmissionException(
-                        HttpStatus.UNPROCESSABLE_ENTITY,
-                        "Vote for restaurant with id=" + vote.getRestaurant().getId() + " already been submitted today." +
-                                " Votes cannot be changed past 11AM MSK");
-            }
+
+        VoteChangeResult result;
+
+        try {
+            result = voteRepository.change(user.getId(), restaurantId, date);
+        } catch (DataIntegrityViolationException e) {
+            throw restaurantNotFoundOr(e, restaurantId);
+        }
+
+        if (result == null) {
+            throw notVotedToday(user);
+        }
+
+        if (result.isChanged()) {
+            voteTally.move(result.getPreviousRestaurantId(), restaurantId, date);
         }
 
         return new VoteOutputTO(
-                vote.getId(),
+                result.getId(),
                 restaurantId,
                 email,
-                vote.getDate()
+                date
         );
     }
 
     public Long getTotalByDate(Long restaurantId, LocalDate date) {
+        if (date == null) {
+            date = getCurrentDate();
+        }
+
+        if (voteTally.isTracked(date)) {
+            Long total = voteTally.get(restaurantId, date);
+
+            if (total != null) {
+                return total;
+            }
+
+            checkIfRestaurantPresent(restaurantId);
+
+            return 0L;
+        }
+
+        if (isRolledUp(date)) {
+            Long total = voteTotalRepository.findTotalByRestaurantAndDate(restaurantId, date);
+
+            if (total != null) {
+                return total;
+            }
+
+            checkIfRestaurantPresent(restaurantId);
+
+            return 0L;
+        }
+
         checkIfRestaurantPresent(restaurantId);
 
+        return voteRepository.findAllByRestaurantAndDate(restaurantId, date);
+    }
+
+    public List<VoteTotalTO> getLeaderboardByDate(LocalDate date) {
         if (date == null) {
             date = getCurrentDate();
         }
 
-        return voteRepository.findAllByRestaurantAndDate(restaurantId, date);
+        List<VoteTotalTO> leaderboard = isRolledUp(date)
+                ? voteTotalRepository.getLeaderboardByDate(date)
+                : voteRepository.getLeaderboardByDate(date);
+
+        if (leaderboard.isEmpty()) {
+            throw new EntityNotFoundException(
+                    HttpStatus.NOT_FOUND,
+                    "No Restaurants found");
+        }
+
+        return leaderboard;
     }
 
     private void checkIfRestaurantPresent(Long restaurantId) {
@@ -124,16 +196,26 @@ public class VoteService {
         }
     }
 
-    private Restaurant checkIfRestaurantPresentAndGet(Long restaurantId) {
-        Restaurant restaurant = restaurantRepository.findById(restaurantId).orElse(null);
+    private boolean isRolledUp(LocalDate date) {
+        return date.isBefore(getCurrentDate()) && voteTotalRepository.existsByDate(date);
+    }
 
-        if (restaurant == null) {
-            throw new EntityNotFoundException(
-                    HttpStatus.NOT_FOUND,
-                    "Restaurant with id=" + restaurantId + " not found");
+    private VoteSubmissionException notVotedToday(User user) {
+        return new VoteSubmissionException(
+                HttpStatus.UNPROCESSABLE_ENTITY,
+                "User with email: " + user.getEmail() + " not voted today." +
+                        " Vote can be submitted via POST request");
+    }
+
+    // Only a vote referencing a missing restaurant is reported as such; any other violation is unexpected
+    private RuntimeException restaurantNotFoundOr(DataIntegrityViolationException e, Long restaurantId) {
+        if (restaurantRepository.existsById(restaurantId)) {
+            return e;
         }
 
-        return restaurant;
+        return new EntityNotFoundException(
+                HttpStatus.NOT_FOUND,
+                "Restaurant with id=" + restaurantId + " not found");
     }
 
     private LocalDate getCurrentDate() {
@@ -0,0 +1,331 @@
+package com.example.restaurantvoting.service;
+
+import com.example.restaurantvoting.exception.EntityNotFoundException;
+import com.example.restaurantvoting.model.Restaurant;
+import com.example.restaurantvoting.to.VoteTotalTO;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
+
+/**
+ * Pushes today's vote totals to Server-Sent Events subscribers.
+ * A new subscriber first receives the totals of every restaurant, taken from {@link VoteTally}.
+ * Changes reported by {@link VoteTally} are coalesced per restaurant and fanned out once per coalesce interval,
+ * each subscriber receiving the latest total of every restaurant changed since its previous event.
+ * Subscribers are written to from a small sender pool; a subscriber whose pending totals exceed the buffer limit
+ * or whose write is stuck for longer than the send timeout is disconnected and expected to reconnect.
+ * A servlet write cannot be interrupted, so the sender thread stuck in it is written off until the container's
+ * write timeout frees it, and the pool gets a replacement thread, up to {@code max-blocked-senders} of them.
+ */
+@Slf4j
+@Component
+public class VoteStream {
+
+    private static final String EVENT_NAME = "totals";
+
+    private final RestaurantService restaurantService;
+    private final VoteTally voteTally;
+
+    private final Duration timeout;
+    private final Duration sendTimeout;
+    private final int maxPending;
+    private final int senderThreads;
+    private final int maxBlockedSenders;
+    private final ThreadPoolExecutor sender;
+    private final AtomicInteger blockedSenders = new AtomicInteger();
+
+    private final Set<VoteTotalChangedEvent> changed = ConcurrentHashMap.newKeySet();
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+
+    public VoteStream(RestaurantService restaurantService,
+                      VoteTally voteTally,
+                      @Value("${voting.stream.timeout:30m}") Duration timeout,
+                      @Value("${voting.stream.send-timeout:5s}") Duration sendTimeout,
+                      @Value("${voting.stream.max-pending:1000}") int maxPending,
+                      @Value("${voting.stream.sender-threads:4}") int senderThreads,
+                      @Value("${voting.stream.max-blocked-senders:16}") int maxBlockedSenders) {
+        this.restaurantService = restaurantService;
+        this.voteTally = voteTally;
+        this.timeout = timeout;
+        this.sendTimeout = sendTimeout;
+        this.maxPending = maxPending;
+        this.senderThreads = senderThreads;
+        this.maxBlockedSenders = maxBlockedSenders;
+
+        AtomicInteger threadCount = new AtomicInteger();
+        this.sender = new ThreadPoolExecutor(senderThreads, senderThreads, 30, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(), runnable -> {
+            Thread thread = new Thread(runnable, "vote-stream-sender-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    public void stop() {
+        subscribers.forEach(Subscriber::close);
+        sender.shutdownNow();
+    }
+
+    public int getSubscriberCount() {
+        return subscribers.size();
+    }
+
+    public int getBlockedSenderCount() {
+        return blockedSenders.get();
+    }
+
+    public SseEmitter subscribe() {
+        Subscriber subscriber = new Subscriber(new SseEmitter(timeout.toMillis()));
+        subscribers.add(subscriber);
+
+        subscriber.offerSnapshot(getSnapshot());
+
+        return subscriber.emitter;
+    }
+
+    @EventListener
+    public void onVoteTotalChanged(VoteTotalChangedEvent event) {
+        if (!subscribers.isEmpty()) {
+            changed.add(event);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${voting.stream.coalesce-interval:PT0.25S}")
+    public void publishChanges() {
+        LocalDate date = LocalDate.now(ZoneId.of("Europe/Moscow"));
+        List<VoteTotalTO> totals = new ArrayList<>();
+
+        for (VoteTotalChangedEvent event : changed) {
+            changed.remove(event);
+
+            if (event.date().equals(date)) {
+                totals.add(new VoteTotalTO(event.restaurantId(), getTotal(event.restaurantId(), date)));
+            }
+        }
+
+        long stuckSince = System.nanoTime() - sendTimeout.toNanos();
+
+        for (Subscriber subscriber : subscribers) {
+            if (subscriber.isStuck(stuckSince)) {
+                log.debug("Disconnecting vote stream subscriber stuck on write");
+                subscriber.writeOff();
+                subscriber.close();
+            }
+            else if (!totals.isEmpty()) {
+                subscriber.offer(totals);
+            }
+        }
+    }
+
+    private List<VoteTotalTO> getSnapshot() {
+        LocalDate date = LocalDate.now(ZoneId.of("Europe/Moscow"));
+        List<Restaurant> restaurants;
+
+        try {
+            restaurants = restaurantService.getAll();
+        } catch (EntityNotFoundException e) {
+            return List.of();
+        }
+
+        return restaurants.stream()
+                .map(restaurant -> new VoteTotalTO(restaurant.getId(), getTotal(restaurant.getId(), date)))
+                .sorted(Comparator.comparing(VoteTotalTO::getTotal).reversed()
+                        .thenComparing(VoteTotalTO::getRestaurantId))
+                .collect(Collectors.toList());
+    }
+
+    private long getTotal(Long restaurantId, LocalDate date) {
+        Long total = voteTally.get(restaurantId, date);
+        return total == null ? 0L : total;
+    }
+
+    private boolean replaceBlockedSender() {
+        if (blockedSenders.incrementAndGet() > maxBlockedSenders) {
+            blockedSenders.decrementAndGet();
+            return false;
+        }
+
+        resizeSender();
+        return true;
+    }
+
+    private void releaseBlockedSender() {
+        blockedSenders.decrementAndGet();
+        resizeSender();
+    }
+
+    private synchronized void resizeSender() {
+        int size = senderThreads + blockedSenders.get();
+
+        if (size > sender.getMaximumPoolSize()) {
+            sender.setMaximumPoolSize(size);
+            sender.setCorePoolSize(size);
+        }
+        else {
+            sender.setCorePoolSize(size);
+            sender.setMaximumPoolSize(size);
+        }
+    }
+
+    private class Subscriber {
+
+        private final SseEmitter emitter;
+        private final AtomicReference<List<VoteTotalTO>> snapshot = new AtomicReference<>();
+        private final Map<Long, Long> pending = new ConcurrentHashMap<>();
+        private final AtomicLong sendingSince = new AtomicLong();
+
+        private volatile boolean closed;
+        // Guarded by this
+        private boolean sending;
+        private boolean writtenOff;
+
+        Subscriber(SseEmitter emitter) {
+            this.emitter = emitter;
+            emitter.onCompletion(this::remove);
+            emitter.onTimeout(this::close);
+            emitter.onError(e -> close());
+        }
+
+        void offerSnapshot(List<VoteTotalTO> totals) {
+            snapshot.set(totals);
+            schedule();
+        }
+
+        void offer(List<VoteTotalTO> totals) {
+            if (closed) {
+                return;
+            }
+
+            totals.forEach(total -> pending.put(total.getRestaurantId(), total.getTotal()));
+
+            if (pending.size() > maxPending) {
+                log.debug("Disconnecting vote stream subscriber with {} pending totals", pending.size());
+                close();
+            }
+            else {
+                schedule();
+            }
+        }
+
+        boolean isStuck(long stuckSince) {
+            long since = sendingSince.get();
+            return since != 0 && since - stuckSince < 0;
+        }
+
+        synchronized void writeOff() {
+            if (sending && !writtenOff) {
+                writtenOff = replaceBlockedSender();
+            }
+        }
+
+        void drain() {
+            do {
+                List<VoteTotalTO> initial = snapshot.getAndSet(null);
+
+                if (initial != null && !initial.isEmpty() && !closed) {
+                    send(initial);
+                }
+
+                List<VoteTotalTO> totals = new ArrayList<>(pending.size());
+
+                for (Long restaurantId : pending.keySet()) {
+                    Long total = pending.remove(restaurantId);
+
+                    if (total != null) {
+                        totals.add(new VoteTotalTO(restaurantId, total));
+                    }
+                }
+
+                if (!totals.isEmpty() && !closed) {
+                    send(totals);
+                }
+
+                sendingSince.set(0);
+            } while (hasPending() && !closed && sendingSince.compareAndSet(0, System.nanoTime()));
+        }
+
+        void close() {
+            boolean completeNow;
+
+            synchronized (this) {
+                closed = true;
+                // A stuck send holds the emitter's lock; the sender completes the emitter once the send returns
+                completeNow = !sending;
+            }
+
+            remove();
+            snapshot.set(null);
+            pending.clear();
+
+            if (completeNow) {
+                emitter.complete();
+            }
+        }
+
+        void remove() {
+            subscribers.remove(this);
+        }
+
+        private void schedule() {
+            if (!closed && sendingSince.compareAndSet(0, System.nanoTime())) {
+                sender.execute(this::drain);
+            }
+        }
+
+        private boolean hasPending() {
+            return !pending.isEmpty() || snapshot.get() != null;
+        }
+
+        private void send(List<VoteTotalTO> totals) {
+            synchronized (this) {
+                sending = true;
+            }
+
+            try {
+                emitter.send(SseEmitter.event().name(EVENT_NAME).data(totals, MediaType.APPLICATION_JSON));
+            } catch (IOException | IllegalStateException e) {
+                close();
+            } finally {
+                boolean completeNow;
+
+                synchronized (this) {
+                    sending = false;
+                    completeNow = closed;
+
+                    if (writtenOff) {
+                        writtenOff = false;
+                        releaseBlockedSender();
+                    }
+                }
+
+                if (completeNow) {
+                    emitter.complete();
+                }
+            }
+        }
+    }
+}
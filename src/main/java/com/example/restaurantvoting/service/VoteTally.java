@@ -0,0 +1,135 @@
+package com.example.restaurantvoting.service;
+
+import com.example.restaurantvoting.repository.VoteRepository;
+import com.example.restaurantvoting.to.VoteTotalTO;
+import org.springframework.boot.sql.init.dependency.DependsOnDatabaseInitialization;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.annotation.PostConstruct;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * In-memory vote counters keyed by (restaurant, date).
+ * Counters are seeded from the database for the current date at startup and kept up to date by {@link VoteService},
+ * so totals for every date starting from {@link #getTrackedSince()} are answered without touching the database.
+ * Every committed change is announced with a {@link VoteTotalChangedEvent}.
+ */
+@Component
+@DependsOnDatabaseInitialization
+public class VoteTally {
+
+    private final VoteRepository voteRepository;
+
+    private final Map<TallyKey, LongAdder> counters = new ConcurrentHashMap<>();
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    private volatile LocalDate trackedSince = LocalDate.MAX;
+
+    public VoteTally(VoteRepository voteRepository, ApplicationEventPublisher eventPublisher) {
+        this.voteRepository = voteRepository;
+        this.eventPublisher = eventPublisher;
+    }
+
+    @PostConstruct
+    public synchronized void rebuild() {
+        LocalDate date = LocalDate.now(ZoneId.of("Europe/Moscow"));
+
+        trackedSince = LocalDate.MAX;
+        counters.clear();
+
+        for (VoteTotalTO voteTotal : voteRepository.countAllByDateGroupByRestaurant(date)) {
+            counter(voteTotal.getRestaurantId(), date).add(voteTotal.getTotal());
+        }
+
+        trackedSince = date;
+    }
+
+    /**
+     * Creates zero counters of a coming date in advance, so its first votes and reads find them in place.
+     */
+    public void prepare(LocalDate date, Collection<Long> restaurantIds) {
+        for (Long restaurantId : restaurantIds) {
+            counter(restaurantId, date);
+        }
+    }
+
+    /**
+     * Stops tracking dates before the given one; their totals are read from the database from now on.
+     */
+    public synchronized void rollover(LocalDate date) {
+        if (!date.isAfter(trackedSince)) {
+            return;
+        }
+
+        trackedSince = date;
+        counters.keySet().removeIf(key -> key.date().isBefore(date));
+    }
+
+    public LocalDate getTrackedSince() {
+        return trackedSince;
+    }
+
+    public boolean isTracked(LocalDate date) {
+        return !date.isBefore(trackedSince);
+    }
+
+    public Long get(Long restaurantId, LocalDate date) {
+        LongAdder counter = counters.get(new TallyKey(restaurantId, date));
+
+        return counter == null ? null : counter.sum();
+    }
+
+    public void increment(Long restaurantId, LocalDate date) {
+        afterCommit(() -> {
+            counter(restaurantId, date).increment();
+            eventPublisher.publishEvent(new VoteTotalChangedEvent(restaurantId, date));
+        });
+    }
+
+    public void move(Long fromRestaurantId, Long toRestaurantId, LocalDate date) {
+        if (fromRestaurantId.equals(toRestaurantId)) {
+            return;
+        }
+
+        afterCommit(() -> {
+            counter(fromRestaurantId, date).decrement();
+            counter(toRestaurantId, date).increment();
+            eventPublisher.publishEvent(new VoteTotalChangedEvent(fromRestaurantId, date));
+            eventPublisher.publishEvent(new VoteTotalChangedEvent(toRestaurantId, date));
+        });
+    }
+
+    public void evictRestaurant(Long restaurantId) {
+        counters.keySet().removeIf(key -> key.restaurantId().equals(restaurantId));
+    }
+
+    private LongAdder counter(Long restaurantId, LocalDate date) {
+        return counters.computeIfAbsent(new TallyKey(restaurantId, date), key -> new LongAdder());
+    }
+
+    private void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        }
+        else {
+            action.run();
+        }
+    }
+
+    private record TallyKey(Long restaurantId, LocalDate date) {
+    }
+}
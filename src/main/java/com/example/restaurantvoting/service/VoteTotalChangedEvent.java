@@ -0,0 +1,10 @@
+package com.example.restaurantvoting.service;
+
+import java.time.LocalDate;
+
+/**
+ * Published by {@link VoteTally} after the vote count of a restaurant for a date has changed.
+ * Carries no total: listeners read the current value from the tally, so out-of-order events cannot publish stale counts.
+ */
+public record VoteTotalChangedEvent(Long restaurantId, LocalDate date) {
+}
@@ -0,0 +1,16 @@
+package com.example.restaurantvoting.to;
+
+import lombok.*;
+
+@NoArgsConstructor
+@AllArgsConstructor
+@Getter
+@Setter
+public class BulkheadStatsTO {
+
+    String name;
+    Integer limit;
+    Integer inFlight;
+    Long accepted;
+    Long rejected;
+}
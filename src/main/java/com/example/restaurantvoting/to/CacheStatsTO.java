@@ -0,0 +1,17 @@
+package com.example.restaurantvoting.to;
+
+import lombok.*;
+
+@NoArgsConstructor
+@AllArgsConstructor
+@Getter
+@Setter
+public class CacheStatsTO {
+
+    String name;
+    Long size;
+    Long hitCount;
+    Long missCount;
+    Double hitRate;
+    Long evictionCount;
+}
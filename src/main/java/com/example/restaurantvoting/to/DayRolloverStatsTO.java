@@ -0,0 +1,25 @@
+package com.example.restaurantvoting.to;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import lombok.*;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.Map;
+
+@NoArgsConstructor
+@AllArgsConstructor
+@Getter
+@Setter
+public class DayRolloverStatsTO {
+
+    @JsonFormat(pattern = "dd.MM.yyyy")
+    LocalDate preparedDate;
+    Instant preparedAt;
+    Map<String, Long> warmUpMillis;
+
+    @JsonFormat(pattern = "dd.MM.yyyy")
+    LocalDate switchedDate;
+    Instant switchedAt;
+    Long switchMillis;
+}
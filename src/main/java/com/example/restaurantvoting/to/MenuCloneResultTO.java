@@ -0,0 +1,27 @@
+package com.example.restaurantvoting.to;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.*;
+
+import java.time.LocalDate;
+
+@NoArgsConstructor
+@AllArgsConstructor
+@Getter
+@Setter
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class MenuCloneResultTO {
+
+    Long restaurantId;
+
+    @JsonFormat(pattern = "dd.MM.yyyy")
+    LocalDate from;
+
+    @JsonFormat(pattern = "dd.MM.yyyy")
+    LocalDate to;
+
+    Long total;
+    Long copied;
+    Long skipped;
+}
@@ -0,0 +1,18 @@
+package com.example.restaurantvoting.to;
+
+import lombok.*;
+
+@NoArgsConstructor
+@AllArgsConstructor
+@Getter
+@Setter
+public class PasswordHashingStatsTO {
+
+    Integer threads;
+    Integer active;
+    Integer queued;
+    Integer queueCapacity;
+    Long completed;
+    Long rejected;
+    Long timedOut;
+}
@@ -0,0 +1,17 @@
+package com.example.restaurantvoting.to;
+
+import lombok.*;
+
+import java.util.List;
+
+@NoArgsConstructor
+@AllArgsConstructor
+@Getter
+@Setter
+public class RestaurantMenuTO {
+
+    Long id;
+    String name;
+    String address;
+    List<DishOutputTO> dishes;
+}
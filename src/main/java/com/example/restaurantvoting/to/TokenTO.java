@@ -0,0 +1,14 @@
+package com.example.restaurantvoting.to;
+
+import lombok.*;
+
+@NoArgsConstructor
+@AllArgsConstructor
+@Getter
+@Setter
+public class TokenTO {
+
+    String token;
+    String tokenType;
+    Long expiresIn;
+}
@@ -0,0 +1,18 @@
+package com.example.restaurantvoting.to;
+
+import lombok.*;
+
+import java.util.List;
+
+@NoArgsConstructor
+@AllArgsConstructor
+@Getter
+@Setter
+public class UserImportReportTO {
+
+    Integer total;
+    Integer created;
+    Integer skipped;
+    Boolean truncated;
+    List<UserImportResultTO> results;
+}
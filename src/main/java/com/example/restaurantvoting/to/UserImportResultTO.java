@@ -0,0 +1,25 @@
+package com.example.restaurantvoting.to;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.*;
+
+@NoArgsConstructor
+@AllArgsConstructor
+@Getter
+@Setter
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class UserImportResultTO {
+
+    Integer row;
+    String email;
+    Status status;
+    Long id;
+    String message;
+
+    public enum Status {
+        CREATED,
+        DUPLICATE,
+        EXISTS,
+        INVALID
+    }
+}
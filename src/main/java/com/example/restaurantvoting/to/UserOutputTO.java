@@ -0,0 +1,17 @@
+package com.example.restaurantvoting.to;
+
+import com.example.restaurantvoting.model.user.Role;
+import com.example.restaurantvoting.model.user.Status;
+import lombok.*;
+
+@NoArgsConstructor
+@AllArgsConstructor
+@Getter
+@Setter
+public class UserOutputTO {
+
+    Long id;
+    String email;
+    Role role;
+    Status status;
+}
@@ -0,0 +1,23 @@
+package com.example.restaurantvoting.to;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.*;
+
+@NoArgsConstructor
+@AllArgsConstructor
+@Getter
+@Setter
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class UserStatusResultTO {
+
+    Long id;
+    Outcome outcome;
+    String message;
+
+    public enum Outcome {
+        UPDATED,
+        UNCHANGED,
+        NOT_FOUND,
+        FORBIDDEN
+    }
+}
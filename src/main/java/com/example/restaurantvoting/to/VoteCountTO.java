@@ -0,0 +1,16 @@
+package com.example.restaurantvoting.to;
+
+import lombok.*;
+
+import java.time.LocalDate;
+
+@NoArgsConstructor
+@AllArgsConstructor
+@Getter
+@Setter
+public class VoteCountTO {
+
+    Long restaurantId;
+    LocalDate date;
+    Long total;
+}
@@ -0,0 +1,20 @@
+package com.example.restaurantvoting.to;
+
+import lombok.*;
+
+import java.time.LocalDate;
+import java.util.Map;
+
+/**
+ * Restaurant x date vote matrix: {@code totals.get(restaurantId)[i]} is the total for {@code from.plusDays(i)}.
+ */
+@NoArgsConstructor
+@AllArgsConstructor
+@Getter
+@Setter
+public class VoteHistoryTO {
+
+    LocalDate from;
+    LocalDate to;
+    Map<Long, long[]> totals;
+}
@@ -0,0 +1,13 @@
+package com.example.restaurantvoting.to;
+
+import lombok.*;
+
+@NoArgsConstructor
+@AllArgsConstructor
+@Getter
+@Setter
+public class VoteTotalTO {
+
+    Long restaurantId;
+    Long total;
+}
@@ -0,0 +1,109 @@
+package com.example.restaurantvoting.web;
+
+import com.example.restaurantvoting.to.BulkheadStatsTO;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Concurrency limit that adapts to observed latency in the manner of a gradient limiter.
+ * A short moving average of latency is compared with a long one: while the short average stays within
+ * {@code tolerance} times the long one the limit keeps probing upwards by about the square root of itself,
+ * beyond that it is scaled down in proportion, but never by more than half. Both averages are smoothed, so requests
+ * of very different cost sharing one bulkhead move the long average rather than trip the backoff one by one.
+ * A failed request shrinks the limit by 10%.
+ * The limit and both averages form one immutable state swapped by compare-and-set, so releases never block
+ * each other on a lock.
+ */
+public class AdaptiveConcurrencyLimiter {
+
+    private static final double BACKOFF_RATIO = 0.9;
+    private static final double SHORT_WINDOW = 10;
+    private static final double LONG_WINDOW = 600;
+    private static final double MIN_GRADIENT = 0.5;
+    private static final double SMOOTHING = 0.2;
+
+    private final String name;
+    private final int minLimit;
+    private final int maxLimit;
+    private final double tolerance;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final LongAdder accepted = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+
+    private final AtomicReference<State> state;
+
+    public AdaptiveConcurrencyLimiter(String name, int initialLimit, int minLimit, int maxLimit, double tolerance) {
+        this.name = name;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.tolerance = tolerance;
+        this.state = new AtomicReference<>(new State(Math.max(minLimit, Math.min(maxLimit, initialLimit)), 0, 0));
+    }
+
+    public boolean tryAcquire() {
+        while (true) {
+            int current = inFlight.get();
+
+            if (current >= getLimit()) {
+                rejected.increment();
+                return false;
+            }
+
+            if (inFlight.compareAndSet(current, current + 1)) {
+                accepted.increment();
+                return true;
+            }
+        }
+    }
+
+    public void release(long latencyNanos, boolean failed) {
+        int inFlightBefore = inFlight.getAndDecrement();
+        state.updateAndGet(current -> next(current, latencyNanos, inFlightBefore, failed));
+    }
+
+    public int getLimit() {
+        return (int) state.get().estimatedLimit();
+    }
+
+    public BulkheadStatsTO getStats() {
+        return new BulkheadStatsTO(name, getLimit(), inFlight.get(), accepted.sum(), rejected.sum());
+    }
+
+    private State next(State current, long latencyNanos, int inFlightBefore, boolean failed) {
+        double estimatedLimit = current.estimatedLimit();
+
+        if (failed) {
+            return new State(Math.max(minLimit, estimatedLimit * BACKOFF_RATIO),
+                    current.shortRttNanos(), current.longRttNanos());
+        }
+
+        double shortRttNanos = average(current.shortRttNanos(), latencyNanos, SHORT_WINDOW);
+        double longRttNanos = average(current.longRttNanos(), latencyNanos, LONG_WINDOW);
+
+        // Let the long average follow a lasting drop in latency faster than the window alone would
+        if (longRttNanos > shortRttNanos * 2) {
+            longRttNanos *= 0.95;
+        }
+
+        // Latency of a bulkhead used below half of its limit says nothing about where the limit should be
+        if (inFlightBefore * 2 < estimatedLimit) {
+            return new State(estimatedLimit, shortRttNanos, longRttNanos);
+        }
+
+        double gradient = Math.max(MIN_GRADIENT, Math.min(1.0, tolerance * longRttNanos / shortRttNanos));
+        double newLimit = estimatedLimit * gradient + Math.sqrt(estimatedLimit);
+
+        return new State(Math.max(minLimit, Math.min(maxLimit, estimatedLimit * (1 - SMOOTHING) + newLimit * SMOOTHING)),
+                shortRttNanos, longRttNanos);
+    }
+
+    private static double average(double average, long sample, double window) {
+        return average == 0 ? sample : average + (sample - average) * 2 / (window + 1);
+    }
+
+    private record State(double estimatedLimit, double shortRttNanos, double longRttNanos) {
+    }
+}
@@ -0,0 +1,117 @@
+package com.example.restaurantvoting.web;
+
+import com.example.restaurantvoting.to.BulkheadStatsTO;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.security.SecurityProperties;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Sheds load before it reaches the controllers.
+ * The filter runs after the Spring Security chain, so a request is classified only once it is authenticated and
+ * authorized: requests with bad credentials are turned away by the chain and cannot hold permits of a bulkhead
+ * while their password is checked.
+ * Vote submissions, admin endpoints and other API reads each get their own adaptive concurrency limit, so a herd of
+ * voters just before the deadline cannot starve admins or readers. Requests over the limit are answered with 503
+ * and {@code Retry-After} right away instead of queueing.
+ * Streaming endpoints are left out: they hold a request for as long as the client stays connected or the export lasts,
+ * which would count as one very slow request and say nothing about the load of the bulkhead.
+ */
+@Component
+@Order(SecurityProperties.DEFAULT_FILTER_ORDER + 10)
+public class AdmissionControlFilter extends OncePerRequestFilter {
+
+    private static final Set<String> STREAMING_PATHS = Set.of(
+            "/api/vote/stream", "/api/vote/history", "/api/admin/users/export");
+
+    private final boolean enabled;
+    private final Duration retryAfter;
+    private final AdaptiveConcurrencyLimiter vote;
+    private final AdaptiveConcurrencyLimiter admin;
+    private final AdaptiveConcurrencyLimiter read;
+
+    public AdmissionControlFilter(@Value("${voting.admission.enabled:true}") boolean enabled,
+                                  @Value("${voting.admission.retry-after:1s}") Duration retryAfter,
+                                  @Value("${voting.admission.min-limit:4}") int minLimit,
+                                  @Value("${voting.admission.latency-tolerance:2.0}") double tolerance,
+                                  @Value("${voting.admission.vote.max-limit:100}") int voteMaxLimit,
+                                  @Value("${voting.admission.admin.max-limit:20}") int adminMaxLimit,
+                                  @Value("${voting.admission.read.max-limit:200}") int readMaxLimit) {
+        this.enabled = enabled;
+        this.retryAfter = retryAfter;
+        this.vote = new AdaptiveConcurrencyLimiter("vote", voteMaxLimit / 2, minLimit, voteMaxLimit, tolerance);
+        this.admin = new AdaptiveConcurrencyLimiter("admin", adminMaxLimit / 2, minLimit, adminMaxLimit, tolerance);
+        this.read = new AdaptiveConcurrencyLimiter("read", readMaxLimit / 2, minLimit, readMaxLimit, tolerance);
+    }
+
+    public List<BulkheadStatsTO> getStats() {
+        return List.of(vote.getStats(), admin.getStats(), read.getStats());
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        AdaptiveConcurrencyLimiter limiter = enabled ? bulkheadOf(request) : null;
+
+        if (limiter == null) {
+            chain.doFilter(request, response);
+            return;
+        }
+
+        if (!limiter.tryAcquire()) {
+            long seconds = Math.max(1, retryAfter.toSeconds());
+            response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(seconds));
+            response.sendError(HttpStatus.SERVICE_UNAVAILABLE.value(),
+                    "Server is busy. Please retry in " + seconds + " s");
+            return;
+        }
+
+        long start = System.nanoTime();
+        boolean failed = true;
+
+        try {
+            chain.doFilter(request, response);
+            // An async response is still being written by another thread; only the dispatch itself is measured
+            failed = !request.isAsyncStarted() && response.getStatus() >= HttpStatus.INTERNAL_SERVER_ERROR.value();
+        } finally {
+            limiter.release(System.nanoTime() - start, failed);
+        }
+    }
+
+    private AdaptiveConcurrencyLimiter bulkheadOf(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        String method = request.getMethod();
+
+        if (STREAMING_PATHS.contains(path)) {
+            return null;
+        }
+
+        if (path.startsWith("/api/admin/")) {
+            return admin;
+        }
+
+        if (path.equals("/api/vote")
+                && (HttpMethod.POST.matches(method) || HttpMethod.PUT.matches(method))) {
+            return vote;
+        }
+
+        if (path.startsWith("/api/") && HttpMethod.GET.matches(method)) {
+            return read;
+        }
+
+        return null;
+    }
+}
@@ -0,0 +1,154 @@
+package com.example.restaurantvoting.web;
+
+import com.example.restaurantvoting.service.MenuChangedEvent;
+import com.example.restaurantvoting.service.RestaurantChangedEvent;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Set;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Response bodies of hot read endpoints, kept already encoded as UTF-8 JSON and, if enabled, gzip.
+ * Entries are keyed by the resource's current ETag, so a version bump makes stale bodies unreachable at once;
+ * the events that bump versions also evict them, so they do not linger until expiry.
+ * A loader must see data at least as new as the version it is called for, so it must not read through
+ * the {@code @Cacheable} caches, whose evictions happen before commit and can be refilled with old rows.
+ */
+@Component
+public class EncodedResponseCache {
+
+    public static final String CACHE_NAME = "responses";
+
+    private final ResourceVersions resourceVersions;
+    private final ObjectMapper objectMapper;
+    private final Cache<Object, Object> cache;
+    private final boolean gzipEnabled;
+
+    public EncodedResponseCache(ResourceVersions resourceVersions,
+                                ObjectMapper objectMapper,
+                                CacheManager cacheManager,
+                                @Value("${voting.http.gzip.enabled:true}") boolean gzipEnabled) {
+        this.resourceVersions = resourceVersions;
+        this.objectMapper = objectMapper;
+        this.cache = ((CaffeineCache) cacheManager.getCache(CACHE_NAME)).getNativeCache();
+        this.gzipEnabled = gzipEnabled;
+    }
+
+    public ResponseEntity<byte[]> respond(ServletWebRequest request,
+                                          String resource,
+                                          Object variant,
+                                          long lastModified,
+                                          Supplier<?> loader) {
+        boolean gzip = gzipEnabled && acceptsGzip(request);
+        String eTag = resourceVersions.eTag(resource, variant);
+
+        if (gzipEnabled) {
+            request.getResponse().setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        }
+
+        // A gzip body is a different representation, so it must not share the strong ETag of the plain one
+        if (request.checkNotModified(gzip ? eTag.substring(0, eTag.length() - 1) + "-gzip\"" : eTag, lastModified)) {
+            return null;
+        }
+
+        EncodedBody body = (EncodedBody) cache.getIfPresent(eTag);
+
+        if (body == null) {
+            body = encode(resource, loader.get());
+            cache.put(eTag, body);
+        }
+
+        if (gzip) {
+            return ResponseEntity.ok()
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .header(HttpHeaders.CONTENT_ENCODING, "gzip")
+                    .body(body.gzip());
+        }
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(body.json());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onMenuChanged(MenuChangedEvent event) {
+        if (event.restaurantId() == null) {
+            evict(resource -> resource.equals(ResourceVersions.MENUS) || ResourceVersions.isMenu(resource));
+            return;
+        }
+
+        evict(Set.of(ResourceVersions.menu(event.restaurantId()), ResourceVersions.MENUS)::contains);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onRestaurantChanged(RestaurantChangedEvent event) {
+        evict(Set.of(
+                ResourceVersions.restaurant(event.restaurantId()),
+                ResourceVersions.menu(event.restaurantId()),
+                ResourceVersions.RESTAURANTS,
+                ResourceVersions.MENUS)::contains);
+    }
+
+    private void evict(Predicate<String> resources) {
+        cache.asMap().values().removeIf(body -> resources.test(((EncodedBody) body).resource()));
+    }
+
+    private EncodedBody encode(String resource, Object value) {
+        try {
+            byte[] json = objectMapper.writeValueAsBytes(value);
+
+            return new EncodedBody(resource, json, gzipEnabled ? gzip(json) : null);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Unable to serialize response of " + resource, e);
+        }
+    }
+
+    private static byte[] gzip(byte[] json) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(json.length / 4 + 64);
+
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(json);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        return out.toByteArray();
+    }
+
+    private static boolean acceptsGzip(ServletWebRequest request) {
+        String acceptEncoding = request.getHeader(HttpHeaders.ACCEPT_ENCODING);
+
+        if (acceptEncoding == null) {
+            return false;
+        }
+
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.trim().split(";");
+
+            if (parts[0].trim().equalsIgnoreCase("gzip")) {
+                return parts.length == 1 || !parts[1].replace(" ", "").matches("q=0(\\.0*)?");
+            }
+        }
+
+        return false;
+    }
+
+    private record EncodedBody(String resource, byte[] json, byte[] gzip) {
+    }
+}
@@ -0,0 +1,136 @@
+package com.example.restaurantvoting.web;
+
+import com.example.restaurantvoting.service.MenuChangedEvent;
+import com.example.restaurantvoting.service.RestaurantChangedEvent;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.CacheControl;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Version counters of the restaurant and menu read models, used to derive strong ETags and Last-Modified values
+ * so that conditional GETs can be answered before any service or serialization work.
+ * Counters are bumped only after the transaction that changed the data has committed,
+ * and tags include the application start time so that they never repeat across restarts.
+ */
+@Component
+public class ResourceVersions {
+
+    public static final String RESTAURANTS = "restaurants";
+    public static final String MENUS = "menus";
+
+    // Bumped when menus of many restaurants change at once; folded into the version of every restaurant's menu
+    private static final String ALL_MENUS = "menus:all";
+    private static final String MENU_PREFIX = "menu:";
+
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+    private final Instant startedAt = Instant.now();
+    private final Map<String, Version> versions = new ConcurrentHashMap<>();
+    private final String immutableCacheControl;
+    private final String revalidatedCacheControl;
+
+    public ResourceVersions(@Value("${voting.http.immutable-max-age:365d}") Duration immutableMaxAge,
+                            @Value("${voting.http.revalidate-max-age:60s}") Duration revalidateMaxAge) {
+        // CacheControl has no immutable directive before Spring 6
+        this.immutableCacheControl = CacheControl.maxAge(immutableMaxAge).cachePrivate().getHeaderValue() + ", immutable";
+        this.revalidatedCacheControl = CacheControl.maxAge(revalidateMaxAge).cachePrivate().mustRevalidate().getHeaderValue();
+    }
+
+    public static String restaurant(Long restaurantId) {
+        return "restaurant:" + restaurantId;
+    }
+
+    public static String menu(Long restaurantId) {
+        return MENU_PREFIX + restaurantId;
+    }
+
+    public static boolean isMenu(String resource) {
+        return resource.startsWith(MENU_PREFIX);
+    }
+
+    public String eTag(String resource) {
+        return eTag(resource, null);
+    }
+
+    public String eTag(String resource, Object variant) {
+        return "\"" + epoch + "-" + resource + "-" + version(resource).counter() + (variant == null ? "" : "-" + variant) + "\"";
+    }
+
+    public long lastModified(String resource) {
+        return version(resource).modifiedAt().toEpochMilli();
+    }
+
+    /**
+     * Last modification of a resource that shows data for the given date,
+     * which for the current date is no earlier than the moment that date began.
+     */
+    public long lastModified(String resource, LocalDate date) {
+        Instant modifiedAt = version(resource).modifiedAt();
+        Instant dayStart = date.atStartOfDay(ZoneId.of("Europe/Moscow")).toInstant();
+
+        if (dayStart.isAfter(modifiedAt) && !dayStart.isAfter(Instant.now())) {
+            modifiedAt = dayStart;
+        }
+
+        return modifiedAt.toEpochMilli();
+    }
+
+    public String getImmutableCacheControl() {
+        return immutableCacheControl;
+    }
+
+    /**
+     * For responses that rarely change but have no version of their own to expire with, such as leaderboards
+     * of past dates: caches may reuse them briefly, then have to revalidate against the ETag.
+     */
+    public String getRevalidatedCacheControl() {
+        return revalidatedCacheControl;
+    }
+
+    // Runs after all other listeners, so that read models are rebuilt before clients can see the new version
+    @Order
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onMenuChanged(MenuChangedEvent event) {
+        bump(event.restaurantId() == null ? ALL_MENUS : menu(event.restaurantId()), MENUS);
+    }
+
+    @Order
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onRestaurantChanged(RestaurantChangedEvent event) {
+        bump(restaurant(event.restaurantId()), menu(event.restaurantId()), RESTAURANTS, MENUS);
+    }
+
+    void bump(String... resources) {
+        Instant now = Instant.now();
+
+        for (String resource : resources) {
+            versions.merge(resource, new Version(1, now), (previous, ignored) -> new Version(previous.counter() + 1, now));
+        }
+    }
+
+    // Both counters only grow, so their sum changes whenever either of them does
+    private Version version(String resource) {
+        Version version = versions.getOrDefault(resource, new Version(0, startedAt));
+
+        if (!isMenu(resource)) {
+            return version;
+        }
+
+        Version allMenus = versions.getOrDefault(ALL_MENUS, new Version(0, startedAt));
+
+        return new Version(
+                version.counter() + allMenus.counter(),
+                version.modifiedAt().isAfter(allMenus.modifiedAt()) ? version.modifiedAt() : allMenus.modifiedAt());
+    }
+
+    private record Version(long counter, Instant modifiedAt) {
+    }
+}
@@ -7,8 +7,8 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.annotation.DirtiesContext;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.RequestBuilder;
 import org.springframework.test.web.servlet.ResultActions;
-import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
 
 @ExtendWith(SpringExtension.class)
 @SpringBootTest
@@ -19,7 +19,7 @@ public abstract class AbstractTest {
     @Autowired
     private MockMvc mockMvc;
 
-    protected ResultActions perform(MockHttpServletRequestBuilder builder) throws Exception {
+    protected ResultActions perform(RequestBuilder builder) throws Exception {
         return mockMvc.perform(builder);
     }
 }
\ No newline at end of file
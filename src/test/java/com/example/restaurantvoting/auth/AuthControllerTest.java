@@ -0,0 +1,102 @@
+package com.example.restaurantvoting.auth;
+
+import com.example.restaurantvoting.AbstractTest;
+import com.example.restaurantvoting.to.TokenTO;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.test.context.support.WithAnonymousUser;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.httpBasic;
+import static org.springframework.security.test.web.servlet.setup.SecurityMockMvcConfigurers.springSecurity;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Only the security filter chain is applied: the auto-configured MockMvc also runs ErrorPageSecurityFilter,
+// which re-checks access against the anonymous test security context
+@WithAnonymousUser
+class AuthControllerTest extends AbstractTest {
+
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    @Autowired
+    private WebApplicationContext context;
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders.webAppContextSetup(context).apply(springSecurity()).build();
+    }
+
+    @Test
+    void issueToken() throws Exception {
+        String token = issueToken("user@mail.com", "user");
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/profile")
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer " + token))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id").value(1))
+                .andExpect(jsonPath("$.email").value("user@mail.com"));
+    }
+
+    @Test
+    void issueTokenWithBadCredentials() throws Exception {
+        mockMvc.perform(MockMvcRequestBuilders.post("/api/auth/token").with(httpBasic("user@mail.com", "wrong")))
+                .andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    void issueTokenWithBearerToken() throws Exception {
+        String token = issueToken("user@mail.com", "user");
+
+        mockMvc.perform(MockMvcRequestBuilders.post("/api/auth/token")
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer " + token))
+                .andExpect(status().isForbidden());
+    }
+
+    @Test
+    void issueTokenWithoutCredentials() throws Exception {
+        mockMvc.perform(MockMvcRequestBuilders.post("/api/auth/token"))
+                .andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    void requestWithInvalidToken() throws Exception {
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/profile")
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer invalid.token"))
+                .andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    void updateUserStatusRevokesToken() throws Exception {
+        String userToken = issueToken("user@mail.com", "user");
+        String adminToken = issueToken("admin@mail.com", "admin");
+
+        mockMvc.perform(MockMvcRequestBuilders.patch("/api/admin/users/1?enabled=false")
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer " + adminToken))
+                .andExpect(status().isNoContent());
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/profile")
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer " + userToken))
+                .andExpect(status().isUnauthorized());
+    }
+
+    private String issueToken(String email, String password) throws Exception {
+        String content = mockMvc.perform(MockMvcRequestBuilders.post("/api/auth/token").with(httpBasic(email, password)))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        TokenTO tokenTO = mapper.readValue(content, TokenTO.class);
+
+        assertThat(tokenTO.getTokenType()).isEqualTo("Bearer");
+        assertThat(tokenTO.getExpiresIn()).isEqualTo(900L);
+
+        return tokenTO.getToken();
+    }
+}
@@ -0,0 +1,45 @@
+package com.example.restaurantvoting.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class CacheConfigTest {
+
+    private final CacheManager cacheManager = new CacheConfig().cacheManager(
+            "maximumSize=10", "maximumSize=5,expireAfterAccess=1m", "maximumSize=3,expireAfterWrite=30m",
+            "maximumSize=7");
+
+    @Test
+    void cacheManager_Should_build_bounded_caches_from_specs() {
+        Cache<Object, Object> menu = nativeCache("menu");
+        Cache<Object, Object> restaurants = nativeCache("restaurants");
+
+        assertThat(menu.policy().eviction().orElseThrow().getMaximum()).isEqualTo(5);
+        assertThat(menu.policy().expireAfterAccess().orElseThrow().getExpiresAfter(TimeUnit.MINUTES)).isEqualTo(1);
+        assertThat(restaurants.policy().eviction().orElseThrow().getMaximum()).isEqualTo(3);
+        assertThat(restaurants.policy().expireAfterWrite().orElseThrow().getExpiresAfter(TimeUnit.MINUTES)).isEqualTo(30);
+        assertThat(nativeCache("responses").policy().eviction().orElseThrow().getMaximum()).isEqualTo(7);
+        assertThat(nativeCache("other").policy().eviction().orElseThrow().getMaximum()).isEqualTo(10);
+    }
+
+    @Test
+    void cacheManager_Should_record_stats() {
+        org.springframework.cache.Cache menu = cacheManager.getCache("menu");
+        menu.put("key", "value");
+        menu.get("key");
+        menu.get("missing");
+
+        assertThat(nativeCache("menu").stats().hitCount()).isEqualTo(1);
+        assertThat(nativeCache("menu").stats().missCount()).isEqualTo(1);
+    }
+
+    private Cache<Object, Object> nativeCache(String name) {
+        return ((CaffeineCache) cacheManager.getCache(name)).getNativeCache();
+    }
+}
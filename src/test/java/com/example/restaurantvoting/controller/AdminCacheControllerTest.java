@@ -0,0 +1,94 @@
+package com.example.restaurantvoting.controller;
+
+import com.example.restaurantvoting.controller.cache.AdminCacheController;
+import com.example.restaurantvoting.security.CredentialCache;
+import com.example.restaurantvoting.security.UserDetailsServiceImpl;
+import com.example.restaurantvoting.service.DayRolloverService;
+import com.example.restaurantvoting.to.DayRolloverStatsTO;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.security.servlet.SecurityAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.context.annotation.ComponentScan;
+import org.springframework.context.annotation.FilterType;
+import org.springframework.security.config.annotation.web.WebSecurityConfigurer;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+import static org.mockito.BDDMockito.given;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(controllers = AdminCacheController.class,
+        excludeFilters = { @ComponentScan.Filter(type = FilterType.ASSIGNABLE_TYPE, value = WebSecurityConfigurer.class) },
+        excludeAutoConfiguration = { SecurityAutoConfiguration.class})
+public class AdminCacheControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+    @MockBean
+    private UserDetailsServiceImpl userDetailsService;
+    @MockBean
+    private CredentialCache credentialCache;
+    @MockBean
+    private CacheManager cacheManager;
+    @MockBean
+    private DayRolloverService dayRolloverService;
+
+    private final String url = "/api/admin/caches";
+
+    @Test
+    void getCacheStats_Should_return_stats_of_every_cache() throws Exception {
+        given(userDetailsService.getSize()).willReturn(3L);
+        given(userDetailsService.getStats()).willReturn(CacheStats.of(9, 1, 1, 0, 10, 0, 0));
+        given(credentialCache.getSize()).willReturn(0L);
+        given(credentialCache.getStats()).willReturn(CacheStats.empty());
+
+        Cache<Object, Object> menu = Caffeine.newBuilder().recordStats().build();
+        menu.put("key", "value");
+        menu.getIfPresent("key");
+        menu.getIfPresent("missing");
+        given(cacheManager.getCacheNames()).willReturn(List.of("menu"));
+        given(cacheManager.getCache("menu")).willReturn(new CaffeineCache("menu", menu));
+
+        mockMvc.perform(get(url))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].name").value("users"))
+                .andExpect(jsonPath("$[0].size").value(3))
+                .andExpect(jsonPath("$[0].hitCount").value(9))
+                .andExpect(jsonPath("$[0].hitRate").value(0.9))
+                .andExpect(jsonPath("$[1].name").value("credentials"))
+                .andExpect(jsonPath("$[2].name").value("menu"))
+                .andExpect(jsonPath("$[2].size").value(1))
+                .andExpect(jsonPath("$[2].hitRate").value(0.5));
+    }
+
+    @Test
+    void getWarmUpStats_Should_return_timings_of_last_rollover() throws Exception {
+        given(dayRolloverService.getStats()).willReturn(new DayRolloverStatsTO(
+                LocalDate.of(2021, 1, 2),
+                Instant.parse("2021-01-01T20:55:00Z"),
+                Map.of("menus", 12L),
+                LocalDate.of(2021, 1, 2),
+                Instant.parse("2021-01-01T21:00:00Z"),
+                1L));
+
+        mockMvc.perform(get(url + "/warm-up"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.preparedDate").value("02.01.2021"))
+                .andExpect(jsonPath("$.warmUpMillis.menus").value(12))
+                .andExpect(jsonPath("$.switchedAt").value("2021-01-01T21:00:00Z"))
+                .andExpect(jsonPath("$.switchMillis").value(1));
+    }
+}
@@ -4,6 +4,8 @@ import com.example.restaurantvoting.controller.menu.AdminMenuController;
 import com.example.restaurantvoting.service.DishService;
 import com.example.restaurantvoting.to.DishInputTO;
 import com.example.restaurantvoting.to.DishOutputTO;
+import com.example.restaurantvoting.to.MenuCloneResultTO;
+import com.example.restaurantvoting.web.ResourceVersions;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
@@ -15,18 +17,19 @@ import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.context.annotation.ComponentScan;
 import org.springframework.context.annotation.FilterType;
+import org.springframework.context.annotation.Import;
 import org.springframework.http.MediaType;
 import org.springframework.security.config.annotation.web.WebSecurityConfigurer;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.MvcResult;
 
 import java.time.LocalDate;
+import java.time.ZoneId;
 import java.util.List;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.BDDMockito.given;
-import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.verify;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
@@ -34,6 +37,7 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 @WebMvcTest(controllers = AdminMenuController.class,
         excludeFilters = { @ComponentScan.Filter(type = FilterType.ASSIGNABLE_TYPE, value = WebSecurityConfigurer.class) },
         excludeAutoConfiguration = { SecurityAutoConfiguration.class})
+@Import(ResourceVersions.class)
 public class AdminMenuControllerTest {
 
     @Autowired
@@ -70,7 +74,7 @@ public class AdminMenuControllerTest {
 
     @Test
     void getDishById() throws Exception {
-        DishOutputTO d = new DishOutputTO(20L, "Test Dish", 100, 1L, LocalDate.now());
+        DishOutputTO d = new DishOutputTO(20L, "Test Dish", 100, 1L, LocalDate.now(ZoneId.of("Europe/Moscow")));
 
         given(dishService.getById(anyLong(), anyLong())).willReturn(d);
 
@@ -84,7 +88,7 @@ public class AdminMenuControllerTest {
 
     @Test
     void createDish() throws Exception {
-        DishOutputTO d = new DishOutputTO(20L, "Test Dish", 100, 1L, LocalDate.now());
+        DishOutputTO d = new DishOutputTO(20L, "Test Dish", 100, 1L, LocalDate.now(ZoneId.of("Europe/Moscow")));
 
         given(dishService.create(anyLong(), any(DishInputTO.class))).willReturn(d);
 
@@ -100,9 +104,43 @@ public class AdminMenuControllerTest {
         assertThat(locationHeader).isEqualTo("http://localhost" + url + "/20");
     }
 
+    @Test
+    void publishMenu() throws Exception {
+        List<DishOutputTO> dishes = List.of(
+                new DishOutputTO(20L, "Test Dish 1", 100, 1L, LocalDate.of(2030, 1, 1)),
+                new DishOutputTO(21L, "Test Dish 2", 200, 1L, LocalDate.of(2030, 1, 1)));
+
+        given(dishService.publish(eq(1L), anyList(), eq(LocalDate.of(2030, 1, 1)), eq(true))).willReturn(dishes);
+
+        MvcResult mvcResult = mockMvc.perform(post(url + "/bulk?date=01.01.2030&replace=true")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(mapper.writeValueAsString(List.of(
+                                new DishInputTO("Test Dish 1", 100), new DishInputTO("Test Dish 2", 200)))))
+                .andExpect(status().isCreated())
+                .andReturn();
+        List<DishOutputTO> result = mapper.readValue(mvcResult.getResponse().getContentAsString(), new TypeReference<>(){});
+
+        assertThat(result).usingRecursiveFieldByFieldElementComparator().containsExactlyElementsOf(dishes);
+    }
+
+    @Test
+    void cloneMenu() throws Exception {
+        MenuCloneResultTO expected = new MenuCloneResultTO(
+                1L, LocalDate.of(2030, 1, 1), LocalDate.of(2030, 1, 2), 3L, 2L, 1L);
+
+        given(dishService.cloneMenu(1L, LocalDate.of(2030, 1, 1), LocalDate.of(2030, 1, 2))).willReturn(expected);
+
+        String contentAsString = mockMvc.perform(post(url + "/clone?from=01.01.2030&to=02.01.2030"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        MenuCloneResultTO result = mapper.readValue(contentAsString, MenuCloneResultTO.class);
+
+        assertThat(result).usingRecursiveComparison().isEqualTo(expected);
+    }
+
     @Test
     void updateDish() throws Exception {
-        DishOutputTO d = new DishOutputTO(20L, "Test Dish - updated", 100, 1L, LocalDate.now());
+        DishOutputTO d = new DishOutputTO(20L, "Test Dish - updated", 100, 1L, LocalDate.now(ZoneId.of("Europe/Moscow")));
 
         given(dishService.update(anyLong(), any(DishInputTO.class), anyLong())).willReturn(d);
 
@@ -118,7 +156,6 @@ public class AdminMenuControllerTest {
 
     @Test
     void deleteDishById() throws Exception {
-        doNothing().when(dishService).deleteById(anyLong(), anyLong());
         ArgumentCaptor<Long> firstCaptor = ArgumentCaptor.forClass(Long.class);
         ArgumentCaptor<Long> secondCaptor = ArgumentCaptor.forClass(Long.class);
 
@@ -0,0 +1,43 @@
+package com.example.restaurantvoting.controller;
+
+import com.example.restaurantvoting.controller.user.AdminPasswordHashingController;
+import com.example.restaurantvoting.service.PasswordHasher;
+import com.example.restaurantvoting.to.PasswordHashingStatsTO;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.security.servlet.SecurityAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.ComponentScan;
+import org.springframework.context.annotation.FilterType;
+import org.springframework.security.config.annotation.web.WebSecurityConfigurer;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.mockito.BDDMockito.given;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(controllers = AdminPasswordHashingController.class,
+        excludeFilters = { @ComponentScan.Filter(type = FilterType.ASSIGNABLE_TYPE, value = WebSecurityConfigurer.class) },
+        excludeAutoConfiguration = { SecurityAutoConfiguration.class})
+public class AdminPasswordHashingControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+    @MockBean
+    private PasswordHasher passwordHasher;
+
+    private final String url = "/api/admin/password-hashing";
+
+    @Test
+    void getPasswordHashingStats_Should_return_executor_stats() throws Exception {
+        given(passwordHasher.getStats()).willReturn(new PasswordHashingStatsTO(2, 1, 3, 100, 42L, 5L, 0L));
+
+        mockMvc.perform(get(url))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.threads").value(2))
+                .andExpect(jsonPath("$.queued").value(3))
+                .andExpect(jsonPath("$.rejected").value(5));
+    }
+}
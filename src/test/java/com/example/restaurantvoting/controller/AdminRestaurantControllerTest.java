@@ -2,10 +2,13 @@ package com.example.restaurantvoting.controller;
 
 import com.example.restaurantvoting.controller.restaurant.AdminRestaurantController;
 import com.example.restaurantvoting.model.Restaurant;
+import com.example.restaurantvoting.service.DishService;
 import com.example.restaurantvoting.service.RestaurantService;
+import com.example.restaurantvoting.to.MenuCloneResultTO;
 import com.example.restaurantvoting.to.RestaurantInputTO;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import org.junit.jupiter.api.Test;
 import org.mockito.ArgumentCaptor;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -19,6 +22,7 @@ import org.springframework.security.config.annotation.web.WebSecurityConfigurer;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.MvcResult;
 
+import java.time.LocalDate;
 import java.util.List;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -39,10 +43,32 @@ public class AdminRestaurantControllerTest {
     private MockMvc mockMvc;
     @MockBean
     private RestaurantService restaurantService;
+    @MockBean
+    private DishService dishService;
 
     private final ObjectMapper mapper = new ObjectMapper();
     private final String url = "/api/admin/restaurants";
 
+    {
+        mapper.registerModule(new JavaTimeModule());
+    }
+
+    @Test
+    void cloneAllMenus() throws Exception {
+        MenuCloneResultTO expected = new MenuCloneResultTO(
+                null, LocalDate.of(2030, 1, 1), LocalDate.of(2030, 1, 2), 4L, 4L, 0L);
+
+        given(dishService.cloneMenu(null, LocalDate.of(2030, 1, 1), LocalDate.of(2030, 1, 2))).willReturn(expected);
+
+        String contentAsString = mockMvc.perform(post(url + "/menus/clone?from=01.01.2030&to=02.01.2030"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        MenuCloneResultTO result = mapper.readValue(contentAsString, MenuCloneResultTO.class);
+
+        assertThat(contentAsString).doesNotContain("restaurantId");
+        assertThat(result).usingRecursiveComparison().isEqualTo(expected);
+    }
+
     @Test
     void getAllRestaurants() throws Exception {
         Restaurant r1 = new Restaurant("Test Restaurant 1", "Test address 1");
@@ -1,39 +1,60 @@
 package com.example.restaurantvoting.controller;
 
+import com.example.restaurantvoting.config.CacheConfig;
 import com.example.restaurantvoting.controller.menu.MenuController;
 import com.example.restaurantvoting.service.DishService;
+import com.example.restaurantvoting.service.MenuChangedEvent;
+import com.example.restaurantvoting.service.MenuSnapshot;
 import com.example.restaurantvoting.to.DishOutputTO;
+import com.example.restaurantvoting.web.EncodedResponseCache;
+import com.example.restaurantvoting.web.ResourceVersions;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.autoconfigure.security.servlet.SecurityAutoConfiguration;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.cache.CacheManager;
 import org.springframework.context.annotation.ComponentScan;
 import org.springframework.context.annotation.FilterType;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
 import org.springframework.security.config.annotation.web.WebSecurityConfigurer;
 import org.springframework.test.web.servlet.MockMvc;
 
 import java.time.LocalDate;
+import java.time.ZoneId;
 import java.util.List;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.*;
+import static org.hamcrest.Matchers.not;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.then;
+import static org.mockito.Mockito.times;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest(controllers = MenuController.class,
         excludeFilters = { @ComponentScan.Filter(type = FilterType.ASSIGNABLE_TYPE, value = WebSecurityConfigurer.class) },
         excludeAutoConfiguration = { SecurityAutoConfiguration.class})
+@Import({ResourceVersions.class, EncodedResponseCache.class, CacheConfig.class})
 public class MenuControllerTest {
 
     @Autowired
     private MockMvc mockMvc;
+    @Autowired
+    private CacheManager cacheManager;
     @MockBean
     private DishService dishService;
+    @MockBean
+    private MenuSnapshot menuSnapshot;
+    @Autowired
+    private ResourceVersions resourceVersions;
 
     private final ObjectMapper mapper = new ObjectMapper();
     private final String url = "/api/restaurants/1/menu";
@@ -42,12 +63,17 @@ public class MenuControllerTest {
         mapper.registerModule(new JavaTimeModule());
     }
 
+    @BeforeEach
+    void setUp() {
+        cacheManager.getCache(EncodedResponseCache.CACHE_NAME).clear();
+    }
+
     @Test
     void getAllDishes() throws Exception {
-        DishOutputTO d1 = new DishOutputTO(20L, "Test Dish 1", 100, 1L, LocalDate.now());
-        DishOutputTO d2 = new DishOutputTO(21L, "Test Dish 2", 200, 1L, LocalDate.now());
+        DishOutputTO d1 = new DishOutputTO(20L, "Test Dish 1", 100, 1L, LocalDate.now(ZoneId.of("Europe/Moscow")));
+        DishOutputTO d2 = new DishOutputTO(21L, "Test Dish 2", 200, 1L, LocalDate.now(ZoneId.of("Europe/Moscow")));
 
-        given(dishService.getAllByDate(anyLong(), nullable(LocalDate.class))).willReturn(List.of(d1, d2));
+        given(menuSnapshot.getMenu(anyLong())).willReturn(List.of(d1, d2));
 
         String contentAsString = mockMvc.perform(get(url))
                 .andExpect(status().isOk())
@@ -59,7 +85,7 @@ public class MenuControllerTest {
 
     @Test
     void getDishById() throws Exception {
-        DishOutputTO d = new DishOutputTO(20L, "Test Dish", 100, 1L, LocalDate.now());
+        DishOutputTO d = new DishOutputTO(20L, "Test Dish", 100, 1L, LocalDate.now(ZoneId.of("Europe/Moscow")));
 
         given(dishService.getById(anyLong(), anyLong())).willReturn(d);
 
@@ -70,4 +96,33 @@ public class MenuControllerTest {
 
         assertThat(result).usingRecursiveComparison().isEqualTo(d);
     }
-}
\ No newline at end of file
+
+    @Test
+    void getAllDishes_Should_answer_not_modified_without_calling_service_when_etag_matches() throws Exception {
+        given(menuSnapshot.getMenu(anyLong())).willReturn(List.of());
+
+        String eTag = mockMvc.perform(get(url))
+                .andExpect(status().isOk())
+                .andExpect(header().exists(HttpHeaders.LAST_MODIFIED))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(get(url).header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isNotModified());
+
+        then(menuSnapshot).should(times(1)).getMenu(anyLong());
+    }
+
+    @Test
+    void getAllDishes_Should_change_etag_after_menu_change() throws Exception {
+        given(menuSnapshot.getMenu(anyLong())).willReturn(List.of());
+
+        String eTag = mockMvc.perform(get(url))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        resourceVersions.onMenuChanged(new MenuChangedEvent(1L, LocalDate.now(ZoneId.of("Europe/Moscow"))));
+
+        mockMvc.perform(get(url).header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, not(eTag)));
+    }
+}
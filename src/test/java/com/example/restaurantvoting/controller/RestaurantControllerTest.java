@@ -1,47 +1,75 @@
 package com.example.restaurantvoting.controller;
 
+import com.example.restaurantvoting.config.CacheConfig;
 import com.example.restaurantvoting.controller.restaurant.RestaurantController;
 import com.example.restaurantvoting.model.Restaurant;
+import com.example.restaurantvoting.service.MenuSnapshot;
 import com.example.restaurantvoting.service.RestaurantService;
+import com.example.restaurantvoting.to.DishOutputTO;
+import com.example.restaurantvoting.to.RestaurantMenuTO;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.example.restaurantvoting.web.EncodedResponseCache;
+import com.example.restaurantvoting.web.ResourceVersions;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.autoconfigure.security.servlet.SecurityAutoConfiguration;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.cache.CacheManager;
 import org.springframework.context.annotation.ComponentScan;
 import org.springframework.context.annotation.FilterType;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
 import org.springframework.security.config.annotation.web.WebSecurityConfigurer;
+import org.springframework.mock.web.MockHttpServletResponse;
 import org.springframework.test.web.servlet.MockMvc;
 
+import java.io.ByteArrayInputStream;
+import java.time.LocalDate;
 import java.util.List;
+import java.util.zip.GZIPInputStream;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.then;
+import static org.mockito.Mockito.times;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest(controllers = RestaurantController.class,
         excludeFilters = { @ComponentScan.Filter(type = FilterType.ASSIGNABLE_TYPE, value = WebSecurityConfigurer.class) },
         excludeAutoConfiguration = { SecurityAutoConfiguration.class})
+@Import({ResourceVersions.class, EncodedResponseCache.class, CacheConfig.class})
 public class RestaurantControllerTest {
 
     @Autowired
     private MockMvc mockMvc;
+    @Autowired
+    private CacheManager cacheManager;
     @MockBean
     private RestaurantService restaurantService;
+    @MockBean
+    private MenuSnapshot menuSnapshot;
 
-    private final ObjectMapper mapper = new ObjectMapper();
+    private final ObjectMapper mapper = new ObjectMapper().registerModule(new JavaTimeModule());
     private final String url = "/api/restaurants";
 
+    @BeforeEach
+    void setUp() {
+        cacheManager.getCache(EncodedResponseCache.CACHE_NAME).clear();
+    }
+
     @Test
     void getAllRestaurants() throws Exception {
         Restaurant r1 = new Restaurant("Test Restaurant 1", "Test address 1");
         Restaurant r2 = new Restaurant("Test Restaurant 2", "Test address 2");
 
-        given(restaurantService.getAll()).willReturn(List.of(r1, r2));
+        given(menuSnapshot.getRestaurants()).willReturn(List.of(r1, r2));
 
         String contentAsString = mockMvc.perform(get(url))
                 .andExpect(status().isOk())
@@ -51,6 +79,28 @@ public class RestaurantControllerTest {
         assertThat(result).usingRecursiveFieldByFieldElementComparator().containsExactlyInAnyOrder(r1, r2);
     }
 
+    @Test
+    void getAllRestaurants_Should_serve_cached_gzip_body() throws Exception {
+        Restaurant r = new Restaurant("Test Restaurant", "Test address");
+
+        given(menuSnapshot.getRestaurants()).willReturn(List.of(r));
+
+        byte[] plain = mockMvc.perform(get(url))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING))
+                .andReturn().getResponse().getContentAsByteArray();
+        MockHttpServletResponse response = mockMvc.perform(get(url).header(HttpHeaders.ACCEPT_ENCODING, "gzip, deflate"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+                .andReturn().getResponse();
+
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(response.getContentAsByteArray()))) {
+            assertThat(in.readAllBytes()).isEqualTo(plain);
+        }
+        assertThat(response.getHeader(HttpHeaders.ETAG)).endsWith("-gzip\"");
+        then(menuSnapshot).should(times(1)).getRestaurants();
+    }
+
     @Test
     void getRestaurantById() throws Exception {
         Restaurant r = new Restaurant("Test Restaurant", "Test address");
@@ -64,4 +114,36 @@ public class RestaurantControllerTest {
 
         assertThat(result).usingRecursiveComparison().isEqualTo(r);
     }
-}
\ No newline at end of file
+
+    @Test
+    void getAllRestaurantsWithMenus() throws Exception {
+        RestaurantMenuTO m1 = new RestaurantMenuTO(1L, "Test Restaurant 1", "Test address 1",
+                List.of(new DishOutputTO(10L, "Test Dish", 100, 1L, LocalDate.of(2021, 1, 1))));
+        RestaurantMenuTO m2 = new RestaurantMenuTO(2L, "Test Restaurant 2", "Test address 2", List.of());
+
+        given(menuSnapshot.getMenus()).willReturn(List.of(m1, m2));
+
+        String contentAsString = mockMvc.perform(get(url + "/menus"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        List<RestaurantMenuTO> result = mapper.readValue(contentAsString, new TypeReference<>(){});
+
+        assertThat(result).usingRecursiveFieldByFieldElementComparator().containsExactly(m1, m2);
+    }
+
+    @Test
+    void getRestaurantById_Should_answer_not_modified_without_calling_service_when_etag_matches() throws Exception {
+        given(restaurantService.getById(anyLong())).willReturn(new Restaurant("Test Restaurant", "Test address"));
+
+        String eTag = mockMvc.perform(get(url + "/1"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(get(url + "/1").header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isNotModified());
+        mockMvc.perform(get(url + "/2").header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isOk());
+
+        then(restaurantService).should(times(2)).getById(anyLong());
+    }
+}
@@ -7,9 +7,11 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 
 import java.time.LocalDate;
+import java.time.ZoneId;
 import java.util.List;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
 
 @DataJpaTest
 class DishRepositoryTest {
@@ -19,17 +21,19 @@ class DishRepositoryTest {
     @Autowired
     private DishRepository dishRepository;
 
+    private final LocalDate today = LocalDate.now(ZoneId.of("Europe/Moscow"));
+
     @Test
     void getAllByRestaurantAndDate_Should_find_dishes_only_with_given_date() {
         Restaurant restaurant = new Restaurant("Test Restaurant", "Test Address");
         restaurantRepository.save(restaurant);
-        Dish dish1 = new Dish("Test dish 1", 100, restaurant, LocalDate.now());
-        Dish dish2 = new Dish("Test dish 2", 100, restaurant, LocalDate.now());
-        Dish dish3 = new Dish("Test dish 3", 100, restaurant, LocalDate.now());
+        Dish dish1 = new Dish("Test dish 1", 100, restaurant, today);
+        Dish dish2 = new Dish("Test dish 2", 100, restaurant, today);
+        Dish dish3 = new Dish("Test dish 3", 100, restaurant, today);
         Dish dish4 = new Dish("Test dish 4", 100, restaurant, LocalDate.of(2020, 2, 2));
         dishRepository.saveAll(List.of(dish1, dish2, dish3, dish4));
 
-        List<Dish> result = dishRepository.getAllByRestaurantAndDate(restaurant.getId(), LocalDate.now());
+        List<Dish> result = dishRepository.getAllByRestaurantAndDate(restaurant.getId(), today);
 
         assertThat(result).containsExactlyInAnyOrder(dish1, dish2, dish3);
     }
@@ -38,7 +42,7 @@ class DishRepositoryTest {
     void getAllByRestaurantAndDate_Should_return_empty_list_when_restaurant_not_found() {
         Long restaurantId = 6610L;
 
-        List<Dish> result = dishRepository.getAllByRestaurantAndDate(restaurantId, LocalDate.now());
+        List<Dish> result = dishRepository.getAllByRestaurantAndDate(restaurantId, today);
 
         assertThat(result).isEmpty();
     }
@@ -47,7 +51,7 @@ class DishRepositoryTest {
     void getByRestaurantAndId_Should_find_dish_when_restaurant_and_dish_present() {
         Restaurant restaurant = new Restaurant("Test Restaurant", "Test Address");
         restaurantRepository.save(restaurant);
-        Dish expected = new Dish("Test dish", 100, restaurant, LocalDate.now());
+        Dish expected = new Dish("Test dish", 100, restaurant, today);
         dishRepository.save(expected);
 
         Dish result = dishRepository.getByRestaurantAndId(restaurant.getId(), expected.getId());
@@ -70,7 +74,7 @@ class DishRepositoryTest {
     void removeByRestaurantAndId_Should_remove_dish_when_dish_present() {
         Restaurant restaurant = new Restaurant("Test Restaurant", "Test Address");
         restaurantRepository.save(restaurant);
-        Dish dish = new Dish("Test dish", 100, restaurant, LocalDate.now());
+        Dish dish = new Dish("Test dish", 100, restaurant, today);
         dishRepository.save(dish);
 
         int modificationCount = dishRepository.removeByRestaurantAndId(restaurant.getId(), dish.getId());
@@ -88,4 +92,60 @@ class DishRepositoryTest {
 
         assertThat(modificationCount).isEqualTo(0);
     }
-}
\ No newline at end of file
+
+    @Test
+    void removeAllByRestaurantAndDate_Should_remove_only_menu_of_given_date() {
+        Restaurant restaurant = new Restaurant("Test Restaurant", "Test Address");
+        restaurantRepository.save(restaurant);
+        Dish dish1 = new Dish("Test dish 1", 100, restaurant, today);
+        Dish dish2 = new Dish("Test dish 2", 100, restaurant, today);
+        Dish dish3 = new Dish("Test dish 1", 100, restaurant, LocalDate.of(2020, 2, 2));
+        dishRepository.saveAll(List.of(dish1, dish2, dish3));
+
+        int modificationCount = dishRepository.removeAllByRestaurantAndDate(restaurant.getId(), today);
+
+        assertThat(modificationCount).isEqualTo(2);
+        assertThat(dishRepository.getAllByRestaurantAndDate(restaurant.getId(), LocalDate.of(2020, 2, 2)))
+                .containsExactly(dish3);
+    }
+
+    @Test
+    void copyMenu_Should_copy_menu_to_new_date_and_skip_dishes_already_present() {
+        Restaurant restaurant = new Restaurant("Test Restaurant", "Test Address");
+        restaurantRepository.save(restaurant);
+        LocalDate from = LocalDate.of(2020, 2, 2);
+        Dish dish1 = new Dish("Test dish 1", 100, restaurant, from);
+        Dish dish2 = new Dish("Test dish 2", 200, restaurant, from);
+        Dish present = new Dish("Test dish 1", 150, restaurant, today);
+        dishRepository.saveAllAndFlush(List.of(dish1, dish2, present));
+
+        int copied = dishRepository.copyMenu(restaurant.getId(), from, today);
+        Dish next = dishRepository.saveAndFlush(new Dish("Test dish 3", 300, restaurant, today));
+
+        assertThat(copied).isEqualTo(1);
+        assertThat(dishRepository.countByRestaurantAndDate(restaurant.getId(), from)).isEqualTo(2);
+        assertThat(dishRepository.getAllByRestaurantAndDate(restaurant.getId(), today))
+                .extracting(Dish::getName, Dish::getPrice)
+                .containsExactlyInAnyOrder(
+                        tuple("Test dish 1", 150), tuple("Test dish 2", 200), tuple("Test dish 3", 300));
+        assertThat(next.getId()).isNotIn(dish1.getId(), dish2.getId(), present.getId());
+    }
+
+    @Test
+    void copyAllMenus_Should_copy_menus_of_every_restaurant() {
+        Restaurant restaurant1 = new Restaurant("Test Restaurant 1", "Test Address 1");
+        Restaurant restaurant2 = new Restaurant("Test Restaurant 2", "Test Address 2");
+        restaurantRepository.saveAll(List.of(restaurant1, restaurant2));
+        LocalDate from = LocalDate.of(2020, 2, 2);
+        dishRepository.saveAllAndFlush(List.of(
+                new Dish("Test dish 1", 100, restaurant1, from),
+                new Dish("Test dish 1", 100, restaurant2, from)));
+        long before = dishRepository.countByDate(today);
+
+        int copied = dishRepository.copyAllMenus(from, today);
+
+        assertThat(copied).isEqualTo(2);
+        assertThat(dishRepository.countByDate(today)).isEqualTo(before + 2);
+        assertThat(dishRepository.countByRestaurantAndDate(restaurant2.getId(), today)).isEqualTo(1);
+    }
+}
@@ -2,17 +2,24 @@ package com.example.restaurantvoting.repository;
 
 import com.example.restaurantvoting.model.Restaurant;
 import com.example.restaurantvoting.model.Vote;
+import com.example.restaurantvoting.model.VoteTotal;
 import com.example.restaurantvoting.model.user.Role;
 import com.example.restaurantvoting.model.user.Status;
 import com.example.restaurantvoting.model.user.User;
+import com.example.restaurantvoting.to.VoteCountTO;
+import com.example.restaurantvoting.to.VoteTotalTO;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.PageRequest;
 
 import java.time.LocalDate;
+import java.time.ZoneId;
 import java.util.List;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
 
 @DataJpaTest
 class VoteRepositoryTest {
@@ -23,6 +30,10 @@ class VoteRepositoryTest {
     private UserRepository userRepository;
     @Autowired
     private VoteRepository voteRepository;
+    @Autowired
+    private VoteTotalRepository voteTotalRepository;
+
+    private final LocalDate today = LocalDate.now(ZoneId.of("Europe/Moscow"));
 
     @Test
     void findAllByRestaurantAndDate_Should_count_votes_only_with_given_date() {
@@ -31,12 +42,12 @@ class VoteRepositoryTest {
         User user1 = new User("mail1@mail.com", "0000", Role.USER, Status.ACTIVE);
         User user2 = new User("mail2@mail.com", "0000", Role.USER, Status.ACTIVE);
         userRepository.saveAll(List.of(user1, user2));
-        Vote vote1 = new Vote(restaurant, user1, LocalDate.now());
-        Vote vote2 = new Vote(restaurant, user2, LocalDate.now());
+        Vote vote1 = new Vote(restaurant, user1, today);
+        Vote vote2 = new Vote(restaurant, user2, today);
         Vote vote3 = new Vote(restaurant, user2, LocalDate.of(2020, 2, 2));
         voteRepository.saveAll(List.of(vote1, vote2, vote3));
 
-        long votesCount = voteRepository.findAllByRestaurantAndDate(restaurant.getId(), LocalDate.now());
+        long votesCount = voteRepository.findAllByRestaurantAndDate(restaurant.getId(), today);
 
         assertThat(votesCount).isEqualTo(2);
     }
@@ -45,21 +56,144 @@ class VoteRepositoryTest {
     void findAllByRestaurantAndDate_Should_return_zero_when_restaurant_not_found() {
         Long restaurantId = 6610L;
 
-        long votesCount = voteRepository.findAllByRestaurantAndDate(restaurantId, LocalDate.now());
+        long votesCount = voteRepository.findAllByRestaurantAndDate(restaurantId, today);
 
         assertThat(votesCount).isEqualTo(0);
     }
 
+    @Test
+    void countAllByDateGroupByRestaurant_Should_count_votes_per_restaurant_only_with_given_date() {
+        Restaurant restaurant1 = new Restaurant("Test Restaurant 1", "Test Address");
+        Restaurant restaurant2 = new Restaurant("Test Restaurant 2", "Test Address");
+        restaurantRepository.saveAll(List.of(restaurant1, restaurant2));
+        User user1 = new User("mail1@mail.com", "0000", Role.USER, Status.ACTIVE);
+        User user2 = new User("mail2@mail.com", "0000", Role.USER, Status.ACTIVE);
+        User user3 = new User("mail3@mail.com", "0000", Role.USER, Status.ACTIVE);
+        userRepository.saveAll(List.of(user1, user2, user3));
+        Vote vote1 = new Vote(restaurant1, user1, today);
+        Vote vote2 = new Vote(restaurant1, user2, today);
+        Vote vote3 = new Vote(restaurant2, user3, today);
+        Vote vote4 = new Vote(restaurant2, user1, LocalDate.of(2020, 2, 2));
+        voteRepository.saveAll(List.of(vote1, vote2, vote3, vote4));
+
+        List<VoteTotalTO> result = voteRepository.countAllByDateGroupByRestaurant(today);
+
+        assertThat(result).usingRecursiveFieldByFieldElementComparator().containsExactlyInAnyOrder(
+                new VoteTotalTO(restaurant1.getId(), 2L),
+                new VoteTotalTO(restaurant2.getId(), 1L));
+    }
+
+    @Test
+    void getLeaderboardByDate_Should_include_restaurants_without_votes_and_sort_by_total() {
+        Restaurant restaurant1 = new Restaurant("Test Restaurant 1", "Test Address");
+        Restaurant restaurant2 = new Restaurant("Test Restaurant 2", "Test Address");
+        restaurantRepository.saveAll(List.of(restaurant1, restaurant2));
+        User user1 = new User("mail1@mail.com", "0000", Role.USER, Status.ACTIVE);
+        User user2 = new User("mail2@mail.com", "0000", Role.USER, Status.ACTIVE);
+        userRepository.saveAll(List.of(user1, user2));
+        Vote vote1 = new Vote(restaurant2, user1, today);
+        Vote vote2 = new Vote(restaurant1, user2, LocalDate.of(2020, 2, 2));
+        voteRepository.saveAll(List.of(vote1, vote2));
+
+        List<VoteTotalTO> result = voteRepository.getLeaderboardByDate(today);
+
+        assertThat(result).filteredOn(total -> total.getRestaurantId().equals(restaurant1.getId())
+                        || total.getRestaurantId().equals(restaurant2.getId()))
+                .usingRecursiveFieldByFieldElementComparator().containsExactly(
+                        new VoteTotalTO(restaurant2.getId(), 1L),
+                        new VoteTotalTO(restaurant1.getId(), 0L));
+    }
+
+    @Test
+    void nextIds_Should_not_collide_with_ids_assigned_by_hibernate() {
+        Restaurant restaurant = restaurantRepository.saveAndFlush(new Restaurant("Test Restaurant", "Test Address"));
+        User user1 = new User("mail1@mail.com", "0000", Role.USER, Status.ACTIVE);
+        User user2 = new User("mail2@mail.com", "0000", Role.USER, Status.ACTIVE);
+        userRepository.saveAllAndFlush(List.of(user1, user2));
+
+        List<Long> ids = voteRepository.nextIds(60);
+        Vote vote = voteRepository.saveAndFlush(new Vote(restaurant, user1, today));
+        Long insertedId = voteRepository.insert(user2.getId(), restaurant.getId(), today);
+
+        assertThat(ids).doesNotHaveDuplicates().doesNotContain(vote.getId(), insertedId);
+        assertThat(vote.getId()).isNotEqualTo(insertedId);
+    }
+
+    @Test
+    void nextIds_Should_take_consecutive_ids_from_one_sequence_block() {
+        List<Long> first = voteRepository.nextIds(3);
+        List<Long> second = voteRepository.nextIds(1);
+
+        assertThat(first).containsExactly(first.get(0), first.get(0) + 1, first.get(0) + 2);
+        assertThat(second).containsExactly(first.get(0) + 3);
+    }
+
+    @Test
+    void insert_Should_create_vote_when_user_not_voted_for_given_date() {
+        Restaurant restaurant = restaurantRepository.saveAndFlush(new Restaurant("Test Restaurant", "Test Address"));
+        User user = userRepository.saveAndFlush(new User("mail1@mail.com", "0000", Role.USER, Status.ACTIVE));
+
+        Long id = voteRepository.insert(user.getId(), restaurant.getId(), today);
+
+        assertThat(voteRepository.findById(id)).isPresent();
+    }
+
+    @Test
+    void insert_Should_throw_DuplicateKeyException_when_user_already_voted_for_given_date() {
+        Restaurant restaurant = restaurantRepository.saveAndFlush(new Restaurant("Test Restaurant", "Test Address"));
+        User user = userRepository.saveAndFlush(new User("mail1@mail.com", "0000", Role.USER, Status.ACTIVE));
+        voteRepository.insert(user.getId(), restaurant.getId(), today);
+
+        assertThatExceptionOfType(DuplicateKeyException.class)
+                .isThrownBy(() -> voteRepository.insert(user.getId(), restaurant.getId(), today));
+    }
+
+    @Test
+    void change_Should_move_vote_to_another_restaurant() {
+        Restaurant restaurant1 = new Restaurant("Test Restaurant 1", "Test Address");
+        Restaurant restaurant2 = new Restaurant("Test Restaurant 2", "Test Address");
+        restaurantRepository.saveAllAndFlush(List.of(restaurant1, restaurant2));
+        User user = userRepository.saveAndFlush(new User("mail1@mail.com", "0000", Role.USER, Status.ACTIVE));
+        Long voteId = voteRepository.insert(user.getId(), restaurant1.getId(), today);
+
+        VoteChangeResult result = voteRepository.change(user.getId(), restaurant2.getId(), today);
+
+        assertThat(result).usingRecursiveComparison().isEqualTo(
+                new VoteChangeResult(voteId, restaurant2.getId(), restaurant1.getId()));
+        assertThat(result.isChanged()).isTrue();
+        assertThat(voteRepository.findAllByRestaurantAndDate(restaurant2.getId(), today)).isEqualTo(1L);
+    }
+
+    @Test
+    void change_Should_report_unchanged_vote_for_same_restaurant() {
+        Restaurant restaurant = restaurantRepository.saveAndFlush(new Restaurant("Test Restaurant", "Test Address"));
+        User user = userRepository.saveAndFlush(new User("mail1@mail.com", "0000", Role.USER, Status.ACTIVE));
+        voteRepository.insert(user.getId(), restaurant.getId(), today);
+
+        VoteChangeResult result = voteRepository.change(user.getId(), restaurant.getId(), today);
+
+        assertThat(result.isChanged()).isFalse();
+    }
+
+    @Test
+    void change_Should_return_null_when_user_not_voted_for_given_date() {
+        Restaurant restaurant = restaurantRepository.saveAndFlush(new Restaurant("Test Restaurant", "Test Address"));
+        User user = userRepository.saveAndFlush(new User("mail1@mail.com", "0000", Role.USER, Status.ACTIVE));
+
+        assertThat(voteRepository.change(user.getId(), restaurant.getId(), today)).isNull();
+        assertThat(voteRepository.findAllByRestaurantAndDate(restaurant.getId(), today)).isZero();
+    }
+
     @Test
     void getByUserAndDate_Should_find_vote_when_user_and_vote_present() {
         Restaurant restaurant = new Restaurant("Test Restaurant", "Test Address");
         restaurantRepository.save(restaurant);
         User user = new User("mail1@mail.com", "0000", Role.USER, Status.ACTIVE);
         userRepository.save(user);
-        Vote expected = new Vote(restaurant, user, LocalDate.now());
+        Vote expected = new Vote(restaurant, user, today);
         voteRepository.save(expected);
 
-        Vote result = voteRepository.getByUserAndDate(user.getEmail(), LocalDate.now());
+        Vote result = voteRepository.getByUserAndDate(user.getEmail(), today);
 
         assertThat(result).isEqualTo(expected);
     }
@@ -68,8 +202,83 @@ class VoteRepositoryTest {
     void getByUserAndDate_Should_return_null_when_user_not_found() {
         String email = "";
 
-        Vote result = voteRepository.getByUserAndDate(email, LocalDate.now());
+        Vote result = voteRepository.getByUserAndDate(email, today);
 
         assertThat(result).isNull();
     }
-}
\ No newline at end of file
+
+    @Test
+    void findDatesWithoutRollupBefore_Should_skip_rolled_up_and_later_dates() {
+        Restaurant restaurant = restaurantRepository.save(new Restaurant("Test Restaurant", "Test Address"));
+        User user = userRepository.save(new User("mail1@mail.com", "0000", Role.USER, Status.ACTIVE));
+        voteRepository.saveAll(List.of(
+                new Vote(restaurant, user, LocalDate.of(2020, 2, 1)),
+                new Vote(restaurant, user, LocalDate.of(2020, 2, 2)),
+                new Vote(restaurant, user, LocalDate.of(2020, 2, 3))));
+        voteTotalRepository.save(new VoteTotal(restaurant, LocalDate.of(2020, 2, 1), 1L));
+
+        List<LocalDate> dates = voteRepository.findDatesWithoutRollupBefore(LocalDate.of(2020, 2, 3));
+
+        assertThat(dates).contains(LocalDate.of(2020, 2, 2))
+                .doesNotContain(LocalDate.of(2020, 2, 1), LocalDate.of(2020, 2, 3));
+    }
+
+    @Test
+    void countAllNotRolledUpBetweenGroupByRestaurantAndDate_Should_count_only_days_without_rollup_in_range() {
+        Restaurant restaurant = restaurantRepository.save(new Restaurant("Test Restaurant", "Test Address"));
+        User user1 = new User("mail1@mail.com", "0000", Role.USER, Status.ACTIVE);
+        User user2 = new User("mail2@mail.com", "0000", Role.USER, Status.ACTIVE);
+        userRepository.saveAll(List.of(user1, user2));
+        voteRepository.saveAll(List.of(
+                new Vote(restaurant, user1, LocalDate.of(2020, 2, 1)),
+                new Vote(restaurant, user1, LocalDate.of(2020, 2, 2)),
+                new Vote(restaurant, user2, LocalDate.of(2020, 2, 2)),
+                new Vote(restaurant, user1, LocalDate.of(2020, 2, 3)),
+                new Vote(restaurant, user1, LocalDate.of(2020, 2, 4))));
+        voteTotalRepository.save(new VoteTotal(restaurant, LocalDate.of(2020, 2, 3), 1L));
+
+        List<VoteCountTO> counts = voteRepository.countAllNotRolledUpBetweenGroupByRestaurantAndDate(
+                LocalDate.of(2020, 2, 2), LocalDate.of(2020, 2, 3));
+
+        assertThat(counts).singleElement().satisfies(count -> {
+            assertThat(count.getRestaurantId()).isEqualTo(restaurant.getId());
+            assertThat(count.getDate()).isEqualTo(LocalDate.of(2020, 2, 2));
+            assertThat(count.getTotal()).isEqualTo(2L);
+        });
+    }
+
+    @Test
+    void findRolledUpIdsBefore_Should_return_at_most_page_size_ids_of_rolled_up_days_older_than_date() {
+        Restaurant restaurant = restaurantRepository.save(new Restaurant("Test Restaurant", "Test Address"));
+        User user = userRepository.save(new User("mail1@mail.com", "0000", Role.USER, Status.ACTIVE));
+        List<Vote> votes = voteRepository.saveAllAndFlush(List.of(
+                new Vote(restaurant, user, LocalDate.of(2020, 2, 1)),
+                new Vote(restaurant, user, LocalDate.of(2020, 2, 2)),
+                new Vote(restaurant, user, LocalDate.of(2020, 2, 3)),
+                new Vote(restaurant, user, LocalDate.of(2020, 2, 4))));
+        voteTotalRepository.saveAllAndFlush(List.of(
+                new VoteTotal(restaurant, LocalDate.of(2020, 2, 1), 1L),
+                new VoteTotal(restaurant, LocalDate.of(2020, 2, 2), 1L),
+                new VoteTotal(restaurant, LocalDate.of(2020, 2, 4), 1L)));
+
+        List<Long> firstPage = voteRepository.findRolledUpIdsBefore(LocalDate.of(2020, 2, 4), PageRequest.of(0, 1));
+        List<Long> all = voteRepository.findRolledUpIdsBefore(LocalDate.of(2020, 2, 4), PageRequest.of(0, 10));
+
+        assertThat(firstPage).containsExactly(votes.get(0).getId());
+        assertThat(all).containsExactly(votes.get(0).getId(), votes.get(1).getId());
+    }
+
+    @Test
+    void deleteAllByIdIn_Should_delete_only_given_votes() {
+        Restaurant restaurant = restaurantRepository.save(new Restaurant("Test Restaurant", "Test Address"));
+        User user = userRepository.save(new User("mail1@mail.com", "0000", Role.USER, Status.ACTIVE));
+        List<Vote> votes = voteRepository.saveAllAndFlush(List.of(
+                new Vote(restaurant, user, LocalDate.of(2020, 2, 1)),
+                new Vote(restaurant, user, LocalDate.of(2020, 2, 2))));
+
+        int deleted = voteRepository.deleteAllByIdIn(List.of(votes.get(0).getId()));
+
+        assertThat(deleted).isEqualTo(1);
+        assertThat(voteRepository.findAllByRestaurantAndDate(restaurant.getId(), LocalDate.of(2020, 2, 2))).isEqualTo(1L);
+    }
+}
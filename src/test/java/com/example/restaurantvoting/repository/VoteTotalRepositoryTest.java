@@ -0,0 +1,74 @@
+package com.example.restaurantvoting.repository;
+
+import com.example.restaurantvoting.model.Restaurant;
+import com.example.restaurantvoting.model.VoteTotal;
+import com.example.restaurantvoting.to.VoteCountTO;
+import com.example.restaurantvoting.to.VoteTotalTO;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+class VoteTotalRepositoryTest {
+
+    @Autowired
+    private RestaurantRepository restaurantRepository;
+    @Autowired
+    private VoteTotalRepository voteTotalRepository;
+
+    private final LocalDate date = LocalDate.of(2020, 2, 2);
+
+    @Test
+    void existsByDate_Should_report_only_rolled_up_dates() {
+        Restaurant restaurant = restaurantRepository.save(new Restaurant("Test Restaurant", "Test Address"));
+        voteTotalRepository.save(new VoteTotal(restaurant, date, 5L));
+
+        assertThat(voteTotalRepository.existsByDate(date)).isTrue();
+        assertThat(voteTotalRepository.existsByDate(date.plusDays(1))).isFalse();
+    }
+
+    @Test
+    void findTotalByRestaurantAndDate_Should_return_null_when_restaurant_not_rolled_up() {
+        Restaurant restaurant = restaurantRepository.save(new Restaurant("Test Restaurant", "Test Address"));
+        voteTotalRepository.save(new VoteTotal(restaurant, date, 5L));
+
+        assertThat(voteTotalRepository.findTotalByRestaurantAndDate(restaurant.getId(), date)).isEqualTo(5L);
+        assertThat(voteTotalRepository.findTotalByRestaurantAndDate(restaurant.getId(), date.plusDays(1))).isNull();
+    }
+
+    @Test
+    void getLeaderboardByDate_Should_include_restaurants_without_totals_sorted_by_total() {
+        Restaurant restaurant1 = new Restaurant("Test Restaurant 1", "Test Address");
+        Restaurant restaurant2 = new Restaurant("Test Restaurant 2", "Test Address");
+        restaurantRepository.saveAll(List.of(restaurant1, restaurant2));
+        voteTotalRepository.saveAll(List.of(
+                new VoteTotal(restaurant2, date, 3L),
+                new VoteTotal(restaurant1, date.plusDays(1), 7L)));
+
+        List<VoteTotalTO> leaderboard = voteTotalRepository.getLeaderboardByDate(date);
+
+        assertThat(leaderboard).filteredOn(total -> total.getRestaurantId().equals(restaurant2.getId()))
+                .extracting(VoteTotalTO::getTotal).containsExactly(3L);
+        assertThat(leaderboard).filteredOn(total -> total.getRestaurantId().equals(restaurant1.getId()))
+                .extracting(VoteTotalTO::getTotal).containsExactly(0L);
+        assertThat(leaderboard.get(0).getRestaurantId()).isEqualTo(restaurant2.getId());
+    }
+
+    @Test
+    void getAllBetween_Should_return_totals_only_within_range() {
+        Restaurant restaurant = restaurantRepository.save(new Restaurant("Test Restaurant", "Test Address"));
+        voteTotalRepository.saveAll(List.of(
+                new VoteTotal(restaurant, date.minusDays(1), 1L),
+                new VoteTotal(restaurant, date, 2L),
+                new VoteTotal(restaurant, date.plusDays(1), 3L)));
+
+        List<VoteCountTO> counts = voteTotalRepository.getAllBetween(date, date.plusDays(5));
+
+        assertThat(counts).extracting(VoteCountTO::getTotal).containsExactlyInAnyOrder(2L, 3L);
+    }
+}
@@ -0,0 +1,92 @@
+package com.example.restaurantvoting.security;
+
+import com.example.restaurantvoting.model.user.Role;
+import com.example.restaurantvoting.model.user.Status;
+import com.example.restaurantvoting.model.user.User;
+import com.example.restaurantvoting.service.UserChangedEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.authentication.AuthenticationProvider;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.then;
+import static org.mockito.Mockito.times;
+
+@ExtendWith(MockitoExtension.class)
+public class CachingAuthenticationProviderTest {
+
+    @Mock
+    private AuthenticationProvider delegate;
+    private CredentialCache credentialCache;
+    private CachingAuthenticationProvider provider;
+
+    private final SecurityUser securityUser =
+            new SecurityUser(new User("mail@mail.com", "hash", Role.USER, Status.ACTIVE));
+
+    @BeforeEach
+    void setUp() throws Exception {
+        credentialCache = new CredentialCache(Duration.ofMinutes(5), 100);
+        provider = new CachingAuthenticationProvider(delegate, credentialCache);
+    }
+
+    @Test
+    void authenticate_Should_skip_delegate_when_credentials_were_verified_before() {
+        givenDelegateAuthenticates();
+
+        provider.authenticate(token("password"));
+        Authentication result = provider.authenticate(token("password"));
+
+        assertThat(result.getPrincipal()).isSameAs(securityUser);
+        assertThat(result.isAuthenticated()).isTrue();
+        then(delegate).should(times(1)).authenticate(any());
+    }
+
+    @Test
+    void authenticate_Should_delegate_when_password_differs_from_cached_one() {
+        givenDelegateAuthenticates();
+
+        provider.authenticate(token("password"));
+        provider.authenticate(token("other"));
+
+        then(delegate).should(times(2)).authenticate(any());
+    }
+
+    @Test
+    void authenticate_Should_delegate_after_user_changed() {
+        givenDelegateAuthenticates();
+
+        provider.authenticate(token("password"));
+        credentialCache.onUserChanged(new UserChangedEvent(1L, "mail@mail.com"));
+        provider.authenticate(token("password"));
+
+        then(delegate).should(times(2)).authenticate(any());
+    }
+
+    @Test
+    void put_Should_not_cache_verification_started_before_invalidation() {
+        long epoch = credentialCache.getEpoch();
+        credentialCache.invalidate("mail@mail.com");
+
+        credentialCache.put("mail@mail.com", "password", securityUser, epoch);
+
+        assertThat(credentialCache.get("mail@mail.com", "password")).isNull();
+    }
+
+    private void givenDelegateAuthenticates() {
+        given(delegate.authenticate(any())).willReturn(
+                new UsernamePasswordAuthenticationToken(securityUser, null, securityUser.getAuthorities()));
+    }
+
+    private Authentication token(String password) {
+        return new UsernamePasswordAuthenticationToken("mail@mail.com", password);
+    }
+}
@@ -0,0 +1,27 @@
+package com.example.restaurantvoting.security;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class MigratingBCryptPasswordEncoderTest {
+
+    private final MigratingBCryptPasswordEncoder encoder = new MigratingBCryptPasswordEncoder(5);
+
+    @Test
+    void upgradeEncoding_Should_be_false_for_hash_with_configured_cost() {
+        assertThat(encoder.upgradeEncoding(encoder.encode("password"))).isFalse();
+    }
+
+    @Test
+    void upgradeEncoding_Should_be_true_for_hash_with_lower_or_higher_cost() {
+        assertThat(encoder.upgradeEncoding(new BCryptPasswordEncoder(4).encode("password"))).isTrue();
+        assertThat(encoder.upgradeEncoding(new BCryptPasswordEncoder(6).encode("password"))).isTrue();
+    }
+
+    @Test
+    void matches_Should_accept_hash_with_other_cost() {
+        assertThat(encoder.matches("password", new BCryptPasswordEncoder(4).encode("password"))).isTrue();
+    }
+}
@@ -0,0 +1,126 @@
+package com.example.restaurantvoting.security;
+
+import com.example.restaurantvoting.model.user.Role;
+import com.example.restaurantvoting.model.user.Status;
+import com.example.restaurantvoting.model.user.User;
+import com.example.restaurantvoting.service.UserChangedEvent;
+import com.example.restaurantvoting.service.UsersChangedEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class TokenServiceTest {
+
+    private final String secret = Base64.getEncoder().encodeToString(new byte[32]);
+    private final Instant now = Instant.parse("2021-01-01T08:00:00Z");
+    private final User user = new User("mail|1@mail.com", "hash", Role.USER, Status.ACTIVE);
+    private final Map<String, User> users = new HashMap<>();
+    private final UserDetailsService userDetailsService = email -> {
+        User found = users.get(email);
+        if (found == null) {
+            throw new UsernameNotFoundException(email);
+        }
+        return new SecurityUser(found);
+    };
+
+    private TokenService tokenService;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        user.setId(7L);
+        users.put(user.getEmail(), user);
+        tokenService = new TokenService(secret, Duration.ofMinutes(15), Clock.fixed(now, ZoneOffset.UTC), userDetailsService);
+    }
+
+    @Test
+    void verify_Should_restore_user_from_issued_token() {
+        SecurityUser result = tokenService.verify(tokenService.issue(user));
+
+        assertThat(result).isNotNull();
+        assertThat(result.getUser().getId()).isEqualTo(7L);
+        assertThat(result.getUser().getEmail()).isEqualTo("mail|1@mail.com");
+        assertThat(result.getUser().getRole()).isEqualTo(Role.USER);
+    }
+
+    @Test
+    void verify_Should_reject_tampered_token() {
+        String token = tokenService.issue(user);
+        String forged = Base64.getUrlEncoder().withoutPadding()
+                .encodeToString("7|ADMIN|1609488000000|1609488900000|mail|1@mail.com".getBytes())
+                + token.substring(token.indexOf('.'));
+
+        assertThat(tokenService.verify(forged)).isNull();
+        assertThat(tokenService.verify("garbage")).isNull();
+        assertThat(tokenService.verify("a.b")).isNull();
+    }
+
+    @Test
+    void verify_Should_reject_token_signed_with_other_key() throws Exception {
+        String token = new TokenService(Base64.getEncoder().encodeToString(new byte[]{1, 2, 3, 4}),
+                Duration.ofMinutes(15), Clock.fixed(now, ZoneOffset.UTC), userDetailsService).issue(user);
+
+        assertThat(tokenService.verify(token)).isNull();
+    }
+
+    @Test
+    void verify_Should_reject_expired_token() throws Exception {
+        String token = tokenService.issue(user);
+        TokenService later = new TokenService(secret, Duration.ofMinutes(15),
+                Clock.fixed(now.plus(Duration.ofMinutes(15)), ZoneOffset.UTC), userDetailsService);
+
+        assertThat(later.verify(token)).isNull();
+    }
+
+    @Test
+    void verify_Should_reject_tokens_issued_before_user_changed() {
+        String token = tokenService.issue(user);
+
+        tokenService.onUserChanged(new UserChangedEvent(7L, user.getEmail()));
+
+        assertThat(tokenService.verify(token)).isNull();
+    }
+
+    @Test
+    void verify_Should_reject_tokens_of_every_user_in_bulk_change() {
+        String token = tokenService.issue(user);
+
+        tokenService.onUsersChanged(new UsersChangedEvent(Map.of(7L, user.getEmail(), 8L, "other@mail.com")));
+
+        assertThat(tokenService.verify(token)).isNull();
+    }
+
+    @Test
+    void verify_Should_reject_token_of_user_banned_without_revocation() {
+        String token = tokenService.issue(user);
+
+        User banned = new User(user.getEmail(), user.getPassword(), Role.USER, Status.BANNED);
+        banned.setId(7L);
+        users.put(user.getEmail(), banned);
+
+        assertThat(tokenService.verify(token)).isNull();
+    }
+
+    @Test
+    void verify_Should_reject_token_of_deleted_or_recreated_user() {
+        String token = tokenService.issue(user);
+
+        User recreated = new User(user.getEmail(), user.getPassword(), Role.USER, Status.ACTIVE);
+        recreated.setId(8L);
+        users.put(user.getEmail(), recreated);
+        assertThat(tokenService.verify(token)).isNull();
+
+        users.clear();
+        assertThat(tokenService.verify(token)).isNull();
+    }
+}
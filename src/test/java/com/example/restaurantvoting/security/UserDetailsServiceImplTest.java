@@ -0,0 +1,101 @@
+package com.example.restaurantvoting.security;
+
+import com.example.restaurantvoting.model.user.Role;
+import com.example.restaurantvoting.model.user.Status;
+import com.example.restaurantvoting.model.user.User;
+import com.example.restaurantvoting.repository.UserRepository;
+import com.example.restaurantvoting.service.UserChangedEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+
+import java.time.Duration;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.then;
+import static org.mockito.Mockito.times;
+
+@ExtendWith(MockitoExtension.class)
+public class UserDetailsServiceImplTest {
+
+    @Mock
+    private UserRepository userRepository;
+    private UserDetailsServiceImpl userDetailsService;
+
+    private final User user = new User("mail@mail.com", "hash", Role.USER, Status.ACTIVE);
+
+    @BeforeEach
+    void setUp() {
+        userDetailsService = new UserDetailsServiceImpl(userRepository, Duration.ofMinutes(10), 100);
+    }
+
+    @Test
+    void loadUserByUsername_Should_query_repository_once_per_normalized_email() {
+        given(userRepository.findByEmail("mail@mail.com")).willReturn(Optional.of(user));
+
+        UserDetails first = userDetailsService.loadUserByUsername("mail@mail.com");
+        UserDetails second = userDetailsService.loadUserByUsername(" MAIL@mail.com ");
+
+        assertThat(first.getUsername()).isEqualTo("mail@mail.com");
+        assertThat(second.getUsername()).isEqualTo("mail@mail.com");
+        then(userRepository).should(times(1)).findByEmail(anyString());
+        assertThat(userDetailsService.getStats().hitCount()).isEqualTo(1);
+        assertThat(userDetailsService.getStats().missCount()).isEqualTo(1);
+    }
+
+    @Test
+    void loadUserByUsername_Should_reload_user_after_user_changed() {
+        given(userRepository.findByEmail("mail@mail.com")).willReturn(Optional.of(user));
+
+        userDetailsService.loadUserByUsername("mail@mail.com");
+        userDetailsService.onUserChanged(new UserChangedEvent(1L, "mail@mail.com"));
+        userDetailsService.loadUserByUsername("mail@mail.com");
+
+        then(userRepository).should(times(2)).findByEmail("mail@mail.com");
+    }
+
+    @Test
+    void loadUserByUsername_Should_not_cache_user_read_before_concurrent_change() {
+        given(userRepository.findByEmail("mail@mail.com")).willAnswer(invocation -> {
+            userDetailsService.onUserChanged(new UserChangedEvent(1L, "mail@mail.com"));
+            return Optional.of(user);
+        });
+
+        userDetailsService.loadUserByUsername("mail@mail.com");
+
+        assertThat(userDetailsService.getSize()).isZero();
+    }
+
+    @Test
+    void updatePassword_Should_store_new_hash_and_reload_user_without_revoking_it() {
+        User cached = new User("mail@mail.com", "hash", Role.USER, Status.ACTIVE);
+        given(userRepository.findByEmail("mail@mail.com")).willReturn(Optional.of(cached));
+
+        UserDetails userDetails = userDetailsService.loadUserByUsername("mail@mail.com");
+        UserDetails updated = userDetailsService.updatePassword(userDetails, "new-hash");
+        userDetailsService.loadUserByUsername("mail@mail.com");
+
+        assertThat(updated.getPassword()).isEqualTo("new-hash");
+        assertThat(userDetails.getPassword()).isEqualTo("hash");
+        assertThat(cached.getPassword()).isEqualTo("hash");
+        then(userRepository).should().updatePassword("mail@mail.com", "new-hash");
+        then(userRepository).should(times(2)).findByEmail("mail@mail.com");
+    }
+
+    @Test
+    void loadUserByUsername_Should_throw_UsernameNotFoundException_and_not_cache_when_user_not_found() {
+        given(userRepository.findByEmail(anyString())).willReturn(Optional.empty());
+
+        assertThatExceptionOfType(UsernameNotFoundException.class)
+                .isThrownBy(() -> userDetailsService.loadUserByUsername("mail@mail.com"));
+        assertThat(userDetailsService.getSize()).isZero();
+    }
+}
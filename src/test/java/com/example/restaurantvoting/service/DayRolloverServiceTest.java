@@ -0,0 +1,92 @@
+package com.example.restaurantvoting.service;
+
+import com.example.restaurantvoting.exception.EntityNotFoundException;
+import com.example.restaurantvoting.model.Restaurant;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.then;
+import static org.mockito.BDDMockito.willAnswer;
+
+@ExtendWith(MockitoExtension.class)
+public class DayRolloverServiceTest {
+
+    private static final LocalDate DATE = LocalDate.of(2021, 1, 2);
+
+    @Mock
+    private RestaurantService restaurantService;
+    @Mock
+    private DishService dishService;
+    @Mock
+    private MenuSnapshot menuSnapshot;
+    @Mock
+    private VoteTally voteTally;
+    private DayRolloverService dayRolloverService;
+
+    @BeforeEach
+    void setUp() {
+        dayRolloverService = new DayRolloverService(restaurantService, dishService, menuSnapshot, voteTally);
+    }
+
+    @Test
+    void prepare_Should_warm_up_every_structure_of_date_and_record_timings() {
+        given(restaurantService.getAll()).willReturn(List.of(restaurant(1L), restaurant(2L)));
+        willAnswer(invocation -> {
+            if (invocation.getArgument(0).equals(2L)) {
+                throw new EntityNotFoundException(HttpStatus.NOT_FOUND, "No Dishes");
+            }
+            return List.of();
+        }).given(dishService).getAllByDate(anyLong(), eq(DATE));
+
+        dayRolloverService.prepare(DATE);
+
+        then(dishService).should().getAllByDate(1L, DATE);
+        then(dishService).should().getAllByDate(2L, DATE);
+        then(menuSnapshot).should().prepare(DATE);
+        then(voteTally).should().prepare(DATE, List.of(1L, 2L));
+        assertThat(dayRolloverService.getStats().getPreparedDate()).isEqualTo(DATE);
+        assertThat(dayRolloverService.getStats().getWarmUpMillis())
+                .containsOnlyKeys("restaurants", "menus", "snapshot", "tally");
+    }
+
+    @Test
+    void prepare_Should_tolerate_missing_restaurants() {
+        given(restaurantService.getAll()).willThrow(new EntityNotFoundException(HttpStatus.NOT_FOUND, "No Restaurants"));
+
+        dayRolloverService.prepare(DATE);
+
+        then(dishService).shouldHaveNoInteractions();
+        then(voteTally).should().prepare(DATE, List.of());
+    }
+
+    @Test
+    void switchTo_Should_swap_in_prepared_structures_and_keep_warm_up_stats() {
+        given(restaurantService.getAll()).willReturn(List.of());
+        dayRolloverService.prepare(DATE);
+
+        dayRolloverService.switchTo(DATE);
+
+        then(menuSnapshot).should().switchTo(DATE);
+        then(voteTally).should().rollover(DATE);
+        assertThat(dayRolloverService.getStats().getSwitchedDate()).isEqualTo(DATE);
+        assertThat(dayRolloverService.getStats().getSwitchMillis()).isNotNull();
+        assertThat(dayRolloverService.getStats().getPreparedDate()).isEqualTo(DATE);
+    }
+
+    private static Restaurant restaurant(Long id) {
+        Restaurant restaurant = new Restaurant("Test Restaurant " + id, "Test address");
+        restaurant.setId(id);
+        return restaurant;
+    }
+}
@@ -0,0 +1,155 @@
+package com.example.restaurantvoting.service;
+
+import com.example.restaurantvoting.model.Dish;
+import com.example.restaurantvoting.model.Restaurant;
+import com.example.restaurantvoting.repository.DishRepository;
+import com.example.restaurantvoting.repository.RestaurantRepository;
+import com.example.restaurantvoting.to.DishInputTO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+import org.springframework.validation.beanvalidation.LocalValidatorFactoryBean;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.then;
+import static org.mockito.Mockito.times;
+
+@SpringJUnitConfig(DishServiceCacheTest.Config.class)
+public class DishServiceCacheTest {
+
+    private static final LocalDate DATE = LocalDate.of(2021, 1, 1);
+
+    // Not a @Configuration, so that component scanning of an application started from the test classpath
+    // (the benchmarks) does not pick it up next to the real CacheConfig
+    @EnableCaching
+    @Import(DishService.class)
+    static class Config {
+
+        @Bean
+        CacheManager cacheManager() {
+            return new ConcurrentMapCacheManager();
+        }
+
+        @Bean
+        LocalValidatorFactoryBean validator() {
+            return new LocalValidatorFactoryBean();
+        }
+    }
+
+    @Autowired
+    private DishService dishService;
+    @Autowired
+    private CacheManager cacheManager;
+    @MockBean
+    private DishRepository dishRepository;
+    @MockBean
+    private RestaurantRepository restaurantRepository;
+
+    private final Restaurant first = restaurant(1L);
+    private final Restaurant second = restaurant(2L);
+
+    @BeforeEach
+    void setUp() {
+        cacheManager.getCache("menu").clear();
+        given(restaurantRepository.existsById(anyLong())).willReturn(true);
+        given(dishRepository.getAllByRestaurantAndDate(1L, DATE)).willReturn(List.of(dish(10L, first)));
+        given(dishRepository.getAllByRestaurantAndDate(2L, DATE)).willReturn(List.of(dish(20L, second)));
+        given(dishRepository.getByRestaurantAndId(2L, 20L)).willReturn(dish(20L, second));
+    }
+
+    @Test
+    void update_Should_evict_only_menu_and_dish_of_updated_dish() {
+        given(dishRepository.findById(10L)).willReturn(Optional.of(dish(10L, first)));
+        warmUp();
+
+        dishService.update(1L, new DishInputTO("new name", 150), 10L);
+        warmUp();
+
+        then(dishRepository).should(times(2)).getAllByRestaurantAndDate(1L, DATE);
+        then(dishRepository).should(times(1)).getAllByRestaurantAndDate(2L, DATE);
+        then(dishRepository).should(times(1)).getByRestaurantAndId(2L, 20L);
+    }
+
+    @Test
+    void deleteById_Should_evict_only_menu_and_dish_of_deleted_dish() {
+        warmUp();
+
+        given(dishRepository.removeByRestaurantAndId(2L, 20L)).willReturn(1);
+        dishService.deleteById(2L, 20L);
+        warmUp();
+
+        then(dishRepository).should(times(1)).getAllByRestaurantAndDate(1L, DATE);
+        then(dishRepository).should(times(2)).getAllByRestaurantAndDate(2L, DATE);
+    }
+
+    @Test
+    void publish_Should_evict_only_menu_of_published_date() {
+        LocalDate today = LocalDate.now(ZoneId.of("Europe/Moscow"));
+        given(restaurantRepository.findById(1L)).willReturn(Optional.of(first));
+        given(dishRepository.saveAllAndFlush(anyList())).willAnswer(invocation -> invocation.getArgument(0));
+        cacheManager.getCache("menu").put(DishService.menuKey(1L, today), List.of());
+        warmUp();
+
+        dishService.publish(1L, List.of(new DishInputTO("new name", 150)), null, false);
+        warmUp();
+
+        assertThat(cacheManager.getCache("menu").get(DishService.menuKey(1L, today))).isNull();
+        then(dishRepository).should(times(1)).getAllByRestaurantAndDate(1L, DATE);
+        then(dishRepository).should(times(1)).getByRestaurantAndId(2L, 20L);
+    }
+
+    @Test
+    void publish_Should_evict_menu_and_replaced_dishes_only_when_replacing() {
+        LocalDate today = LocalDate.now(ZoneId.of("Europe/Moscow"));
+        given(restaurantRepository.findById(1L)).willReturn(Optional.of(first));
+        given(dishRepository.getAllByRestaurantAndDate(1L, today)).willReturn(List.of(dish(10L, first)));
+        given(dishRepository.getByRestaurantAndId(1L, 10L)).willReturn(dish(10L, first));
+        given(dishRepository.saveAllAndFlush(anyList())).willAnswer(invocation -> invocation.getArgument(0));
+        cacheManager.getCache("menu").put(DishService.menuKey(1L, today), List.of());
+        warmUp();
+        dishService.getById(1L, 10L);
+
+        dishService.publish(1L, List.of(new DishInputTO("new name", 150)), null, true);
+        warmUp();
+        dishService.getById(1L, 10L);
+
+        assertThat(cacheManager.getCache("menu").get(DishService.menuKey(1L, today))).isNull();
+        then(dishRepository).should(times(2)).getByRestaurantAndId(1L, 10L);
+        then(dishRepository).should(times(1)).getAllByRestaurantAndDate(1L, DATE);
+        then(dishRepository).should(times(1)).getAllByRestaurantAndDate(2L, DATE);
+        then(dishRepository).should(times(1)).getByRestaurantAndId(2L, 20L);
+    }
+
+    private void warmUp() {
+        dishService.getAllByDate(1L, DATE);
+        dishService.getAllByDate(2L, DATE);
+        dishService.getById(2L, 20L);
+    }
+
+    private static Restaurant restaurant(Long id) {
+        Restaurant restaurant = new Restaurant("name", "address");
+        restaurant.setId(id);
+        return restaurant;
+    }
+
+    private static Dish dish(Long id, Restaurant restaurant) {
+        Dish dish = new Dish("name", 100, restaurant, DATE);
+        dish.setId(id);
+        return dish;
+    }
+}
@@ -8,15 +8,21 @@ import com.example.restaurantvoting.repository.DishRepository;
 import com.example.restaurantvoting.repository.RestaurantRepository;
 import com.example.restaurantvoting.to.DishInputTO;
 import com.example.restaurantvoting.to.DishOutputTO;
+import com.example.restaurantvoting.to.MenuCloneResultTO;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.context.ApplicationEventPublisher;
 
+import javax.validation.Validation;
 import java.time.LocalDate;
+import java.time.ZoneId;
 import java.util.Collections;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
 
@@ -24,6 +30,7 @@ import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 
 @ExtendWith(MockitoExtension.class)
@@ -33,28 +40,33 @@ public class DishServiceTest {
     private DishRepository dishRepository;
     @Mock
     private RestaurantRepository restaurantRepository;
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
     private DishService dishService;
 
+    private final LocalDate today = LocalDate.now(ZoneId.of("Europe/Moscow"));
+
     @BeforeEach
     void setUp() {
-        dishService = new DishService(dishRepository, restaurantRepository);
+        dishService = new DishService(dishRepository, restaurantRepository, eventPublisher,
+                Validation.buildDefaultValidatorFactory().getValidator(), new ConcurrentMapCacheManager());
     }
 
     @Test
     void getAllByDate_Should_find_all_dishes_and_correctly_transform_them() {
-        DishOutputTO expected1 = new DishOutputTO(20L, "Test Dish 1", 100, 1L, LocalDate.now());
-        DishOutputTO expected2 = new DishOutputTO(21L, "Test Dish 2", 200, 1L, LocalDate.now());
+        DishOutputTO expected1 = new DishOutputTO(20L, "Test Dish 1", 100, 1L, today);
+        DishOutputTO expected2 = new DishOutputTO(21L, "Test Dish 2", 200, 1L, today);
         Restaurant r = new Restaurant("Test Restaurant", "Test address");
         r.setId(1L);
-        Dish d1 = new Dish("Test Dish 1", 100, r, LocalDate.now());
+        Dish d1 = new Dish("Test Dish 1", 100, r, today);
         d1.setId(20L);
-        Dish d2 = new Dish("Test Dish 2", 200, r, LocalDate.now());
+        Dish d2 = new Dish("Test Dish 2", 200, r, today);
         d2.setId(21L);
 
         given(restaurantRepository.existsById(anyLong())).willReturn(true);
         given(dishRepository.getAllByRestaurantAndDate(anyLong(), any(LocalDate.class))).willReturn(List.of(d1, d2));
 
-        List<DishOutputTO> result = dishService.getAllByDate(1L, LocalDate.now());
+        List<DishOutputTO> result = dishService.getAllByDate(1L, today);
 
         assertThat(result).usingRecursiveFieldByFieldElementComparator().containsExactlyInAnyOrder(expected1, expected2);
     }
@@ -63,9 +75,9 @@ public class DishServiceTest {
     void getAllByDate_Should_use_current_date_when_date_not_provided() {
         Restaurant r = new Restaurant("Test Restaurant", "Test address");
         r.setId(1L);
-        Dish d1 = new Dish("Test Dish 1", 100, r, LocalDate.now());
+        Dish d1 = new Dish("Test Dish 1", 100, r, today);
         d1.setId(20L);
-        Dish d2 = new Dish("Test Dish 2", 200, r, LocalDate.now());
+        Dish d2 = new Dish("Test Dish 2", 200, r, today);
         d2.setId(21L);
 
         given(restaurantRepository.existsById(anyLong())).willReturn(true);
@@ -75,7 +87,7 @@ public class DishServiceTest {
         dishService.getAllByDate(1L, null);
 
         verify(dishRepository).getAllByRestaurantAndDate(anyLong(), captor.capture());
-        assertThat(captor.getValue()).isEqualTo(LocalDate.now());
+        assertThat(captor.getValue()).isEqualTo(today);
     }
 
     @Test
@@ -83,7 +95,7 @@ public class DishServiceTest {
         given(restaurantRepository.existsById(anyLong())).willReturn(false);
 
         assertThatExceptionOfType(EntityNotFoundException.class)
-                .isThrownBy(() -> dishService.getAllByDate(1L, LocalDate.now()));
+                .isThrownBy(() -> dishService.getAllByDate(1L, today));
     }
 
     @Test
@@ -92,15 +104,15 @@ public class DishServiceTest {
         given(dishRepository.getAllByRestaurantAndDate(anyLong(), any(LocalDate.class))).willReturn(Collections.emptyList());
 
         assertThatExceptionOfType(EntityNotFoundException.class)
-                .isThrownBy(() -> dishService.getAllByDate(1L, LocalDate.now()));
+                .isThrownBy(() -> dishService.getAllByDate(1L, today));
     }
 
     @Test
     void getById_Should_find_dish_and_correctly_transform_it() {
-        DishOutputTO expected = new DishOutputTO(20L, "Test Dish", 100, 1L, LocalDate.now());
+        DishOutputTO expected = new DishOutputTO(20L, "Test Dish", 100, 1L, today);
         Restaurant r = new Restaurant("Test Restaurant", "Test address");
         r.setId(1L);
-        Dish d = new Dish("Test Dish", 100, r, LocalDate.now());
+        Dish d = new Dish("Test Dish", 100, r, today);
         d.setId(20L);
 
         given(restaurantRepository.existsById(anyLong())).willReturn(true);
@@ -130,10 +142,10 @@ public class DishServiceTest {
 
     @Test
     void create_Should_correctly_transform_input_before_saving() {
-        DishOutputTO expected = new DishOutputTO(20L, "Test Dish", 100, 1L, LocalDate.now());
+        DishOutputTO expected = new DishOutputTO(20L, "Test Dish", 100, 1L, today);
         Restaurant r = new Restaurant("Test Restaurant", "Test Address");
         r.setId(1L);
-        Dish d = new Dish("Test Dish", 100, r, LocalDate.now());
+        Dish d = new Dish("Test Dish", 100, r, today);
         d.setId(20L);
         DishInputTO input = new DishInputTO("Test Dish", 100);
 
@@ -145,6 +157,21 @@ public class DishServiceTest {
         assertThat(result).usingRecursiveComparison().isEqualTo(expected);
     }
 
+    @Test
+    void create_Should_publish_change_of_menu_for_dish_date() {
+        Restaurant r = new Restaurant("Test Restaurant", "Test Address");
+        r.setId(1L);
+        Dish d = new Dish("Test Dish", 100, r, today);
+        d.setId(20L);
+
+        given(restaurantRepository.findById(anyLong())).willReturn(Optional.of(r));
+        given(dishRepository.save(any(Dish.class))).willReturn(d);
+
+        dishService.create(1L, new DishInputTO("Test Dish", 100));
+
+        verify(eventPublisher).publishEvent(new MenuChangedEvent(1L, d.getDate()));
+    }
+
     @Test
     void create_Should_throw_EntityNotFoundException_when_restaurant_not_found() {
         given(restaurantRepository.findById(anyLong())).willReturn(Optional.empty());
@@ -153,12 +180,147 @@ public class DishServiceTest {
                 .isThrownBy(() -> dishService.create(1L, new DishInputTO()));
     }
 
+    @Test
+    void publish_Should_save_whole_menu_for_date_and_publish_one_change() {
+        Restaurant r = new Restaurant("Test Restaurant", "Test Address");
+        r.setId(1L);
+        LocalDate date = today.plusDays(1);
+
+        given(restaurantRepository.findById(1L)).willReturn(Optional.of(r));
+        given(dishRepository.getAllByRestaurantAndDate(1L, date)).willReturn(List.of());
+        given(dishRepository.saveAllAndFlush(anyList())).willAnswer(invocation -> invocation.getArgument(0));
+
+        List<DishOutputTO> result = dishService.publish(1L,
+                List.of(new DishInputTO("Test Dish 1", 100), new DishInputTO("Test Dish 2", 200)), date, false);
+
+        assertThat(result).extracting(DishOutputTO::getName).containsExactly("Test Dish 1", "Test Dish 2");
+        assertThat(result).extracting(DishOutputTO::getDate).containsOnly(date);
+        verify(eventPublisher).publishEvent(new MenuChangedEvent(1L, date));
+        verify(dishRepository, never()).removeAllByRestaurantAndDate(anyLong(), any(LocalDate.class));
+    }
+
+    @Test
+    void publish_Should_remove_existing_menu_when_replacing() {
+        Restaurant r = new Restaurant("Test Restaurant", "Test Address");
+        r.setId(1L);
+
+        given(restaurantRepository.findById(1L)).willReturn(Optional.of(r));
+        given(dishRepository.saveAllAndFlush(anyList())).willAnswer(invocation -> invocation.getArgument(0));
+
+        dishService.publish(1L, List.of(new DishInputTO("Test Dish", 100)), null, true);
+
+        verify(dishRepository).removeAllByRestaurantAndDate(1L, today);
+    }
+
+    @Test
+    void publish_Should_throw_EntityValidationException_when_dish_already_in_menu() {
+        Restaurant r = new Restaurant("Test Restaurant", "Test Address");
+        r.setId(1L);
+        Dish d = new Dish("Test Dish", 100, r, today);
+
+        given(restaurantRepository.findById(1L)).willReturn(Optional.of(r));
+        given(dishRepository.getAllByRestaurantAndDate(1L, today)).willReturn(List.of(d));
+
+        assertThatExceptionOfType(EntityValidationException.class)
+                .isThrownBy(() -> dishService.publish(1L, List.of(new DishInputTO("Test Dish", 100)), today, false))
+                .withMessageContaining("Test Dish");
+        verify(dishRepository, never()).saveAllAndFlush(anyList());
+    }
+
+    @Test
+    void publish_Should_throw_EntityValidationException_when_names_repeat_or_dish_invalid() {
+        assertThatExceptionOfType(EntityValidationException.class)
+                .isThrownBy(() -> dishService.publish(1L,
+                        List.of(new DishInputTO("Test Dish", 100), new DishInputTO("Test Dish", 200)), today, false))
+                .withMessageContaining("Dish #2");
+        assertThatExceptionOfType(EntityValidationException.class)
+                .isThrownBy(() -> dishService.publish(1L, List.of(new DishInputTO("", -1)), today, false))
+                .withMessageContaining("Dish #1");
+        assertThatExceptionOfType(EntityValidationException.class)
+                .isThrownBy(() -> dishService.publish(1L, List.of(), today, false));
+        verify(restaurantRepository, never()).findById(anyLong());
+    }
+
+    @Test
+    void publish_Should_throw_EntityValidationException_when_dish_is_null() {
+        assertThatExceptionOfType(EntityValidationException.class)
+                .isThrownBy(() -> dishService.publish(1L,
+                        Arrays.asList(new DishInputTO("Test Dish", 100), null), today, false))
+                .withMessageContaining("Dish #2");
+        verify(restaurantRepository, never()).findById(anyLong());
+    }
+
+    @Test
+    void publish_Should_throw_EntityValidationException_when_date_passed() {
+        assertThatExceptionOfType(EntityValidationException.class)
+                .isThrownBy(() -> dishService.publish(1L, List.of(new DishInputTO("Test Dish", 100)), today.minusDays(1), false));
+    }
+
+    @Test
+    void cloneMenu_Should_copy_menu_and_report_skipped_dishes() {
+        LocalDate from = today.minusDays(1);
+
+        given(restaurantRepository.existsById(1L)).willReturn(true);
+        given(dishRepository.countByRestaurantAndDate(1L, from)).willReturn(3L);
+        given(dishRepository.copyMenu(1L, from, today)).willReturn(2);
+
+        MenuCloneResultTO result = dishService.cloneMenu(1L, from, null);
+
+        assertThat(result).usingRecursiveComparison()
+                .isEqualTo(new MenuCloneResultTO(1L, from, today, 3L, 2L, 1L));
+        verify(eventPublisher).publishEvent(new MenuChangedEvent(1L, today));
+    }
+
+    @Test
+    void cloneMenu_Should_copy_menus_of_all_restaurants_and_publish_one_change() {
+        LocalDate from = today.minusDays(1);
+
+        given(dishRepository.countByDate(from)).willReturn(5L);
+        given(dishRepository.copyAllMenus(from, today)).willReturn(5);
+
+        MenuCloneResultTO result = dishService.cloneMenu(null, from, today);
+
+        assertThat(result.getCopied()).isEqualTo(5L);
+        assertThat(result.getSkipped()).isZero();
+        verify(eventPublisher).publishEvent(new MenuChangedEvent(null, today));
+        verify(restaurantRepository, never()).existsById(anyLong());
+    }
+
+    @Test
+    void cloneMenu_Should_not_publish_change_when_nothing_copied() {
+        LocalDate from = today.minusDays(1);
+
+        given(restaurantRepository.existsById(1L)).willReturn(true);
+        given(dishRepository.countByRestaurantAndDate(1L, from)).willReturn(0L);
+
+        dishService.cloneMenu(1L, from, today);
+
+        verify(eventPublisher, never()).publishEvent(any());
+    }
+
+    @Test
+    void cloneMenu_Should_throw_EntityValidationException_when_target_date_passed_or_same() {
+        assertThatExceptionOfType(EntityValidationException.class)
+                .isThrownBy(() -> dishService.cloneMenu(1L, today.minusDays(2), today.minusDays(1)));
+        assertThatExceptionOfType(EntityValidationException.class)
+                .isThrownBy(() -> dishService.cloneMenu(1L, today, today));
+        verify(dishRepository, never()).copyMenu(anyLong(), any(LocalDate.class), any(LocalDate.class));
+    }
+
+    @Test
+    void cloneMenu_Should_throw_EntityNotFoundException_when_restaurant_not_found() {
+        given(restaurantRepository.existsById(1L)).willReturn(false);
+
+        assertThatExceptionOfType(EntityNotFoundException.class)
+                .isThrownBy(() -> dishService.cloneMenu(1L, today.minusDays(1), today));
+    }
+
     @Test
     void update_Should_find_dish_and_update_it_then_return_updated_dish() {
-        DishOutputTO expected = new DishOutputTO(20L, "Test Dish - updated", 200, 1L, LocalDate.now());
+        DishOutputTO expected = new DishOutputTO(20L, "Test Dish - updated", 200, 1L, today);
         Restaurant r = new Restaurant("Test Restaurant", "Test Address");
         r.setId(1L);
-        Dish d = new Dish("Test Dish", 100, r, LocalDate.now());
+        Dish d = new Dish("Test Dish", 100, r, today);
         d.setId(20L);
         DishInputTO input = new DishInputTO("Test Dish - updated", 200);
 
@@ -191,7 +353,7 @@ public class DishServiceTest {
     void update_Should_throw_EntityValidationException_when_dish_does_not_belong_to_restaurant() {
         Restaurant r = new Restaurant("Test Restaurant", "Test Address");
         r.setId(6L);
-        Dish d = new Dish("Test Dish", 100, r, LocalDate.now());
+        Dish d = new Dish("Test Dish", 100, r, today);
         d.setId(20L);
 
         given(restaurantRepository.existsById(anyLong())).willReturn(true);
@@ -207,6 +369,7 @@ public class DishServiceTest {
         Long dishId = 20L;
 
         given(restaurantRepository.existsById(anyLong())).willReturn(true);
+        given(dishRepository.getByRestaurantAndId(anyLong(), anyLong())).willReturn(dish(dishId));
         given(dishRepository.removeByRestaurantAndId(anyLong(), anyLong())).willReturn(1);
         ArgumentCaptor<Long> firstCaptor = ArgumentCaptor.forClass(Long.class);
         ArgumentCaptor<Long> secondCaptor = ArgumentCaptor.forClass(Long.class);
@@ -229,9 +392,27 @@ public class DishServiceTest {
     @Test
     void deleteById_Should_throw_EntityNotFoundException_when_dish_not_found() {
         given(restaurantRepository.existsById(anyLong())).willReturn(true);
+        given(dishRepository.getByRestaurantAndId(anyLong(), anyLong())).willReturn(null);
+
+        assertThatExceptionOfType(EntityNotFoundException.class)
+                .isThrownBy(() -> dishService.deleteById(1L, 20L));
+    }
+
+    @Test
+    void deleteById_Should_throw_EntityNotFoundException_when_dish_removed_concurrently() {
+        given(restaurantRepository.existsById(anyLong())).willReturn(true);
+        given(dishRepository.getByRestaurantAndId(anyLong(), anyLong())).willReturn(dish(20L));
         given(dishRepository.removeByRestaurantAndId(anyLong(), anyLong())).willReturn(0);
 
         assertThatExceptionOfType(EntityNotFoundException.class)
                 .isThrownBy(() -> dishService.deleteById(1L, 20L));
     }
+
+    private static Dish dish(Long dishId) {
+        Restaurant restaurant = new Restaurant("name", "address");
+        restaurant.setId(1L);
+        Dish dish = new Dish("name", 100, restaurant, LocalDate.of(2021, 1, 1));
+        dish.setId(dishId);
+        return dish;
+    }
 }
\ No newline at end of file
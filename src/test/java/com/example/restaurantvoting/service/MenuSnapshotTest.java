@@ -0,0 +1,182 @@
+package com.example.restaurantvoting.service;
+
+import com.example.restaurantvoting.exception.EntityNotFoundException;
+import com.example.restaurantvoting.model.Dish;
+import com.example.restaurantvoting.model.Restaurant;
+import com.example.restaurantvoting.repository.DishRepository;
+import com.example.restaurantvoting.repository.RestaurantRepository;
+import com.example.restaurantvoting.to.RestaurantMenuTO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.then;
+import static org.mockito.Mockito.times;
+
+@ExtendWith(MockitoExtension.class)
+public class MenuSnapshotTest {
+
+    @Mock
+    private RestaurantRepository restaurantRepository;
+    @Mock
+    private DishRepository dishRepository;
+    private MenuSnapshot menuSnapshot;
+
+    private final LocalDate today = LocalDate.now(ZoneId.of("Europe/Moscow"));
+    private final Restaurant first = restaurant(1L, "First");
+    private final Restaurant second = restaurant(2L, "Second");
+
+    @BeforeEach
+    void setUp() {
+        menuSnapshot = new MenuSnapshot(restaurantRepository, dishRepository);
+    }
+
+    @Test
+    void getMenus_Should_group_today_dishes_by_restaurant_and_keep_restaurants_without_menu() {
+        given(restaurantRepository.findAll()).willReturn(List.of(first, second));
+        given(dishRepository.getAllByDate(today)).willReturn(List.of(dish(10L, first), dish(11L, first)));
+
+        List<RestaurantMenuTO> menus = menuSnapshot.getMenus();
+
+        assertThat(menus).extracting(RestaurantMenuTO::getId).containsExactly(1L, 2L);
+        assertThat(menus.get(0).getName()).isEqualTo("First");
+        assertThat(menus.get(0).getDishes()).extracting("id").containsExactly(10L, 11L);
+        assertThat(menus.get(1).getDishes()).isEmpty();
+    }
+
+    @Test
+    void getMenus_Should_serve_snapshot_without_querying_database_again() {
+        given(restaurantRepository.findAll()).willReturn(List.of(first));
+
+        menuSnapshot.getMenus();
+        menuSnapshot.getMenus();
+
+        then(restaurantRepository).should(times(1)).findAll();
+        then(dishRepository).should(times(1)).getAllByDate(any(LocalDate.class));
+    }
+
+    @Test
+    void getMenus_Should_return_immutable_list() {
+        given(restaurantRepository.findAll()).willReturn(List.of(first));
+
+        List<RestaurantMenuTO> menus = menuSnapshot.getMenus();
+
+        assertThatExceptionOfType(UnsupportedOperationException.class)
+                .isThrownBy(() -> menus.add(new RestaurantMenuTO()));
+        assertThatExceptionOfType(UnsupportedOperationException.class)
+                .isThrownBy(() -> menus.get(0).getDishes().clear());
+    }
+
+    @Test
+    void getRestaurants_Should_serve_restaurants_of_snapshot() {
+        given(restaurantRepository.findAll()).willReturn(List.of(first, second));
+
+        assertThat(menuSnapshot.getRestaurants()).containsExactly(first, second);
+        assertThat(menuSnapshot.getRestaurants()).containsExactly(first, second);
+        then(restaurantRepository).should(times(1)).findAll();
+    }
+
+    @Test
+    void getRestaurants_Should_throw_EntityNotFoundException_when_no_restaurants() {
+        given(restaurantRepository.findAll()).willReturn(List.of());
+
+        assertThatExceptionOfType(EntityNotFoundException.class)
+                .isThrownBy(() -> menuSnapshot.getRestaurants());
+    }
+
+    @Test
+    void getMenu_Should_return_today_dishes_of_restaurant() {
+        given(restaurantRepository.findAll()).willReturn(List.of(first, second));
+        given(dishRepository.getAllByDate(today)).willReturn(List.of(dish(10L, first), dish(11L, first)));
+
+        assertThat(menuSnapshot.getMenu(1L)).extracting("id").containsExactly(10L, 11L);
+    }
+
+    @Test
+    void getMenu_Should_throw_EntityNotFoundException_when_restaurant_unknown_or_menu_empty() {
+        given(restaurantRepository.findAll()).willReturn(List.of(first, second));
+        given(dishRepository.getAllByDate(today)).willReturn(List.of(dish(10L, first)));
+
+        assertThatExceptionOfType(EntityNotFoundException.class)
+                .isThrownBy(() -> menuSnapshot.getMenu(3L))
+                .withMessageContaining("Restaurant with id=3 not found");
+        assertThatExceptionOfType(EntityNotFoundException.class)
+                .isThrownBy(() -> menuSnapshot.getMenu(2L))
+                .withMessageContaining("No Dishes present");
+    }
+
+    @Test
+    void onMenuChanged_Should_rebuild_only_for_current_date() {
+        given(restaurantRepository.findAll()).willReturn(List.of(first));
+        menuSnapshot.rebuild();
+
+        menuSnapshot.onMenuChanged(new MenuChangedEvent(1L, today.minusDays(1)));
+        then(restaurantRepository).should(times(1)).findAll();
+
+        given(dishRepository.getAllByDate(today)).willReturn(List.of(dish(10L, first)));
+        menuSnapshot.onMenuChanged(new MenuChangedEvent(1L, today));
+
+        then(restaurantRepository).should(times(2)).findAll();
+        assertThat(menuSnapshot.getMenus().get(0).getDishes()).extracting("id").containsExactly(10L);
+    }
+
+    @Test
+    void onRestaurantChanged_Should_rebuild_snapshot() {
+        given(restaurantRepository.findAll()).willReturn(List.of(first));
+        menuSnapshot.rebuild();
+
+        given(restaurantRepository.findAll()).willReturn(List.of(first, second));
+        menuSnapshot.onRestaurantChanged(new RestaurantChangedEvent(2L));
+
+        assertThat(menuSnapshot.getMenus()).extracting(RestaurantMenuTO::getId).containsExactly(1L, 2L);
+    }
+
+    @Test
+    void switchTo_Should_swap_in_prepared_snapshot_without_querying_database() {
+        given(restaurantRepository.findAll()).willReturn(List.of(first));
+        given(dishRepository.getAllByDate(today)).willReturn(List.of(dish(10L, first)));
+
+        menuSnapshot.prepare(today);
+        List<RestaurantMenuTO> menus = menuSnapshot.switchTo(today);
+
+        assertThat(menus.get(0).getDishes()).extracting("id").containsExactly(10L);
+        assertThat(menuSnapshot.getMenus()).isSameAs(menus);
+        then(restaurantRepository).should(times(1)).findAll();
+    }
+
+    @Test
+    void onMenuChanged_Should_rebuild_prepared_snapshot_of_its_date() {
+        LocalDate tomorrow = today.plusDays(1);
+        given(restaurantRepository.findAll()).willReturn(List.of(first));
+        menuSnapshot.rebuild();
+        menuSnapshot.prepare(tomorrow);
+
+        given(dishRepository.getAllByDate(tomorrow)).willReturn(List.of(dish(12L, first)));
+        menuSnapshot.onMenuChanged(new MenuChangedEvent(1L, tomorrow));
+
+        then(dishRepository).should(times(1)).getAllByDate(today);
+        assertThat(menuSnapshot.switchTo(tomorrow).get(0).getDishes()).extracting("id").containsExactly(12L);
+    }
+
+    private static Restaurant restaurant(Long id, String name) {
+        Restaurant restaurant = new Restaurant(name, "Test address");
+        restaurant.setId(id);
+        return restaurant;
+    }
+
+    private Dish dish(Long id, Restaurant restaurant) {
+        Dish dish = new Dish("Test Dish " + id, 100, restaurant, today);
+        dish.setId(id);
+        return dish;
+    }
+}
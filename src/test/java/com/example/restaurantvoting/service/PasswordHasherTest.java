@@ -0,0 +1,102 @@
+package com.example.restaurantvoting.service;
+
+import com.example.restaurantvoting.exception.ServiceOverloadedException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+
+public class PasswordHasherTest {
+
+    private final PasswordEncoder passwordEncoder = mock(PasswordEncoder.class);
+    private final CountDownLatch release = new CountDownLatch(1);
+    private final ExecutorService callers = Executors.newFixedThreadPool(2);
+
+    private PasswordHasher passwordHasher;
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        callers.shutdownNow();
+        passwordHasher.stop();
+    }
+
+    @Test
+    void hash_Should_encode_on_executor() {
+        given(passwordEncoder.encode("password")).willReturn("hash");
+        passwordHasher = new PasswordHasher(passwordEncoder, 1, 1, Duration.ofSeconds(5));
+
+        assertThat(passwordHasher.hash("password").join()).isEqualTo("hash");
+        assertThat(passwordHasher.getStats().getCompleted()).isEqualTo(1L);
+    }
+
+    @Test
+    void hash_Should_not_block_caller_while_encoding() {
+        given(passwordEncoder.encode("password")).willAnswer(invocation -> {
+            release.await();
+            return "hash";
+        });
+        passwordHasher = new PasswordHasher(passwordEncoder, 1, 1, Duration.ofSeconds(5));
+
+        CompletableFuture<String> hash = passwordHasher.hash("password");
+
+        assertThat(hash).isNotDone();
+        release.countDown();
+        assertThat(hash.join()).isEqualTo("hash");
+    }
+
+    @Test
+    void hash_Should_reject_when_queue_is_full() throws Exception {
+        given(passwordEncoder.encode(anyString())).willAnswer(invocation -> {
+            release.await();
+            return "hash";
+        });
+        passwordHasher = new PasswordHasher(passwordEncoder, 1, 1, Duration.ofSeconds(5));
+
+        callers.submit(() -> passwordHasher.hash("first"));
+        awaitQueued(0);
+        callers.submit(() -> passwordHasher.hash("second"));
+        awaitQueued(1);
+
+        assertThatExceptionOfType(ServiceOverloadedException.class)
+                .isThrownBy(() -> passwordHasher.hash("third"));
+        assertThat(passwordHasher.getStats().getRejected()).isEqualTo(1L);
+    }
+
+    @Test
+    void hash_Should_time_out_when_encoding_is_too_slow() {
+        given(passwordEncoder.encode(anyString())).willAnswer(invocation -> {
+            release.await();
+            return "hash";
+        });
+        passwordHasher = new PasswordHasher(passwordEncoder, 1, 1, Duration.ofMillis(50));
+
+        CompletableFuture<String> hash = passwordHasher.hash("password");
+
+        assertThatExceptionOfType(CompletionException.class)
+                .isThrownBy(hash::join)
+                .withCauseInstanceOf(ServiceOverloadedException.class);
+        assertThat(passwordHasher.getStats().getTimedOut()).isEqualTo(1L);
+    }
+
+    private void awaitQueued(int queued) throws InterruptedException {
+        for (int i = 0; i < 50; i++) {
+            if (passwordHasher.getStats().getActive() == 1 && passwordHasher.getStats().getQueued() == queued) {
+                return;
+            }
+            Thread.sleep(20);
+        }
+    }
+}
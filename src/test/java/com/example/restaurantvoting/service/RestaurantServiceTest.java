@@ -10,6 +10,7 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 
 import java.util.Collections;
 import java.util.List;
@@ -27,11 +28,15 @@ public class RestaurantServiceTest {
 
     @Mock
     private RestaurantRepository restaurantRepository;
+    @Mock
+    private VoteTally voteTally;
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
     private RestaurantService restaurantService;
 
     @BeforeEach
     void setUp() {
-        restaurantService = new RestaurantService(restaurantRepository);
+        restaurantService = new RestaurantService(restaurantRepository, voteTally, eventPublisher);
     }
 
     @Test
@@ -92,7 +97,7 @@ public class RestaurantServiceTest {
         String address = "Test Address";
         RestaurantInputTO input = new RestaurantInputTO(name, address);
 
-        given(restaurantRepository.save(any(Restaurant.class))).willReturn(null);
+        given(restaurantRepository.save(any(Restaurant.class))).willReturn(new Restaurant(name, address));
         ArgumentCaptor<Restaurant> captor = ArgumentCaptor.forClass(Restaurant.class);
 
         restaurantService.create(input);
@@ -138,6 +143,15 @@ public class RestaurantServiceTest {
         assertThat(captor.getValue()).isEqualTo(restaurantId);
     }
 
+    @Test
+    void deleteById_Should_publish_change_of_restaurant() {
+        given(restaurantRepository.removeById(anyLong())).willReturn(1);
+
+        restaurantService.deleteById(12L);
+
+        verify(eventPublisher).publishEvent(new RestaurantChangedEvent(12L));
+    }
+
     @Test
     void deleteById_Should_throw_EntityNotFoundException_when_restaurant_not_found() {
         given(restaurantRepository.removeById(anyLong())).willReturn(0);
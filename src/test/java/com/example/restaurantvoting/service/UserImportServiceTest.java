@@ -0,0 +1,183 @@
+package com.example.restaurantvoting.service;
+
+import com.example.restaurantvoting.model.user.User;
+import com.example.restaurantvoting.repository.UserRepository;
+import com.example.restaurantvoting.to.UserImportReportTO;
+import com.example.restaurantvoting.to.UserImportResultTO;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import javax.validation.Validation;
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.then;
+import static org.mockito.BDDMockito.willAnswer;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+
+@ExtendWith(MockitoExtension.class)
+public class UserImportServiceTest {
+
+    @Mock
+    private UserRepository userRepository;
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+    private UserImportService userImportService;
+
+    @BeforeEach
+    void setUp() {
+        userImportService = new UserImportService(userRepository, new BCryptPasswordEncoder(4),
+                Validation.buildDefaultValidatorFactory().getValidator(), new ObjectMapper(), eventPublisher,
+                2, 4, 2);
+    }
+
+    @AfterEach
+    void tearDown() {
+        userImportService.stop();
+    }
+
+    @Test
+    void importCsv_Should_check_existing_emails_and_insert_once_per_chunk() {
+        given(userRepository.findExistingEmails(anyCollection())).willReturn(List.of());
+        willAnswer(invocation -> {
+            List<User> users = invocation.getArgument(0);
+            users.forEach(user -> user.setId((long) user.getEmail().charAt(0)));
+            return null;
+        }).given(userRepository).insertAll(anyList());
+
+        UserImportReportTO report = userImportService.importCsv(content("a@mail.com,pass1\nb@mail.com,pass2\nc@mail.com,pass3"));
+
+        assertThat(report.getCreated()).isEqualTo(3);
+        assertThat(report.getResults()).extracting(UserImportResultTO::getRow).containsExactly(1, 2, 3);
+        then(userRepository).should(times(2)).findExistingEmails(anyCollection());
+        then(userRepository).should(times(2)).insertAll(anyList());
+        then(eventPublisher).should(times(3)).publishEvent(any(UserChangedEvent.class));
+    }
+
+    @Test
+    void importCsv_Should_hash_a_chunk_on_several_threads() {
+        CyclicBarrier bothHashing = new CyclicBarrier(2);
+        Set<String> threads = ConcurrentHashMap.newKeySet();
+        PasswordEncoder passwordEncoder = mock(PasswordEncoder.class);
+        given(passwordEncoder.encode(anyString())).willAnswer(invocation -> {
+            threads.add(Thread.currentThread().getName());
+            bothHashing.await(5, TimeUnit.SECONDS);
+            return "hash";
+        });
+        given(userRepository.findExistingEmails(anyCollection())).willReturn(List.of());
+
+        UserImportService parallelImportService = new UserImportService(userRepository, passwordEncoder,
+                Validation.buildDefaultValidatorFactory().getValidator(), new ObjectMapper(), eventPublisher,
+                2, 4, 2);
+        try {
+            UserImportReportTO report = parallelImportService.importCsv(content("a@mail.com,pass1\nb@mail.com,pass2"));
+
+            assertThat(report.getCreated()).isEqualTo(2);
+            assertThat(threads).hasSize(2);
+        } finally {
+            parallelImportService.stop();
+        }
+    }
+
+    @Test
+    void constructor_Should_default_hashing_threads_to_half_of_cores() {
+        UserImportService defaultImportService = new UserImportService(userRepository, new BCryptPasswordEncoder(4),
+                Validation.buildDefaultValidatorFactory().getValidator(), new ObjectMapper(), eventPublisher,
+                2, 4, 0);
+        try {
+            assertThat(defaultImportService.getHashingThreads())
+                    .isEqualTo(Math.max(1, Runtime.getRuntime().availableProcessors() / 2));
+        } finally {
+            defaultImportService.stop();
+        }
+    }
+
+    @Test
+    void importCsv_Should_report_duplicates_existing_and_invalid_rows() {
+        given(userRepository.findExistingEmails(anyCollection())).willReturn(List.of("b@mail.com"));
+
+        UserImportReportTO report = userImportService.importCsv(content("email,password\nb@mail.com,pass1\nbad,pass2\nb@mail.com,pass3"));
+
+        assertThat(report.getTotal()).isEqualTo(3);
+        assertThat(report.getCreated()).isZero();
+        assertThat(report.getResults()).extracting(UserImportResultTO::getStatus).containsExactly(
+                UserImportResultTO.Status.EXISTS, UserImportResultTO.Status.INVALID, UserImportResultTO.Status.DUPLICATE);
+        then(userRepository).should(times(0)).insertAll(anyList());
+    }
+
+    @Test
+    void importJson_Should_stop_at_max_rows() {
+        given(userRepository.findExistingEmails(anyCollection())).willReturn(List.of());
+
+        UserImportReportTO report = userImportService.importJson(content("[" +
+                "{\"email\":\"a@mail.com\",\"password\":\"pass\"},{\"email\":\"b@mail.com\",\"password\":\"pass\"}," +
+                "{\"email\":\"c@mail.com\",\"password\":\"pass\"},{\"email\":\"d@mail.com\",\"password\":\"pass\"}," +
+                "{\"email\":\"e@mail.com\",\"password\":\"pass\"}]"));
+
+        assertThat(report.getTotal()).isEqualTo(4);
+        assertThat(report.getTruncated()).isTrue();
+    }
+
+    @Test
+    void importJson_Should_report_elements_other_than_objects_as_invalid_rows() {
+        given(userRepository.findExistingEmails(anyCollection())).willReturn(List.of());
+        willAnswer(invocation -> {
+            List<User> users = invocation.getArgument(0);
+            users.forEach(user -> user.setId((long) user.getEmail().charAt(0)));
+            return null;
+        }).given(userRepository).insertAll(anyList());
+
+        UserImportReportTO report = userImportService.importJson(content("[" +
+                "{\"email\":\"a@mail.com\",\"password\":\"pass\"},5,[{\"email\":\"x@mail.com\"}]," +
+                "{\"email\":\"b@mail.com\",\"password\":\"pass\"}]"));
+
+        assertThat(report.getTotal()).isEqualTo(4);
+        assertThat(report.getCreated()).isEqualTo(2);
+        assertThat(report.getResults())
+                .filteredOn(result -> result.getStatus() == UserImportResultTO.Status.INVALID)
+                .extracting(UserImportResultTO::getRow)
+                .containsExactly(2, 3);
+    }
+
+    @Test
+    void importCsv_Should_fall_back_to_single_inserts_when_batch_conflicts() {
+        given(userRepository.findExistingEmails(anyCollection())).willReturn(List.of());
+        willAnswer(invocation -> {
+            List<User> users = invocation.getArgument(0);
+            if (users.stream().anyMatch(user -> user.getEmail().equals("b@mail.com"))) {
+                throw new DuplicateKeyException("b@mail.com");
+            }
+            return null;
+        }).given(userRepository).insertAll(anyList());
+
+        UserImportReportTO report = userImportService.importCsv(content("a@mail.com,pass1\nb@mail.com,pass2"));
+
+        assertThat(report.getResults()).extracting(UserImportResultTO::getStatus).containsExactly(
+                UserImportResultTO.Status.CREATED, UserImportResultTO.Status.EXISTS);
+    }
+
+    private static ByteArrayInputStream content(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+}
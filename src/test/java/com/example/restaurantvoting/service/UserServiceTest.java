@@ -8,34 +8,46 @@ import com.example.restaurantvoting.model.user.Status;
 import com.example.restaurantvoting.model.user.User;
 import com.example.restaurantvoting.repository.UserRepository;
 import com.example.restaurantvoting.to.UserInputTO;
+import com.example.restaurantvoting.to.UserOutputTO;
+import com.example.restaurantvoting.to.UserStatusResultTO;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
+import java.time.Duration;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.then;
 
 @ExtendWith(MockitoExtension.class)
 public class UserServiceTest {
 
     @Mock
     private UserRepository userRepository;
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
     private UserService userService;
 
     @BeforeEach
     void setUp() {
         PasswordEncoder passwordEncoder = new BCryptPasswordEncoder();
-        userService = new UserService(userRepository, passwordEncoder);
+        PasswordHasher passwordHasher = new PasswordHasher(passwordEncoder, 1, 10, Duration.ofSeconds(10));
+        userService = new UserService(userRepository, passwordHasher, eventPublisher);
     }
 
     @Test
@@ -58,6 +70,53 @@ public class UserServiceTest {
                 .isThrownBy(() -> userService.getAll());
     }
 
+    @Test
+    void getAll_Should_return_all_users_matching_filter() {
+        User u = new User("mail@mail.com", "0000", Role.USER, Status.BANNED);
+
+        given(userRepository.getPageAfter(0L, Role.USER, Status.BANNED, Pageable.unpaged())).willReturn(List.of(u));
+
+        assertThat(userService.getAll(Role.USER, Status.BANNED)).containsExactly(u);
+    }
+
+    @Test
+    void getPage_Should_return_users_after_cursor() {
+        User u1 = new User("mail1@mail.com", "0000", Role.USER, Status.ACTIVE);
+        User u2 = new User("mail2@mail.com", "0000", Role.USER, Status.ACTIVE);
+
+        given(userRepository.getPageAfter(eq(10L), eq(Role.USER), isNull(), eq(PageRequest.of(0, 2))))
+                .willReturn(List.of(u1, u2));
+
+        List<User> result = userService.getPage(10L, 2, Role.USER, null);
+
+        assertThat(result).containsExactly(u1, u2);
+    }
+
+    @Test
+    void getPage_Should_start_from_first_user_when_cursor_is_absent() {
+        User u = new User("mail@mail.com", "0000", Role.USER, Status.ACTIVE);
+
+        given(userRepository.getPageAfter(eq(0L), isNull(), isNull(), any())).willReturn(List.of(u));
+
+        assertThat(userService.getPage(null, 100, null, null)).containsExactly(u);
+    }
+
+    @Test
+    void getPage_Should_throw_EntityValidationException_when_limit_out_of_range() {
+        assertThatExceptionOfType(EntityValidationException.class)
+                .isThrownBy(() -> userService.getPage(null, 0, null, null));
+        assertThatExceptionOfType(EntityValidationException.class)
+                .isThrownBy(() -> userService.getPage(null, 1001, null, null));
+    }
+
+    @Test
+    void getPage_Should_throw_EntityNotFoundException_when_result_list_is_empty() {
+        given(userRepository.getPageAfter(anyLong(), any(), any(), any())).willReturn(Collections.emptyList());
+
+        assertThatExceptionOfType(EntityNotFoundException.class)
+                .isThrownBy(() -> userService.getPage(null, 100, null, null));
+    }
+
     @Test
     void getById_Should_return_found_user() {
         User u = new User("mail@mail.com", "0000", Role.USER, Status.ACTIVE);
@@ -84,7 +143,7 @@ public class UserServiceTest {
 
         given(userRepository.save(any(User.class))).willReturn(u);
 
-        User result = userService.create(input);
+        User result = userService.create(input).join();
 
         assertThat(result).isEqualTo(u);
     }
@@ -97,11 +156,24 @@ public class UserServiceTest {
 
         given(userRepository.save(any(User.class))).willReturn(u);
 
-        User result = userService.create(input);
+        User result = userService.create(input).join();
 
         assertThat(result.getEmail()).isEqualTo(email);
     }
 
+    @Test
+    void create_Should_publish_user_changed_event() {
+        User u = new User("mail@mail.com", "0000", Role.USER, Status.ACTIVE);
+        u.setId(4L);
+        UserInputTO input = new UserInputTO("mail@mail.com", "0000");
+
+        given(userRepository.save(any(User.class))).willReturn(u);
+
+        userService.create(input).join();
+
+        then(eventPublisher).should().publishEvent(new UserChangedEvent(4L, "mail@mail.com"));
+    }
+
     @Test
     void create_Should_throw_UserAlreadyExistException_when_user_already_present() {
         User u = new User("mail@mail.com", "0000", Role.USER, Status.ACTIVE);
@@ -124,6 +196,18 @@ public class UserServiceTest {
         assertThat(u.getStatus() == Status.BANNED).isTrue();
     }
 
+    @Test
+    void setStatus_Should_publish_user_changed_event() {
+        User u = new User("mail@mail.com", "0000", Role.USER, Status.ACTIVE);
+        u.setId(1L);
+
+        given(userRepository.findById(anyLong())).willReturn(Optional.of(u));
+
+        userService.setStatus(1L, false);
+
+        then(eventPublisher).should().publishEvent(new UserChangedEvent(1L, "mail@mail.com"));
+    }
+
     @Test
     void setStatus_Should_not_update_user_status_when_role_is_admin() {
         User u = new User("mail@mail.com", "0000", Role.ADMIN, Status.ACTIVE);
@@ -133,4 +217,39 @@ public class UserServiceTest {
         assertThatExceptionOfType(EntityValidationException.class)
                 .isThrownBy(() -> userService.setStatus(1L, false));
     }
-}
\ No newline at end of file
+
+    @Test
+    void setStatusAll_Should_update_in_one_statement_and_report_each_id() {
+        given(userRepository.getAllByIdsForUpdate(any())).willReturn(List.of(
+                new UserOutputTO(1L, "user@mail.com", Role.USER, Status.ACTIVE),
+                new UserOutputTO(2L, "admin@mail.com", Role.ADMIN, Status.ACTIVE),
+                new UserOutputTO(3L, "banned@mail.com", Role.USER, Status.BANNED)));
+
+        List<UserStatusResultTO> results = userService.setStatusAll(List.of(1L, 2L, 3L, 4L, 1L), false);
+
+        assertThat(results).extracting(UserStatusResultTO::getId).containsExactly(1L, 2L, 3L, 4L);
+        assertThat(results).extracting(UserStatusResultTO::getOutcome).containsExactly(
+                UserStatusResultTO.Outcome.UPDATED,
+                UserStatusResultTO.Outcome.FORBIDDEN,
+                UserStatusResultTO.Outcome.UNCHANGED,
+                UserStatusResultTO.Outcome.NOT_FOUND);
+        then(userRepository).should().updateStatusByIdsAndRole(Set.of(1L, 2L, 3L, 4L), Role.USER, Status.BANNED);
+        then(eventPublisher).should().publishEvent(new UsersChangedEvent(Map.of(1L, "user@mail.com")));
+    }
+
+    @Test
+    void setStatusAll_Should_not_publish_event_when_nothing_changed() {
+        given(userRepository.getAllByIdsForUpdate(any())).willReturn(List.of(
+                new UserOutputTO(3L, "banned@mail.com", Role.USER, Status.BANNED)));
+
+        userService.setStatusAll(List.of(3L), false);
+
+        then(eventPublisher).shouldHaveNoInteractions();
+    }
+
+    @Test
+    void setStatusAll_Should_throw_EntityValidationException_when_no_ids_given() {
+        assertThatExceptionOfType(EntityValidationException.class)
+                .isThrownBy(() -> userService.setStatusAll(List.of(), false));
+    }
+}
@@ -0,0 +1,59 @@
+package com.example.restaurantvoting.service;
+
+import com.example.restaurantvoting.AbstractTest;
+import com.example.restaurantvoting.exception.VoteSubmissionException;
+import com.example.restaurantvoting.repository.VoteRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.context.TestPropertySource;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+@TestPropertySource(properties = "voting.ingestion.write-behind.enabled=true")
+class VoteBatchWriterTest extends AbstractTest {
+
+    @Autowired
+    private VoteBatchWriter voteBatchWriter;
+    @Autowired
+    private VoteRepository voteRepository;
+    @Autowired
+    private VoteTally voteTally;
+
+    private final LocalDate date = LocalDate.of(2021, 1, 2);
+
+    @Test
+    void write_Should_persist_concurrent_votes_and_acknowledge_with_ids() {
+        CompletableFuture<Long> first = CompletableFuture.supplyAsync(() -> voteBatchWriter.write(1L, 1L, date));
+        CompletableFuture<Long> second = CompletableFuture.supplyAsync(() -> voteBatchWriter.write(3L, 1L, date));
+
+        List<Long> ids = List.of(first.join(), second.join());
+
+        assertThat(ids).doesNotContainNull().doesNotHaveDuplicates();
+        assertThat(voteRepository.findAllByRestaurantAndDate(1L, date)).isEqualTo(2L);
+        assertThat(voteTally.get(1L, date)).isEqualTo(2L);
+    }
+
+    @Test
+    void write_Should_reject_second_vote_of_same_user_for_same_date() {
+        voteBatchWriter.write(1L, 1L, date);
+
+        assertThatExceptionOfType(VoteSubmissionException.class)
+                .isThrownBy(() -> voteBatchWriter.write(1L, 2L, date))
+                .satisfies(e -> assertThat(e.getStatus()).isEqualTo(HttpStatus.UNPROCESSABLE_ENTITY));
+        assertThat(voteRepository.findAllByRestaurantAndDate(2L, date)).isEqualTo(0L);
+    }
+
+    @Test
+    void write_Should_fail_fast_when_batch_fails_with_unexpected_error() {
+        assertThatExceptionOfType(VoteSubmissionException.class)
+                .isThrownBy(() -> voteBatchWriter.write(1L, null, date))
+                .satisfies(e -> assertThat(e.getStatus()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE))
+                .withMessageContaining("could not be confirmed");
+    }
+}
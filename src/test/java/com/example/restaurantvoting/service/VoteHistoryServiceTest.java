@@ -0,0 +1,103 @@
+package com.example.restaurantvoting.service;
+
+import com.example.restaurantvoting.exception.EntityValidationException;
+import com.example.restaurantvoting.repository.RestaurantRepository;
+import com.example.restaurantvoting.repository.VoteRepository;
+import com.example.restaurantvoting.repository.VoteTotalRepository;
+import com.example.restaurantvoting.to.VoteCountTO;
+import com.example.restaurantvoting.to.VoteHistoryTO;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+public class VoteHistoryServiceTest {
+
+    @Mock
+    private VoteRepository voteRepository;
+    @Mock
+    private VoteTotalRepository voteTotalRepository;
+    @Mock
+    private RestaurantRepository restaurantRepository;
+    private VoteHistoryService voteHistoryService;
+
+    private final LocalDate from = LocalDate.of(2021, 1, 1);
+
+    @BeforeEach
+    void setUp() {
+        voteHistoryService = new VoteHistoryService(
+                voteRepository, voteTotalRepository, restaurantRepository, 2, 10, 2);
+    }
+
+    @AfterEach
+    void tearDown() {
+        voteHistoryService.stop();
+    }
+
+    @Test
+    void getHistory_Should_merge_chunks_into_restaurant_date_matrix() {
+        LocalDate to = from.plusDays(4);
+        given(restaurantRepository.findAllIds()).willReturn(List.of(1L, 2L));
+        given(voteTotalRepository.getAllBetween(from, from.plusDays(1)))
+                .willReturn(List.of(new VoteCountTO(1L, from, 3L)));
+        given(voteTotalRepository.getAllBetween(from.plusDays(2), from.plusDays(3)))
+                .willReturn(List.of(new VoteCountTO(2L, from.plusDays(3), 5L)));
+        given(voteTotalRepository.getAllBetween(to, to)).willReturn(List.of());
+        given(voteRepository.countAllNotRolledUpBetweenGroupByRestaurantAndDate(any(LocalDate.class), any(LocalDate.class)))
+                .willReturn(List.of());
+        given(voteRepository.countAllNotRolledUpBetweenGroupByRestaurantAndDate(to, to))
+                .willReturn(List.of(new VoteCountTO(1L, to, 2L)));
+
+        VoteHistoryTO result = voteHistoryService.getHistory(from, to);
+
+        assertThat(result.getTotals()).containsOnlyKeys(1L, 2L);
+        assertThat(result.getTotals().get(1L)).containsExactly(3, 0, 0, 0, 2);
+        assertThat(result.getTotals().get(2L)).containsExactly(0, 0, 0, 5, 0);
+    }
+
+    @Test
+    void getHistory_Should_not_double_count_day_rolled_up_between_queries() {
+        given(restaurantRepository.findAllIds()).willReturn(List.of(1L));
+        given(voteRepository.countAllNotRolledUpBetweenGroupByRestaurantAndDate(from, from))
+                .willReturn(List.of(new VoteCountTO(1L, from, 4L)));
+        given(voteTotalRepository.getAllBetween(from, from)).willReturn(List.of(new VoteCountTO(1L, from, 4L)));
+
+        VoteHistoryTO result = voteHistoryService.getHistory(from, from);
+
+        assertThat(result.getTotals().get(1L)).containsExactly(4);
+    }
+
+    @Test
+    void getHistory_Should_use_last_30_days_when_dates_not_provided() {
+        LocalDate today = LocalDate.now(ZoneId.of("Europe/Moscow"));
+        voteHistoryService = new VoteHistoryService(
+                voteRepository, voteTotalRepository, restaurantRepository, 31, 366, 2);
+
+        VoteHistoryTO result = voteHistoryService.getHistory(null, null);
+
+        assertThat(result.getFrom()).isEqualTo(today.minusDays(29));
+        assertThat(result.getTo()).isEqualTo(today);
+        verify(voteTotalRepository).getAllBetween(today.minusDays(29), today);
+    }
+
+    @Test
+    void getHistory_Should_throw_EntityValidationException_when_range_is_invalid() {
+        assertThatExceptionOfType(EntityValidationException.class)
+                .isThrownBy(() -> voteHistoryService.getHistory(from, from.minusDays(1)));
+        assertThatExceptionOfType(EntityValidationException.class)
+                .isThrownBy(() -> voteHistoryService.getHistory(from, from.plusDays(10)));
+    }
+}
@@ -0,0 +1,134 @@
+package com.example.restaurantvoting.service;
+
+import com.example.restaurantvoting.model.Restaurant;
+import com.example.restaurantvoting.model.VoteTotal;
+import com.example.restaurantvoting.repository.RestaurantRepository;
+import com.example.restaurantvoting.repository.VoteRepository;
+import com.example.restaurantvoting.repository.VoteTotalRepository;
+import com.example.restaurantvoting.to.VoteTotalTO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class VoteRollupServiceTest {
+
+    @Mock
+    private VoteRepository voteRepository;
+    @Mock
+    private VoteTotalRepository voteTotalRepository;
+    @Mock
+    private RestaurantRepository restaurantRepository;
+    private VoteRollupService voteRollupService;
+
+    @BeforeEach
+    void setUp() {
+        voteRollupService = new VoteRollupService(
+                voteRepository, voteTotalRepository, restaurantRepository, Duration.ofDays(30), 100);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void rollUpBefore_Should_save_totals_of_every_date_not_rolled_up() {
+        LocalDate date = LocalDate.of(2021, 1, 1);
+        Restaurant restaurant = new Restaurant("Test Restaurant", "Test Address");
+        given(voteRepository.findDatesWithoutRollupBefore(date.plusDays(1))).willReturn(List.of(date));
+        given(voteRepository.countAllByDateGroupByRestaurant(date)).willReturn(List.of(new VoteTotalTO(1L, 3L)));
+        given(restaurantRepository.getById(1L)).willReturn(restaurant);
+        ArgumentCaptor<List<VoteTotal>> captor = ArgumentCaptor.forClass(List.class);
+
+        voteRollupService.rollUpBefore(date.plusDays(1));
+
+        verify(voteTotalRepository).saveAll(captor.capture());
+        assertThat(captor.getValue()).singleElement()
+                .satisfies(total -> {
+                    assertThat(total.getRestaurant()).isSameAs(restaurant);
+                    assertThat(total.getDate()).isEqualTo(date);
+                    assertThat(total.getTotal()).isEqualTo(3L);
+                });
+    }
+
+    @Test
+    void rollUpBefore_Should_skip_date_when_totals_already_rolled_up() {
+        LocalDate date = LocalDate.of(2021, 1, 1);
+        given(voteRepository.findDatesWithoutRollupBefore(date.plusDays(1))).willReturn(List.of(date));
+        given(voteRepository.countAllByDateGroupByRestaurant(date)).willReturn(List.of());
+        given(voteTotalRepository.saveAll(anyList()))
+                .willThrow(new DataIntegrityViolationException("vote_total_unique_date_restaurant_idx"));
+        given(voteTotalRepository.existsByDate(date)).willReturn(true);
+
+        voteRollupService.rollUpBefore(date.plusDays(1));
+
+        verify(voteTotalRepository).existsByDate(date);
+    }
+
+    @Test
+    void rollUpBefore_Should_rethrow_integrity_violation_when_totals_not_rolled_up() {
+        LocalDate date = LocalDate.of(2021, 1, 1);
+        given(voteRepository.findDatesWithoutRollupBefore(date.plusDays(1))).willReturn(List.of(date));
+        given(voteRepository.countAllByDateGroupByRestaurant(date)).willReturn(List.of());
+        given(voteTotalRepository.saveAll(anyList()))
+                .willThrow(new DataIntegrityViolationException("NULL not allowed for column \"restaurant_id\""));
+        given(voteTotalRepository.existsByDate(date)).willReturn(false);
+
+        assertThatExceptionOfType(DataIntegrityViolationException.class)
+                .isThrownBy(() -> voteRollupService.rollUpBefore(date.plusDays(1)));
+    }
+
+    @Test
+    void purgeBefore_Should_delete_in_chunks_until_chunk_is_not_full() {
+        LocalDate date = LocalDate.of(2021, 1, 1);
+        List<Long> fullChunk = LongStream.rangeClosed(1, 100).boxed().toList();
+        given(voteRepository.findRolledUpIdsBefore(date, PageRequest.of(0, 100)))
+                .willReturn(fullChunk, fullChunk, List.of(1L, 2L));
+        given(voteRepository.deleteAllByIdIn(anyList())).willReturn(100, 100, 2);
+
+        int deleted = voteRollupService.purgeBefore(date);
+
+        assertThat(deleted).isEqualTo(202);
+        verify(voteRepository, times(3)).deleteAllByIdIn(anyList());
+    }
+
+    @Test
+    void purgeBefore_Should_not_delete_when_nothing_rolled_up() {
+        LocalDate date = LocalDate.of(2021, 1, 1);
+        given(voteRepository.findRolledUpIdsBefore(date, PageRequest.of(0, 100))).willReturn(List.of());
+
+        int deleted = voteRollupService.purgeBefore(date);
+
+        assertThat(deleted).isZero();
+        verify(voteRepository, never()).deleteAllByIdIn(anyList());
+    }
+
+    @Test
+    void rollUpAndPurge_Should_purge_only_votes_older_than_retention() {
+        LocalDate today = LocalDate.now(ZoneId.of("Europe/Moscow"));
+        given(voteRepository.findDatesWithoutRollupBefore(today)).willReturn(List.of());
+        given(voteRepository.findRolledUpIdsBefore(eq(today.minusDays(30)), eq(PageRequest.of(0, 100))))
+                .willReturn(List.of());
+
+        voteRollupService.rollUpAndPurge();
+
+        verify(voteRepository).findRolledUpIdsBefore(today.minusDays(30), PageRequest.of(0, 100));
+        verify(restaurantRepository, never()).getById(anyLong());
+    }
+}
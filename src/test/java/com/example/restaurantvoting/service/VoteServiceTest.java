@@ -9,7 +9,10 @@ import com.example.restaurantvoting.model.user.Status;
 import com.example.restaurantvoting.model.user.User;
 import com.example.restaurantvoting.repository.RestaurantRepository;
 import com.example.restaurantvoting.repository.VoteRepository;
+import com.example.restaurantvoting.repository.VoteTotalRepository;
+import com.example.restaurantvoting.repository.VoteChangeResult;
 import com.example.restaurantvoting.to.VoteOutputTO;
+import com.example.restaurantvoting.to.VoteTotalTO;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -17,18 +20,22 @@ import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.MockedStatic;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.DuplicateKeyException;
 
 import java.time.LocalDate;
 import java.time.LocalTime;
 import java.time.ZoneId;
-import java.util.Optional;
+import java.util.List;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.BDDMockito.given;
 import static org.mockito.Mockito.mockStatic;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 
 @ExtendWith(MockitoExtension.class)
 public class VoteServiceTest {
@@ -37,25 +44,33 @@ public class VoteServiceTest {
     private VoteRepository voteRepository;
     @Mock
     private RestaurantRepository restaurantRepository;
+    @Mock
+    private VoteTotalRepository voteTotalRepository;
+    @Mock
+    private VoteTally voteTally;
+    @Mock
+    private VoteBatchWriter voteBatchWriter;
     private VoteService voteService;
 
+    private final LocalDate today = LocalDate.now(ZoneId.of("Europe/Moscow"));
+
     @BeforeEach
     void setUp() {
-        voteService = new VoteService(voteRepository, restaurantRepository);
+        voteService = new VoteService(voteRepository, restaurantRepository, voteTotalRepository, voteTally, voteBatchWriter);
     }
 
     @Test
     void getByDate_Should_find_vote_and_correctly_transform_it() {
-        VoteOutputTO expected = new VoteOutputTO(10L, 1L, "mail@mail.com", LocalDate.now());
+        VoteOutputTO expected = new VoteOutputTO(10L, 1L, "mail@mail.com", today);
         Restaurant r = new Restaurant("Test Restaurant", "Test address");
         r.setId(1L);
         User u = new User("mail@mail.com", "0000", Role.USER, Status.ACTIVE);
-        Vote v = new Vote(r, u, LocalDate.now());
+        Vote v = new Vote(r, u, today);
         v.setId(10L);
 
         given(voteRepository.getByUserAndDate(anyString(), any(LocalDate.class))).willReturn(v);
 
-        VoteOutputTO result = voteService.getByDate(u, LocalDate.now());
+        VoteOutputTO result = voteService.getByDate(u, today);
 
         assertThat(result).usingRecursiveComparison().isEqualTo(expected);
     }
@@ -65,7 +80,7 @@ public class VoteServiceTest {
         Restaurant r = new Restaurant("Test Restaurant", "Test address");
         r.setId(1L);
         User u = new User("mail@mail.com", "0000", Role.USER, Status.ACTIVE);
-        Vote v = new Vote(r, u, LocalDate.now());
+        Vote v = new Vote(r, u, today);
         v.setId(10L);
 
         given(voteRepository.getByUserAndDate(anyString(), any(LocalDate.class))).willReturn(v);
@@ -74,7 +89,7 @@ public class VoteServiceTest {
         voteService.getByDate(u, null);
 
         verify(voteRepository).getByUserAndDate(anyString(), captor.capture());
-        assertThat(captor.getValue()).isEqualTo(LocalDate.now());
+        assertThat(captor.getValue()).isEqualTo(today);
     }
 
     @Test
@@ -84,57 +99,86 @@ public class VoteServiceTest {
         given(voteRepository.getByUserAndDate(anyString(), any(LocalDate.class))).willReturn(null);
 
         assertThatExceptionOfType(EntityNotFoundException.class)
-                .isThrownBy(() -> voteService.getByDate(u, LocalDate.now()));
+                .isThrownBy(() -> voteService.getByDate(u, today));
     }
 
     @Test
     void create_Should_save_new_vote_when_vote_was_not_submitted_yet_today() {
-        VoteOutputTO expected = new VoteOutputTO(10L, 1L, "mail@mail.com", LocalDate.now());
-        Restaurant r = new Restaurant("Test Restaurant", "Test address");
+        VoteOutputTO expected = new VoteOutputTO(10L, 1L, "mail@mail.com", today);
         User u = new User("mail@mail.com", "0000", Role.USER, Status.ACTIVE);
-        Vote v = new Vote(r, u, LocalDate.now());
-        v.setId(10L);
+        u.setId(5L);
 
-        given(restaurantRepository.findById(anyLong())).willReturn(Optional.of(r));
-        given(voteRepository.getByUserAndDate(anyString(), any(LocalDate.class))).willReturn(null);
-        given(voteRepository.save(any(Vote.class))).willReturn(v);
+        given(voteRepository.insert(anyLong(), anyLong(), any(LocalDate.class))).willReturn(10L);
 
         VoteOutputTO result = voteService.create(u, 1L);
 
         assertThat(result).usingRecursiveComparison().isEqualTo(expected);
+        verify(voteRepository).insert(5L, 1L, today);
+        verify(voteTally).increment(1L, today);
+    }
+
+    @Test
+    void create_Should_hand_vote_to_batch_writer_when_write_behind_enabled() {
+        VoteOutputTO expected = new VoteOutputTO(10L, 1L, "mail@mail.com", today);
+        User u = new User("mail@mail.com", "0000", Role.USER, Status.ACTIVE);
+        u.setId(5L);
+
+        given(voteBatchWriter.isEnabled()).willReturn(true);
+        given(voteBatchWriter.write(anyLong(), anyLong(), any(LocalDate.class))).willReturn(10L);
+
+        VoteOutputTO result = voteService.create(u, 1L);
+
+        assertThat(result).usingRecursiveComparison().isEqualTo(expected);
+        verify(voteBatchWriter).write(5L, 1L, today);
+        verifyNoInteractions(voteRepository, voteTally);
     }
 
     @Test
     void create_Should_throw_EntityNotFoundException_when_restaurant_not_found() {
-        given(restaurantRepository.findById(anyLong())).willReturn(Optional.empty());
+        given(voteRepository.insert(any(), anyLong(), any(LocalDate.class)))
+                .willThrow(new DataIntegrityViolationException("FK_VOTE_RESTAURANT"));
+        given(restaurantRepository.existsById(1L)).willReturn(false);
 
         assertThatExceptionOfType(EntityNotFoundException.class)
                 .isThrownBy(() -> voteService.create(new User(), 1L));
     }
 
+    @Test
+    void create_Should_rethrow_integrity_violation_when_restaurant_present() {
+        given(voteRepository.insert(any(), anyLong(), any(LocalDate.class)))
+                .willThrow(new DataIntegrityViolationException("NULL not allowed"));
+        given(restaurantRepository.existsById(1L)).willReturn(true);
+
+        assertThatExceptionOfType(DataIntegrityViolationException.class)
+                .isThrownBy(() -> voteService.create(new User(), 1L));
+    }
+
     @Test
     void create_Should_throw_VoteSubmissionException_when_vote_already_been_submitted_today() {
-        Restaurant r = new Restaurant("Test Restaurant", "Test address");
         User u = new User("mail@mail.com", "0000", Role.USER, Status.ACTIVE);
-        Vote v = new Vote(r, u, LocalDate.now());
+        u.setId(5L);
+        Restaurant r = new Restaurant("Test Restaurant", "Test Address");
+        r.setId(2L);
 
-        given(restaurantRepository.findById(anyLong())).willReturn(Optional.of(r));
-        given(voteRepository.getByUserAndDate(anyString(), any(LocalDate.class))).willReturn(v);
+        given(voteRepository.insert(anyLong(), anyLong(), any(LocalDate.class)))
+                .willThrow(new DuplicateKeyException("VOTE_UNIQUE_DATE_USER_IDX"));
+        given(voteRepository.getByUserAndDate("mail@mail.com", today))
+                .willReturn(new Vote(r, u, today));
 
         assertThatExceptionOfType(VoteSubmissionException.class)
-                .isThrownBy(() -> voteService.create(u, 1L));
+                .isThrownBy(() -> voteService.create(u, 1L))
+                .withMessageContaining("id=2");
+        verifyNoInteractions(voteTally);
     }
 
     @Test
-    void update_Should_find_vote_and_update_it_when_vote_already_been_submitted_today_and_before_voting_deadline() {
-        VoteOutputTO expected = new VoteOutputTO(10L, 1L, "mail@mail.com", LocalDate.now());
-        Restaurant r = new Restaurant("Test Restaurant - new Vote", "Test address - new Vote");
+    void update_Should_change_vote_when_vote_already_been_submitted_today_and_before_voting_deadline() {
+        VoteOutputTO expected = new VoteOutputTO(10L, 1L, "mail@mail.com", today);
         User u = new User("mail@mail.com", "0000", Role.USER, Status.ACTIVE);
-        Vote v = new Vote(new Restaurant(), u, LocalDate.now());
-        v.setId(10L);
+        u.setId(5L);
 
-        given(restaurantRepository.findById(anyLong())).willReturn(Optional.of(r));
-        given(voteRepository.getByUserAndDate(anyString(), any(LocalDate.class))).willReturn(v);
+        given(voteRepository.change(anyLong(), anyLong(), any(LocalDate.class)))
+                .willReturn(new VoteChangeResult(10L, 1L, 2L));
 
         LocalTime mockedTime = LocalTime.of(10, 0);
         try (MockedStatic<LocalTime> mockedStatic = mockStatic(LocalTime.class)) {
@@ -142,48 +186,83 @@ public class VoteServiceTest {
 
             VoteOutputTO result = voteService.update(u, 1L);
 
-            assertThat(v.getRestaurant()).isEqualTo(r);
             assertThat(result).usingRecursiveComparison().isEqualTo(expected);
+            verify(voteRepository).change(5L, 1L, today);
+            verify(voteTally).move(2L, 1L, today);
+        }
+    }
+
+    @Test
+    void update_Should_keep_tally_when_vote_changed_to_same_restaurant() {
+        User u = new User("mail@mail.com", "0000", Role.USER, Status.ACTIVE);
+        u.setId(5L);
+
+        given(voteRepository.change(anyLong(), anyLong(), any(LocalDate.class)))
+                .willReturn(new VoteChangeResult(10L, 1L, 1L));
+
+        LocalTime mockedTime = LocalTime.of(10, 0);
+        try (MockedStatic<LocalTime> mockedStatic = mockStatic(LocalTime.class)) {
+            mockedStatic.when(() -> LocalTime.now(any(ZoneId.class))).thenReturn(mockedTime);
+
+            voteService.update(u, 1L);
+
+            verifyNoInteractions(voteTally);
         }
     }
 
     @Test
     void update_Should_throw_VoteSubmissionException_when_vote_already_been_submitted_today_and_past_voting_deadline() {
-        Restaurant r = new Restaurant("Test Restaurant", "Test address");
-        r.setId(1L);
         User u = new User("mail@mail.com", "0000", Role.USER, Status.ACTIVE);
-        Vote v = new Vote(r, u, LocalDate.now());
+        u.setId(5L);
+        Restaurant r = new Restaurant("Test Restaurant", "Test Address");
+        r.setId(2L);
 
-        given(restaurantRepository.findById(anyLong())).willReturn(Optional.of(r));
-        given(voteRepository.getByUserAndDate(anyString(), any(LocalDate.class))).willReturn(v);
+        given(restaurantRepository.existsById(1L)).willReturn(true);
+        given(voteRepository.getByUserAndDate("mail@mail.com", today))
+                .willReturn(new Vote(r, u, today));
 
         LocalTime mockedTime = LocalTime.of(12, 0);
         try (MockedStatic<LocalTime> mockedStatic = mockStatic(LocalTime.class)) {
             mockedStatic.when(() -> LocalTime.now(any(ZoneId.class))).thenReturn(mockedTime);
 
             assertThatExceptionOfType(VoteSubmissionException.class)
-                    .isThrownBy(() -> voteService.update(u, 1L));
+                    .isThrownBy(() -> voteService.update(u, 1L))
+                    .withMessageContaining("past 11AM");
+            verify(voteRepository, never()).change(anyLong(), anyLong(), any(LocalDate.class));
         }
     }
 
     @Test
-    void update_Should_throw_VoteSubmissionException_when_vote_was_note_submitted_today() {
-        Restaurant r = new Restaurant("Test Restaurant", "Test address");
+    void update_Should_throw_VoteSubmissionException_when_vote_was_not_submitted_today() {
         User u = new User("mail@mail.com", "0000", Role.USER, Status.ACTIVE);
+        u.setId(5L);
 
-        given(restaurantRepository.findById(anyLong())).willReturn(Optional.of(r));
-        given(voteRepository.getByUserAndDate(anyString(), any(LocalDate.class))).willReturn(null);
+        given(voteRepository.change(anyLong(), anyLong(), any(LocalDate.class))).willReturn(null);
 
-        assertThatExceptionOfType(VoteSubmissionException.class)
-                .isThrownBy(() -> voteService.update(u, 1L));
+        LocalTime mockedTime = LocalTime.of(10, 0);
+        try (MockedStatic<LocalTime> mockedStatic = mockStatic(LocalTime.class)) {
+            mockedStatic.when(() -> LocalTime.now(any(ZoneId.class))).thenReturn(mockedTime);
+
+            assertThatExceptionOfType(VoteSubmissionException.class)
+                    .isThrownBy(() -> voteService.update(u, 1L))
+                    .withMessageContaining("not voted today");
+            verifyNoInteractions(voteTally);
+        }
     }
 
     @Test
     void update_Should_throw_EntityNotFoundException_when_restaurant_not_found() {
-        given(restaurantRepository.findById(anyLong())).willReturn(Optional.empty());
+        given(voteRepository.change(any(), anyLong(), any(LocalDate.class)))
+                .willThrow(new DataIntegrityViolationException("FK_VOTE_RESTAURANT"));
+        given(restaurantRepository.existsById(1L)).willReturn(false);
 
-        assertThatExceptionOfType(EntityNotFoundException.class)
-                .isThrownBy(() -> voteService.update(new User(), 1L));
+        LocalTime mockedTime = LocalTime.of(10, 0);
+        try (MockedStatic<LocalTime> mockedStatic = mockStatic(LocalTime.class)) {
+            mockedStatic.when(() -> LocalTime.now(any(ZoneId.class))).thenReturn(mockedTime);
+
+            assertThatExceptionOfType(EntityNotFoundException.class)
+                    .isThrownBy(() -> voteService.update(new User(), 1L));
+        }
     }
 
     @Test
@@ -191,7 +270,7 @@ public class VoteServiceTest {
         given(restaurantRepository.existsById(anyLong())).willReturn(true);
         given(voteRepository.findAllByRestaurantAndDate(anyLong(), any(LocalDate.class))).willReturn(15L);
 
-        Long result = voteService.getTotalByDate(1L, LocalDate.now());
+        Long result = voteService.getTotalByDate(1L, today);
 
         assertThat(result).isEqualTo(15L);
     }
@@ -205,7 +284,55 @@ public class VoteServiceTest {
         voteService.getTotalByDate(1L, null);
 
         verify(voteRepository).findAllByRestaurantAndDate(anyLong(), captor.capture());
-        assertThat(captor.getValue()).isEqualTo(LocalDate.now());
+        assertThat(captor.getValue()).isEqualTo(today);
+    }
+
+    @Test
+    void getTotalByDate_Should_read_tally_when_date_is_tracked() {
+        given(voteTally.isTracked(any(LocalDate.class))).willReturn(true);
+        given(voteTally.get(anyLong(), any(LocalDate.class))).willReturn(7L);
+
+        Long result = voteService.getTotalByDate(1L, today);
+
+        assertThat(result).isEqualTo(7L);
+        verifyNoInteractions(voteRepository, restaurantRepository);
+    }
+
+    @Test
+    void getTotalByDate_Should_return_zero_when_date_is_tracked_and_restaurant_has_no_votes() {
+        given(voteTally.isTracked(any(LocalDate.class))).willReturn(true);
+        given(voteTally.get(anyLong(), any(LocalDate.class))).willReturn(null);
+        given(restaurantRepository.existsById(anyLong())).willReturn(true);
+
+        Long result = voteService.getTotalByDate(1L, today);
+
+        assertThat(result).isEqualTo(0L);
+        verifyNoInteractions(voteRepository);
+    }
+
+    @Test
+    void getTotalByDate_Should_read_rollup_when_past_date_is_rolled_up() {
+        LocalDate date = LocalDate.of(2021, 1, 1);
+        given(voteTotalRepository.existsByDate(date)).willReturn(true);
+        given(voteTotalRepository.findTotalByRestaurantAndDate(1L, date)).willReturn(9L);
+
+        Long result = voteService.getTotalByDate(1L, date);
+
+        assertThat(result).isEqualTo(9L);
+        verifyNoInteractions(voteRepository, restaurantRepository);
+    }
+
+    @Test
+    void getTotalByDate_Should_return_zero_when_past_date_is_rolled_up_and_restaurant_has_no_votes() {
+        LocalDate date = LocalDate.of(2021, 1, 1);
+        given(voteTotalRepository.existsByDate(date)).willReturn(true);
+        given(voteTotalRepository.findTotalByRestaurantAndDate(1L, date)).willReturn(null);
+        given(restaurantRepository.existsById(1L)).willReturn(true);
+
+        Long result = voteService.getTotalByDate(1L, date);
+
+        assertThat(result).isEqualTo(0L);
+        verifyNoInteractions(voteRepository);
     }
 
     @Test
@@ -213,6 +340,49 @@ public class VoteServiceTest {
         given(restaurantRepository.existsById(anyLong())).willReturn(false);
 
         assertThatExceptionOfType(EntityNotFoundException.class)
-                .isThrownBy(() -> voteService.getTotalByDate(1L, LocalDate.now()));
+                .isThrownBy(() -> voteService.getTotalByDate(1L, today));
+    }
+
+    @Test
+    void getLeaderboardByDate_Should_return_totals_for_all_restaurants() {
+        List<VoteTotalTO> expected = List.of(new VoteTotalTO(2L, 4L), new VoteTotalTO(1L, 0L));
+
+        given(voteRepository.getLeaderboardByDate(any(LocalDate.class))).willReturn(expected);
+
+        List<VoteTotalTO> result = voteService.getLeaderboardByDate(today);
+
+        assertThat(result).isEqualTo(expected);
+    }
+
+    @Test
+    void getLeaderboardByDate_Should_read_rollup_when_past_date_is_rolled_up() {
+        LocalDate date = LocalDate.of(2021, 1, 1);
+        List<VoteTotalTO> expected = List.of(new VoteTotalTO(2L, 4L), new VoteTotalTO(1L, 0L));
+        given(voteTotalRepository.existsByDate(date)).willReturn(true);
+        given(voteTotalRepository.getLeaderboardByDate(date)).willReturn(expected);
+
+        List<VoteTotalTO> result = voteService.getLeaderboardByDate(date);
+
+        assertThat(result).isEqualTo(expected);
+        verifyNoInteractions(voteRepository);
+    }
+
+    @Test
+    void getLeaderboardByDate_Should_use_current_date_when_date_not_provided() {
+        given(voteRepository.getLeaderboardByDate(any(LocalDate.class))).willReturn(List.of(new VoteTotalTO(1L, 0L)));
+        ArgumentCaptor<LocalDate> captor = ArgumentCaptor.forClass(LocalDate.class);
+
+        voteService.getLeaderboardByDate(null);
+
+        verify(voteRepository).getLeaderboardByDate(captor.capture());
+        assertThat(captor.getValue()).isEqualTo(today);
+    }
+
+    @Test
+    void getLeaderboardByDate_Should_throw_EntityNotFoundException_when_no_restaurants_present() {
+        given(voteRepository.getLeaderboardByDate(any(LocalDate.class))).willReturn(List.of());
+
+        assertThatExceptionOfType(EntityNotFoundException.class)
+                .isThrownBy(() -> voteService.getLeaderboardByDate(today));
     }
 }
\ No newline at end of file
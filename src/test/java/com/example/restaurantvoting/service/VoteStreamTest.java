@@ -0,0 +1,78 @@
+package com.example.restaurantvoting.service;
+
+import com.example.restaurantvoting.model.Restaurant;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+public class VoteStreamTest {
+
+    @Mock
+    private RestaurantService restaurantService;
+    @Mock
+    private VoteTally voteTally;
+    private VoteStream voteStream;
+
+    private final LocalDate today = LocalDate.now(ZoneId.of("Europe/Moscow"));
+
+    @BeforeEach
+    void setUp() {
+        voteStream = new VoteStream(restaurantService, voteTally,
+                Duration.ofMinutes(1), Duration.ofSeconds(5), 2, 1, 1);
+    }
+
+    @AfterEach
+    void tearDown() {
+        voteStream.stop();
+    }
+
+    @Test
+    void subscribe_Should_keep_subscriber_when_snapshot_is_larger_than_pending_limit() {
+        List<Restaurant> restaurants = LongStream.rangeClosed(1, 5)
+                .mapToObj(id -> {
+                    Restaurant restaurant = new Restaurant("Test Restaurant " + id, "Test Address");
+                    restaurant.setId(id);
+                    return restaurant;
+                })
+                .collect(Collectors.toList());
+
+        given(restaurantService.getAll()).willReturn(restaurants);
+
+        voteStream.subscribe();
+
+        assertThat(voteStream.getSubscriberCount()).isEqualTo(1);
+        verify(voteTally, times(5)).get(anyLong(), any(LocalDate.class));
+    }
+
+    @Test
+    void publishChanges_Should_disconnect_subscriber_with_too_many_pending_totals() {
+        given(restaurantService.getAll()).willReturn(List.of());
+        voteStream.subscribe();
+
+        for (long id = 1; id <= 3; id++) {
+            voteStream.onVoteTotalChanged(new VoteTotalChangedEvent(id, today));
+        }
+        voteStream.publishChanges();
+
+        assertThat(voteStream.getSubscriberCount()).isZero();
+        assertThat(voteStream.getBlockedSenderCount()).isZero();
+    }
+}
@@ -0,0 +1,114 @@
+package com.example.restaurantvoting.service;
+
+import com.example.restaurantvoting.repository.VoteRepository;
+import com.example.restaurantvoting.to.VoteTotalTO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.then;
+import static org.mockito.Mockito.times;
+
+@ExtendWith(MockitoExtension.class)
+public class VoteTallyTest {
+
+    @Mock
+    private VoteRepository voteRepository;
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+    private VoteTally voteTally;
+
+    private final LocalDate today = LocalDate.now(ZoneId.of("Europe/Moscow"));
+
+    @BeforeEach
+    void setUp() {
+        voteTally = new VoteTally(voteRepository, eventPublisher);
+    }
+
+    @Test
+    void rebuild_Should_load_current_date_totals_from_database() {
+        given(voteRepository.countAllByDateGroupByRestaurant(any(LocalDate.class)))
+                .willReturn(List.of(new VoteTotalTO(1L, 3L), new VoteTotalTO(2L, 5L)));
+
+        voteTally.rebuild();
+
+        assertThat(voteTally.getTrackedSince()).isEqualTo(today);
+        assertThat(voteTally.get(1L, today)).isEqualTo(3L);
+        assertThat(voteTally.get(2L, today)).isEqualTo(5L);
+        assertThat(voteTally.get(3L, today)).isNull();
+    }
+
+    @Test
+    void isTracked_Should_reject_dates_before_rebuild_date() {
+        assertThat(voteTally.isTracked(today)).isFalse();
+
+        voteTally.rebuild();
+
+        assertThat(voteTally.isTracked(today)).isTrue();
+        assertThat(voteTally.isTracked(today.plusDays(1))).isTrue();
+        assertThat(voteTally.isTracked(today.minusDays(1))).isFalse();
+    }
+
+    @Test
+    void move_Should_decrement_old_and_increment_new_restaurant() {
+        voteTally.increment(1L, today);
+        voteTally.increment(1L, today);
+
+        voteTally.move(1L, 2L, today);
+
+        assertThat(voteTally.get(1L, today)).isEqualTo(1L);
+        assertThat(voteTally.get(2L, today)).isEqualTo(1L);
+    }
+
+    @Test
+    void move_Should_publish_change_of_both_restaurants() {
+        voteTally.increment(1L, today);
+
+        voteTally.move(1L, 2L, today);
+
+        then(eventPublisher).should(times(2)).publishEvent(new VoteTotalChangedEvent(1L, today));
+        then(eventPublisher).should().publishEvent(new VoteTotalChangedEvent(2L, today));
+    }
+
+    @Test
+    void evictRestaurant_Should_drop_all_counters_of_restaurant() {
+        voteTally.increment(1L, today);
+        voteTally.increment(2L, today);
+
+        voteTally.evictRestaurant(1L);
+
+        assertThat(voteTally.get(1L, today)).isNull();
+        assertThat(voteTally.get(2L, today)).isEqualTo(1L);
+    }
+
+    @Test
+    void prepare_Should_create_zero_counters_for_coming_date() {
+        voteTally.prepare(today.plusDays(1), List.of(1L, 2L));
+
+        assertThat(voteTally.get(1L, today.plusDays(1))).isZero();
+        assertThat(voteTally.get(2L, today.plusDays(1))).isZero();
+    }
+
+    @Test
+    void rollover_Should_drop_counters_of_previous_dates_and_stop_tracking_them() {
+        voteTally.rebuild();
+        voteTally.increment(1L, today);
+        voteTally.prepare(today.plusDays(1), List.of(1L));
+
+        voteTally.rollover(today.plusDays(1));
+
+        assertThat(voteTally.getTrackedSince()).isEqualTo(today.plusDays(1));
+        assertThat(voteTally.get(1L, today)).isNull();
+        assertThat(voteTally.get(1L, today.plusDays(1))).isZero();
+    }
+}
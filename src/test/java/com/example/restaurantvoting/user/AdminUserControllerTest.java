@@ -4,16 +4,31 @@ import com.example.restaurantvoting.AbstractTest;
 import com.example.restaurantvoting.model.user.Role;
 import com.example.restaurantvoting.model.user.Status;
 import com.example.restaurantvoting.model.user.User;
+import com.example.restaurantvoting.to.BulkheadStatsTO;
+import com.example.restaurantvoting.web.AdmissionControlFilter;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithAnonymousUser;
 import org.springframework.security.test.context.support.WithUserDetails;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.ResultActions;
 import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
 
 import java.util.List;
 
 import static org.assertj.core.api.AssertionsForClassTypes.assertThat;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.httpBasic;
+import static org.springframework.security.test.web.servlet.setup.SecurityMockMvcConfigurers.springSecurity;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WithUserDetails(value = "admin@mail.com")
@@ -22,6 +37,11 @@ class AdminUserControllerTest extends AbstractTest {
     private final String restUrl = "/api/admin/users";
     private final ObjectMapper mapper = new ObjectMapper();
 
+    @Autowired
+    private WebApplicationContext context;
+    @Autowired
+    private AdmissionControlFilter admissionControlFilter;
+
     @Test
     void getAllUsers() throws Exception {
         List<User> expected = List.of(
@@ -42,6 +62,59 @@ class AdminUserControllerTest extends AbstractTest {
         assertThat(actual).usingRecursiveComparison().isEqualTo(expected);
     }
 
+    @Test
+    void getUsersPage() throws Exception {
+        perform(MockMvcRequestBuilders.get(restUrl + "?limit=2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(header().string(HttpHeaders.LINK, "<http://localhost/api/admin/users?limit=2&afterId=2>; rel=\"next\""));
+
+        perform(MockMvcRequestBuilders.get(restUrl + "?limit=2&afterId=2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id").value(3))
+                .andExpect(header().doesNotExist(HttpHeaders.LINK));
+    }
+
+    @Test
+    void getUsersPageWithDefaultLimit() throws Exception {
+        perform(MockMvcRequestBuilders.get(restUrl + "?afterId=1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[0].id").value(2))
+                .andExpect(header().doesNotExist(HttpHeaders.LINK));
+    }
+
+    @Test
+    void getUsersPageFilteredByStatus() throws Exception {
+        perform(MockMvcRequestBuilders.get(restUrl + "?role=USER&status=BANNED"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].email").value("unlucky1user@mail.com"));
+    }
+
+    @Test
+    void exportUsers() throws Exception {
+        MvcResult mvcResult = perform(MockMvcRequestBuilders.get(restUrl + "/export?role=USER"))
+                .andExpect(request().asyncStarted())
+                .andExpect(header().string("X-Content-Type-Options", "nosniff"))
+                .andReturn();
+
+        mvcResult.getAsyncResult(5000);
+        List<User> actual = mapper.readValue(mvcResult.getResponse().getContentAsString(), new TypeReference<>(){});
+
+        assertThat(actual.size()).isEqualTo(2);
+        assertThat(actual.get(0).getEmail()).isEqualTo("user@mail.com");
+        assertThat(actual.get(0).getPassword()).isNull();
+        assertThat(actual.get(1).getStatus()).isEqualTo(Status.BANNED);
+    }
+
+    @Test
+    @WithUserDetails(value = "user@mail.com")
+    void exportUsersForbiddenForUser() throws Exception {
+        perform(MockMvcRequestBuilders.get(restUrl + "/export?role=USER"))
+                .andExpect(status().isForbidden());
+    }
+
     @Test
     void getUserById() throws Exception {
         User expected = new User("unlucky1user@mail.com", null, Role.USER, Status.BANNED);
@@ -72,4 +145,123 @@ class AdminUserControllerTest extends AbstractTest {
 
         assertThat(actual).usingRecursiveComparison().isEqualTo(expected);
     }
-}
\ No newline at end of file
+
+    // Only the security filter chain is applied: the auto-configured MockMvc also runs ErrorPageSecurityFilter,
+    // which re-checks access against the anonymous test security context
+    @Test
+    @WithAnonymousUser
+    void updateUserStatusRevokesCachedCredentials() throws Exception {
+        MockMvc basicMockMvc = MockMvcBuilders.webAppContextSetup(context).apply(springSecurity()).build();
+
+        basicMockMvc.perform(MockMvcRequestBuilders.get("/api/profile").with(httpBasic("user@mail.com", "user")))
+                .andExpect(status().isOk());
+        basicMockMvc.perform(MockMvcRequestBuilders.get("/api/profile").with(httpBasic("user@mail.com", "user")))
+                .andExpect(status().isOk());
+
+        basicMockMvc.perform(MockMvcRequestBuilders.patch(restUrl + "/1?enabled=false").with(httpBasic("admin@mail.com", "admin")))
+                .andExpect(status().isNoContent());
+
+        basicMockMvc.perform(MockMvcRequestBuilders.get("/api/profile").with(httpBasic("user@mail.com", "user")))
+                .andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    @WithAnonymousUser
+    void updateUserStatusRevokesCachedCredentialsOfMixedCaseLogin() throws Exception {
+        MockMvc basicMockMvc = MockMvcBuilders.webAppContextSetup(context).apply(springSecurity()).build();
+
+        basicMockMvc.perform(MockMvcRequestBuilders.get("/api/profile").with(httpBasic("USER@mail.com", "user")))
+                .andExpect(status().isOk());
+        basicMockMvc.perform(MockMvcRequestBuilders.get("/api/profile").with(httpBasic(" User@Mail.com", "user")))
+                .andExpect(status().isOk());
+
+        basicMockMvc.perform(MockMvcRequestBuilders.patch(restUrl + "/1?enabled=false").with(httpBasic("admin@mail.com", "admin")))
+                .andExpect(status().isNoContent());
+
+        basicMockMvc.perform(MockMvcRequestBuilders.get("/api/profile").with(httpBasic("USER@mail.com", "user")))
+                .andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    @WithAnonymousUser
+    void updateUsersStatusRevokesCachedCredentials() throws Exception {
+        MockMvc basicMockMvc = MockMvcBuilders.webAppContextSetup(context).apply(springSecurity()).build();
+
+        basicMockMvc.perform(MockMvcRequestBuilders.get("/api/profile").with(httpBasic("user@mail.com", "user")))
+                .andExpect(status().isOk());
+
+        basicMockMvc.perform(MockMvcRequestBuilders.patch(restUrl + "?enabled=false").with(httpBasic("admin@mail.com", "admin"))
+                        .contentType(MediaType.APPLICATION_JSON).content("[1, 2, 3, 99]"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].outcome").value("UPDATED"))
+                .andExpect(jsonPath("$[1].outcome").value("FORBIDDEN"))
+                .andExpect(jsonPath("$[2].outcome").value("UNCHANGED"))
+                .andExpect(jsonPath("$[3].outcome").value("NOT_FOUND"));
+
+        basicMockMvc.perform(MockMvcRequestBuilders.get("/api/profile").with(httpBasic("user@mail.com", "user")))
+                .andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    @WithAnonymousUser
+    void badCredentialsDoNotTakeAdminPermits() throws Exception {
+        perform(MockMvcRequestBuilders.get(restUrl).with(httpBasic("admin@mail.com", "wrong")))
+                .andExpect(status().isUnauthorized());
+        perform(MockMvcRequestBuilders.get(restUrl).with(httpBasic("admin@mail.com", "admin")))
+                .andExpect(status().isOk());
+
+        BulkheadStatsTO admin = admissionControlFilter.getStats().stream()
+                .filter(stats -> stats.getName().equals("admin"))
+                .findFirst().orElseThrow();
+        assertThat(admin.getAccepted()).isEqualTo(1L);
+    }
+
+    @Test
+    void importUsersFromCsv() throws Exception {
+        String csv = "email,password\n" +
+                "new@mail.com,password\n" +
+                "NEW@mail.com,password\n" +
+                "user@mail.com,password\n" +
+                "not-an-email,password\n";
+
+        perform(MockMvcRequestBuilders.post(restUrl + "/import").contentType("text/csv").content(csv))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.total").value(4))
+                .andExpect(jsonPath("$.created").value(1))
+                .andExpect(jsonPath("$.results[0].status").value("CREATED"))
+                .andExpect(jsonPath("$.results[1].status").value("DUPLICATE"))
+                .andExpect(jsonPath("$.results[2].status").value("EXISTS"))
+                .andExpect(jsonPath("$.results[3].status").value("INVALID"));
+    }
+
+    @Test
+    @WithAnonymousUser
+    void importedUserCanAuthenticate() throws Exception {
+        MockMvc basicMockMvc = MockMvcBuilders.webAppContextSetup(context).apply(springSecurity()).build();
+
+        basicMockMvc.perform(MockMvcRequestBuilders.post(restUrl + "/import").with(httpBasic("admin@mail.com", "admin"))
+                        .contentType("text/csv").content("new@mail.com,password"))
+                .andExpect(status().isOk());
+
+        basicMockMvc.perform(MockMvcRequestBuilders.get("/api/profile").with(httpBasic("new@mail.com", "password")))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void importUsersFromJson() throws Exception {
+        String json = "[{\"email\":\"new@mail.com\",\"password\":\"password\"}," +
+                "{\"email\":\"admin@mail.com\",\"password\":\"password\"}]";
+
+        perform(MockMvcRequestBuilders.post(restUrl + "/import").contentType(MediaType.APPLICATION_JSON).content(json))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.created").value(1))
+                .andExpect(jsonPath("$.results[0].email").value("new@mail.com"))
+                .andExpect(jsonPath("$.results[1].status").value("EXISTS"));
+    }
+
+    @Test
+    void importUsersFromMalformedJson() throws Exception {
+        perform(MockMvcRequestBuilders.post(restUrl + "/import").contentType(MediaType.APPLICATION_JSON).content("{}"))
+                .andExpect(status().isUnprocessableEntity());
+    }
+}
@@ -10,10 +10,13 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.Test;
 import org.springframework.http.MediaType;
 import org.springframework.security.test.context.support.WithAnonymousUser;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.ResultActions;
 import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
 
 import static org.assertj.core.api.AssertionsForClassTypes.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 class ProfileControllerTest extends AbstractTest {
@@ -26,9 +29,13 @@ class ProfileControllerTest extends AbstractTest {
         User expected = new User("newuser@mail.com", null, Role.USER, Status.ACTIVE);
         expected.setId(4L);
 
-        ResultActions resultActions = perform(MockMvcRequestBuilders.post("/api/profile")
+        MvcResult mvcResult = perform(MockMvcRequestBuilders.post("/api/profile")
                 .contentType(MediaType.APPLICATION_JSON)
                 .content(mapper.writeValueAsString(new UserInputTO("newuser@mail.com", "pass"))))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        ResultActions resultActions = perform(asyncDispatch(mvcResult))
                 .andExpect(status().isCreated());
 
         String contentAsString = resultActions.andReturn().getResponse().getContentAsString();
@@ -2,19 +2,27 @@ package com.example.restaurantvoting.vote;
 
 import com.example.restaurantvoting.AbstractTest;
 import com.example.restaurantvoting.to.VoteOutputTO;
+import com.example.restaurantvoting.to.VoteTotalTO;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
 import org.springframework.security.test.context.support.WithUserDetails;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.ResultActions;
 import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
 
 import java.time.LocalDate;
 import java.time.LocalTime;
 import java.time.ZoneId;
+import java.util.List;
 
 import static org.assertj.core.api.AssertionsForClassTypes.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.not;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WithUserDetails(value = "user@mail.com")
@@ -44,7 +52,7 @@ class VoteControllerTest extends AbstractTest {
     @Test
     void createVote() throws Exception {
         VoteOutputTO expected = new VoteOutputTO(
-                3L, 1L, "user@mail.com", LocalDate.now());
+                3L, 1L, "user@mail.com", LocalDate.now(ZoneId.of("Europe/Moscow")));
 
         ResultActions resultActions = perform(MockMvcRequestBuilders.post(restUrl+ "?restaurantId=1"))
                 .andExpect(status().isCreated());
@@ -58,7 +66,7 @@ class VoteControllerTest extends AbstractTest {
     @Test
     void updateVote() throws Exception {
         VoteOutputTO expected = new VoteOutputTO(
-                3L, 2L, "user@mail.com", LocalDate.now());
+                3L, 2L, "user@mail.com", LocalDate.now(ZoneId.of("Europe/Moscow")));
 
         perform(MockMvcRequestBuilders.post(restUrl+ "?restaurantId=1"))
                 .andExpect(status().isCreated());
@@ -88,4 +96,92 @@ class VoteControllerTest extends AbstractTest {
 
         assertThat(actual).isEqualTo(1L);
     }
-}
\ No newline at end of file
+
+    @Test
+    void getTotalVotesByDate() throws Exception {
+        List<VoteTotalTO> expected = List.of(new VoteTotalTO(1L, 1L), new VoteTotalTO(2L, 1L));
+
+        ResultActions resultActions = perform(MockMvcRequestBuilders.get(restUrl + "/total?date=01.01.2021"))
+                .andExpect(status().isOk());
+
+        String contentAsString = resultActions.andReturn().getResponse().getContentAsString();
+        List<VoteTotalTO> actual = mapper.readValue(contentAsString, new TypeReference<>(){});
+
+        assertThat(actual).usingRecursiveComparison().isEqualTo(expected);
+    }
+
+    @Test
+    void getTotalVotesByDate_Should_revalidate_closed_date_and_answer_not_modified() throws Exception {
+        String eTag = perform(MockMvcRequestBuilders.get(restUrl + "/total?date=01.01.2021"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, containsString("must-revalidate")))
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, not(containsString("immutable"))))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        perform(MockMvcRequestBuilders.get(restUrl + "/total?date=01.01.2021").header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, containsString("must-revalidate")));
+    }
+
+    @Test
+    void getTotalVotesForRestaurantByDate_Should_mark_closed_date_immutable() throws Exception {
+        perform(MockMvcRequestBuilders.get(restUrl + "/total/1?date=01.01.2021"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, containsString("immutable")));
+    }
+
+    @Test
+    void getTotalVotesForRestaurantByDate_Should_not_cache_not_found() throws Exception {
+        perform(MockMvcRequestBuilders.get(restUrl + "/total/99?date=01.01.2021"))
+                .andExpect(status().isNotFound())
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, not(containsString("immutable"))))
+                .andExpect(header().doesNotExist(HttpHeaders.ETAG));
+    }
+
+    @Test
+    void getTotalVotesByDate_Should_not_cache_current_date() throws Exception {
+        perform(MockMvcRequestBuilders.get(restUrl + "/total"))
+                .andExpect(header().doesNotExist(HttpHeaders.ETAG));
+    }
+
+    @Test
+    void streamTotalVotes() throws Exception {
+        MvcResult mvcResult = perform(MockMvcRequestBuilders.get(restUrl + "/stream"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        assertThat(awaitContent(mvcResult, "{\"restaurantId\":1,\"total\":0}")).isTrue();
+
+        perform(MockMvcRequestBuilders.post(restUrl + "?restaurantId=1"))
+                .andExpect(status().isCreated());
+
+        assertThat(awaitContent(mvcResult, "event:totals\ndata:[{\"restaurantId\":1,\"total\":1}]")).isTrue();
+    }
+
+    @Test
+    void getVoteHistory() throws Exception {
+        MvcResult mvcResult = perform(MockMvcRequestBuilders.get(restUrl + "/history?from=31.12.2020&to=02.01.2021"))
+                .andExpect(request().asyncStarted())
+                .andExpect(header().string("X-Content-Type-Options", "nosniff"))
+                .andReturn();
+
+        assertThat(awaitContent(mvcResult, "{\"from\":\"31.12.2020\",\"to\":\"02.01.2021\",\"restaurants\":[" +
+                "{\"restaurantId\":1,\"totals\":[0,1,0]},{\"restaurantId\":2,\"totals\":[0,1,0]}]}")).isTrue();
+    }
+
+    @Test
+    void getVoteHistoryWithInvalidRange() throws Exception {
+        perform(MockMvcRequestBuilders.get(restUrl + "/history?from=02.01.2021&to=31.12.2020"))
+                .andExpect(status().isUnprocessableEntity());
+    }
+
+    private boolean awaitContent(MvcResult mvcResult, String expected) throws Exception {
+        for (int i = 0; i < 50; i++) {
+            if (mvcResult.getResponse().getContentAsString().contains(expected)) {
+                return true;
+            }
+            Thread.sleep(100);
+        }
+        return false;
+    }
+}
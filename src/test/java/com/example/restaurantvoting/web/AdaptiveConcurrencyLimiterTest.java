@@ -0,0 +1,95 @@
+package com.example.restaurantvoting.web;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class AdaptiveConcurrencyLimiterTest {
+
+    private static final long FAST = 1_000_000;
+    private static final long SLOW = 50_000_000;
+
+    @Test
+    void tryAcquire_Should_reject_when_limit_reached() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter("test", 2, 1, 10, 2.0);
+
+        assertThat(limiter.tryAcquire()).isTrue();
+        assertThat(limiter.tryAcquire()).isTrue();
+        assertThat(limiter.tryAcquire()).isFalse();
+
+        limiter.release(FAST, false);
+
+        assertThat(limiter.tryAcquire()).isTrue();
+        assertThat(limiter.getStats().getAccepted()).isEqualTo(3L);
+        assertThat(limiter.getStats().getRejected()).isEqualTo(1L);
+    }
+
+    @Test
+    void release_Should_raise_limit_while_latency_stays_low_and_limit_is_used() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter("test", 4, 1, 10, 2.0);
+
+        for (int i = 0; i < 100; i++) {
+            fill(limiter);
+            drain(limiter, FAST, false);
+        }
+
+        assertThat(limiter.getLimit()).isEqualTo(10);
+    }
+
+    @Test
+    void release_Should_lower_limit_when_latency_grows_or_requests_fail() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter("test", 10, 2, 10, 2.0);
+
+        limiter.tryAcquire();
+        limiter.release(FAST, false);
+        int fill = fill(limiter);
+        drain(limiter, SLOW, false, fill);
+
+        assertThat(limiter.getLimit()).isLessThan(10);
+
+        for (int i = 0; i < 50; i++) {
+            limiter.tryAcquire();
+            limiter.release(FAST, true);
+        }
+
+        assertThat(limiter.getLimit()).isEqualTo(2);
+    }
+
+    @Test
+    void release_Should_keep_limit_under_mixed_latency_workload() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter("test", 50, 4, 100, 2.0);
+        Random random = new Random(42);
+
+        for (int i = 0; i < 500; i++) {
+            int fill = fill(limiter);
+            for (int j = 0; j < fill; j++) {
+                // Mostly cache hits, with history reads and password checks costing 10-100 times more in between
+                double dice = random.nextDouble();
+                long latency = dice < 0.8 ? FAST : dice < 0.95 ? 10 * FAST : 100 * FAST;
+                limiter.release(latency, false);
+            }
+        }
+
+        assertThat(limiter.getLimit()).isGreaterThan(25);
+    }
+
+    private static int fill(AdaptiveConcurrencyLimiter limiter) {
+        int acquired = 0;
+        while (limiter.tryAcquire()) {
+            acquired++;
+        }
+        return acquired;
+    }
+
+    private static void drain(AdaptiveConcurrencyLimiter limiter, long latency, boolean failed) {
+        drain(limiter, latency, failed, limiter.getStats().getInFlight());
+    }
+
+    private static void drain(AdaptiveConcurrencyLimiter limiter, long latency, boolean failed, int count) {
+        for (int i = 0; i < count; i++) {
+            limiter.release(latency, failed);
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package com.example.restaurantvoting.web;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import javax.servlet.FilterChain;
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class AdmissionControlFilterTest {
+
+    private final AdmissionControlFilter filter =
+            new AdmissionControlFilter(true, Duration.ofSeconds(2), 1, 2.0, 2, 2, 2);
+
+    @Test
+    void doFilter_Should_shed_votes_over_limit_with_503_and_retry_after() throws Exception {
+        CountDownLatch entered = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        FilterChain blockingChain = (request, response) -> {
+            entered.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        };
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            executor.submit(() -> {
+                filter.doFilter(new MockHttpServletRequest("POST", "/api/vote"), new MockHttpServletResponse(), blockingChain);
+                return null;
+            });
+            assertThat(entered.await(5, TimeUnit.SECONDS)).isTrue();
+
+            MockHttpServletResponse vote = perform("PUT", "/api/vote");
+            MockHttpServletResponse admin = perform("GET", "/api/admin/users");
+            MockHttpServletResponse read = perform("GET", "/api/restaurants");
+
+            assertThat(vote.getStatus()).isEqualTo(503);
+            assertThat(vote.getHeader(HttpHeaders.RETRY_AFTER)).isEqualTo("2");
+            assertThat(admin.getStatus()).isEqualTo(200);
+            assertThat(read.getStatus()).isEqualTo(200);
+        } finally {
+            release.countDown();
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    void doFilter_Should_not_limit_requests_outside_bulkheads() throws Exception {
+        for (int i = 0; i < 5; i++) {
+            assertThat(perform("POST", "/api/profile").getStatus()).isEqualTo(200);
+            assertThat(perform("GET", "/api/vote/stream").getStatus()).isEqualTo(200);
+            assertThat(perform("GET", "/api/vote/history").getStatus()).isEqualTo(200);
+        }
+
+        assertThat(filter.getStats()).allMatch(stats -> stats.getAccepted() == 0);
+    }
+
+    private MockHttpServletResponse perform(String method, String uri) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(new MockHttpServletRequest(method, uri), response, (req, res) -> {});
+        return response;
+    }
+}
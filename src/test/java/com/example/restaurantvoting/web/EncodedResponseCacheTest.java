@@ -0,0 +1,85 @@
+package com.example.restaurantvoting.web;
+
+import com.example.restaurantvoting.service.MenuChangedEvent;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class EncodedResponseCacheTest {
+
+    private final ResourceVersions resourceVersions = new ResourceVersions(Duration.ofDays(1), Duration.ofSeconds(60));
+    private final AtomicInteger loads = new AtomicInteger();
+    private final Supplier<List<String>> loader = () -> List.of("dish-" + loads.incrementAndGet());
+    private EncodedResponseCache cache;
+
+    @BeforeEach
+    void setUp() {
+        cache = new EncodedResponseCache(resourceVersions, new ObjectMapper(), new CaffeineCacheManager(), true);
+    }
+
+    @Test
+    void respond_Should_encode_once_and_reuse_bytes() {
+        ResponseEntity<byte[]> first = respond(null);
+        ResponseEntity<byte[]> second = respond(null);
+
+        assertThat(new String(first.getBody())).isEqualTo("[\"dish-1\"]");
+        assertThat(second.getBody()).isSameAs(first.getBody());
+        assertThat(loads).hasValue(1);
+    }
+
+    @Test
+    void respond_Should_reload_after_change_event() {
+        respond(null);
+
+        resourceVersions.onMenuChanged(new MenuChangedEvent(1L, LocalDate.now(ZoneId.of("Europe/Moscow"))));
+        cache.onMenuChanged(new MenuChangedEvent(1L, LocalDate.now(ZoneId.of("Europe/Moscow"))));
+
+        assertThat(new String(respond(null).getBody())).isEqualTo("[\"dish-2\"]");
+    }
+
+    @Test
+    void respond_Should_skip_gzip_when_refused_by_quality() {
+        assertThat(respond("gzip;q=0").getHeaders().containsKey(HttpHeaders.CONTENT_ENCODING)).isFalse();
+        assertThat(respond("br, gzip;q=0.5").getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING)).isEqualTo("gzip");
+    }
+
+    @Test
+    void respond_Should_answer_not_modified_without_loading() {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/restaurants/1/menu");
+        request.addHeader(HttpHeaders.IF_NONE_MATCH, resourceVersions.eTag(ResourceVersions.menu(1L)));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        ResponseEntity<byte[]> result = cache.respond(
+                new ServletWebRequest(request, response), ResourceVersions.menu(1L), null, 0, loader);
+
+        assertThat(result).isNull();
+        assertThat(response.getStatus()).isEqualTo(304);
+        assertThat(loads).hasValue(0);
+    }
+
+    private ResponseEntity<byte[]> respond(String acceptEncoding) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/restaurants/1/menu");
+
+        if (acceptEncoding != null) {
+            request.addHeader(HttpHeaders.ACCEPT_ENCODING, acceptEncoding);
+        }
+
+        return cache.respond(
+                new ServletWebRequest(request, new MockHttpServletResponse()), ResourceVersions.menu(1L), null, 0, loader);
+    }
+}
@@ -0,0 +1,85 @@
+package com.example.restaurantvoting.web;
+
+import com.example.restaurantvoting.service.MenuChangedEvent;
+import com.example.restaurantvoting.service.RestaurantChangedEvent;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.ZoneId;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ResourceVersionsTest {
+
+    private final ResourceVersions resourceVersions = new ResourceVersions(Duration.ofDays(365), Duration.ofSeconds(60));
+
+    @Test
+    void onMenuChanged_Should_change_tags_of_restaurant_menu_and_all_menus_only() {
+        String menu = resourceVersions.eTag(ResourceVersions.menu(1L));
+        String otherMenu = resourceVersions.eTag(ResourceVersions.menu(2L));
+        String menus = resourceVersions.eTag(ResourceVersions.MENUS);
+        String restaurants = resourceVersions.eTag(ResourceVersions.RESTAURANTS);
+
+        resourceVersions.onMenuChanged(new MenuChangedEvent(1L, LocalDate.now(ZoneId.of("Europe/Moscow"))));
+
+        assertThat(resourceVersions.eTag(ResourceVersions.menu(1L))).isNotEqualTo(menu);
+        assertThat(resourceVersions.eTag(ResourceVersions.MENUS)).isNotEqualTo(menus);
+        assertThat(resourceVersions.eTag(ResourceVersions.menu(2L))).isEqualTo(otherMenu);
+        assertThat(resourceVersions.eTag(ResourceVersions.RESTAURANTS)).isEqualTo(restaurants);
+    }
+
+    @Test
+    void onMenuChanged_Should_change_tags_of_every_menu_when_restaurant_not_given() {
+        String menu = resourceVersions.eTag(ResourceVersions.menu(1L));
+        String otherMenu = resourceVersions.eTag(ResourceVersions.menu(2L));
+        String restaurants = resourceVersions.eTag(ResourceVersions.RESTAURANTS);
+
+        resourceVersions.onMenuChanged(new MenuChangedEvent(null, LocalDate.now(ZoneId.of("Europe/Moscow"))));
+
+        assertThat(resourceVersions.eTag(ResourceVersions.menu(1L))).isNotEqualTo(menu);
+        assertThat(resourceVersions.eTag(ResourceVersions.menu(2L))).isNotEqualTo(otherMenu);
+        assertThat(resourceVersions.eTag(ResourceVersions.RESTAURANTS)).isEqualTo(restaurants);
+    }
+
+    @Test
+    void onRestaurantChanged_Should_change_tags_of_restaurant_and_its_menu() {
+        String restaurant = resourceVersions.eTag(ResourceVersions.restaurant(1L));
+        String menu = resourceVersions.eTag(ResourceVersions.menu(1L));
+        String restaurants = resourceVersions.eTag(ResourceVersions.RESTAURANTS);
+
+        resourceVersions.onRestaurantChanged(new RestaurantChangedEvent(1L));
+
+        assertThat(resourceVersions.eTag(ResourceVersions.restaurant(1L))).isNotEqualTo(restaurant);
+        assertThat(resourceVersions.eTag(ResourceVersions.menu(1L))).isNotEqualTo(menu);
+        assertThat(resourceVersions.eTag(ResourceVersions.RESTAURANTS)).isNotEqualTo(restaurants);
+    }
+
+    @Test
+    void eTag_Should_be_strong_and_differ_by_variant() {
+        String today = resourceVersions.eTag(ResourceVersions.MENUS, LocalDate.of(2021, 1, 2));
+        String yesterday = resourceVersions.eTag(ResourceVersions.MENUS, LocalDate.of(2021, 1, 1));
+
+        assertThat(today).startsWith("\"").endsWith("\"").isNotEqualTo(yesterday);
+    }
+
+    @Test
+    void lastModified_Should_not_be_earlier_than_start_of_current_date() {
+        LocalDate today = LocalDate.now(ZoneId.of("Europe/Moscow"));
+        long dayStart = today.atStartOfDay(ZoneId.of("Europe/Moscow")).toInstant().toEpochMilli();
+
+        assertThat(resourceVersions.lastModified(ResourceVersions.MENUS, today)).isGreaterThanOrEqualTo(dayStart);
+        assertThat(resourceVersions.lastModified(ResourceVersions.MENUS, today.plusDays(1)))
+                .isEqualTo(resourceVersions.lastModified(ResourceVersions.MENUS));
+    }
+
+    @Test
+    void getImmutableCacheControl_Should_contain_max_age_and_immutable() {
+        assertThat(resourceVersions.getImmutableCacheControl()).isEqualTo("max-age=31536000, private, immutable");
+    }
+
+    @Test
+    void getRevalidatedCacheControl_Should_contain_max_age_and_must_revalidate() {
+        assertThat(resourceVersions.getRevalidatedCacheControl()).isEqualTo("max-age=60, must-revalidate, private");
+    }
+}